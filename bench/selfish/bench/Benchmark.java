@@ -0,0 +1,67 @@
+package selfish.bench;
+
+/**
+ * Abstract class Benchmark one measured operation
+ * 
+ * Only op() is timed. reset() runs untimed before every batch of
+ * batchSize() operations, so operations that use up their state (breathing,
+ * drawing) can be measured without the cost of rebuilding it.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public abstract class Benchmark {
+    private String name;
+
+    /**
+     * Benchmark constructor
+     * 
+     * @param name name shown in the results
+     */
+    protected Benchmark(String name) {
+        this.name = name;
+    }
+
+    /**
+     * returns the benchmark name
+     * 
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * prepares the benchmark for one parameter combination
+     * 
+     * @param players  number of players, 2 to 5
+     * @param deckSize multiplier of the card quantities in the card files
+     * @throws Exception setup failed
+     */
+    public abstract void setUp(int players, int deckSize) throws Exception;
+
+    /**
+     * restores the state used up by a batch, not timed
+     * 
+     * @throws Exception reset failed
+     */
+    public void reset() throws Exception {
+    }
+
+    /**
+     * returns the number of operations that can run between two resets
+     * 
+     * @return batch size
+     */
+    public int batchSize() {
+        return 1024;
+    }
+
+    /**
+     * runs the measured operation once
+     * 
+     * @return any value derived from the result, so it is not optimised away
+     * @throws Exception operation failed
+     */
+    public abstract long op() throws Exception;
+}
@@ -0,0 +1,181 @@
+package selfish.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Class BenchmarkRunner runs benchmarks and prints time and allocation per
+ * operation
+ * 
+ * The bench directory is a separate source root on top of main:
+ * 
+ * <pre>
+ * javac -d out $(find main bench -name '*.java')
+ * java -cp out selfish.bench.BenchmarkRunner [--players=2,3,4,5] [--deckSize=1,2]
+ *      [--warmup=3] [--iterations=5] [--time=200] [name filter]
+ * </pre>
+ * 
+ * --time is the length of each iteration in milliseconds; the table reports
+ * time in nanoseconds per operation (ns/op). Allocation is read from the
+ * thread's allocated byte counter around the timed region only, like the gc
+ * profiler's alloc.rate.norm (B/op) and alloc.rate (MB/sec) columns.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class BenchmarkRunner {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static volatile long sink;
+    private int[] players = { 2, 3, 4, 5 };
+    private int[] deckSizes = { 1, 2 };
+    private int warmupIterations = 3;
+    private int iterations = 5;
+    private long iterationNanos = 200_000_000L;
+    private long allocationOverhead;
+
+    /**
+     * an empty constructor
+     */
+    public BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        String filter = "";
+        for (String arg : args) {
+            if (arg.startsWith("--players=")) {
+                runner.players = parseList(arg);
+            } else if (arg.startsWith("--deckSize=")) {
+                runner.deckSizes = parseList(arg);
+            } else if (arg.startsWith("--warmup=")) {
+                runner.warmupIterations = parseList(arg)[0];
+            } else if (arg.startsWith("--iterations=")) {
+                runner.iterations = parseList(arg)[0];
+            } else if (arg.startsWith("--time=")) {
+                runner.iterationNanos = parseList(arg)[0] * 1_000_000L;
+            } else {
+                filter = arg;
+            }
+        }
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        for (Benchmark benchmark : EngineBenchmarks.all()) {
+            if (benchmark.getName().contains(filter)) {
+                benchmarks.add(benchmark);
+            }
+        }
+        runner.run(benchmarks);
+    }
+
+    /**
+     * runs every benchmark for every parameter combination
+     * 
+     * @param benchmarks benchmarks to run
+     * @throws Exception a benchmark failed
+     */
+    public void run(List<Benchmark> benchmarks) throws Exception {
+        allocationOverhead = allocatedBytes() - allocatedBytes();
+        allocationOverhead = -allocationOverhead;
+        System.out.println(String.format("%-28s %7s %8s %12s %10s %10s %12s", "Benchmark", "players", "deckSize",
+                "Score", "Error", "Units", "alloc B/op") + String.format(" %12s", "alloc MB/s"));
+        for (Benchmark benchmark : benchmarks) {
+            for (int playerCount : players) {
+                for (int deckSize : deckSizes) {
+                    benchmark.setUp(playerCount, deckSize);
+                    for (int i = 0; i < warmupIterations; i++) {
+                        iteration(benchmark);
+                    }
+                    double[] nanosPerOp = new double[iterations];
+                    double bytesPerOp = 0;
+                    double megabytesPerSecond = 0;
+                    for (int i = 0; i < iterations; i++) {
+                        long[] measured = iteration(benchmark);
+                        nanosPerOp[i] = (double) measured[1] / measured[0];
+                        bytesPerOp += (double) measured[2] / measured[0] / iterations;
+                        megabytesPerSecond += measured[2] * 1e3 / measured[1] / iterations;
+                    }
+                    print(benchmark.getName(), playerCount, deckSize, nanosPerOp, bytesPerOp, megabytesPerSecond);
+                }
+            }
+        }
+    }
+
+    /**
+     * runs batches of the benchmark for one iteration
+     * 
+     * @param benchmark benchmark to run
+     * @return operations, timed nanoseconds and allocated bytes
+     * @throws Exception the benchmark failed
+     */
+    private long[] iteration(Benchmark benchmark) throws Exception {
+        long operations = 0;
+        long timedNanos = 0;
+        long allocated = 0;
+        long value = 0;
+        int batchSize = benchmark.batchSize();
+        long deadline = System.nanoTime() + iterationNanos;
+        while (System.nanoTime() < deadline) {
+            benchmark.reset();
+            long bytesBefore = allocatedBytes();
+            long startTime = System.nanoTime();
+            for (int i = 0; i < batchSize; i++) {
+                value += benchmark.op();
+            }
+            long endTime = System.nanoTime();
+            long bytesAfter = allocatedBytes();
+            timedNanos += endTime - startTime;
+            allocated += Math.max(0, bytesAfter - bytesBefore - allocationOverhead);
+            operations += batchSize;
+        }
+        sink = value;
+        return new long[] { operations, timedNanos, allocated };
+    }
+
+    /**
+     * prints one result row
+     * 
+     * @param name               benchmark name
+     * @param playerCount        number of players
+     * @param deckSize           quantity multiplier
+     * @param nanosPerOp         time per operation of each iteration
+     * @param bytesPerOp         mean allocation per operation
+     * @param megabytesPerSecond mean allocation rate
+     */
+    private static void print(String name, int playerCount, int deckSize, double[] nanosPerOp, double bytesPerOp,
+            double megabytesPerSecond) {
+        double mean = 0;
+        for (double value : nanosPerOp) {
+            mean += value / nanosPerOp.length;
+        }
+        double variance = 0;
+        for (double value : nanosPerOp) {
+            variance += (value - mean) * (value - mean) / Math.max(1, nanosPerOp.length - 1);
+        }
+        System.out.println(String.format("%-28s %7d %8d %12.1f %10.1f %10s %12.1f %12.1f", name, playerCount,
+                deckSize, mean, Math.sqrt(variance), "ns/op", bytesPerOp, megabytesPerSecond));
+    }
+
+    /**
+     * returns the bytes allocated so far by the current thread
+     * 
+     * @return bytes
+     */
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * parses the comma separated numbers after the '=' of an option
+     * 
+     * @param arg option
+     * @return numbers
+     */
+    private static int[] parseList(String arg) {
+        String[] values = arg.substring(arg.indexOf('=') + 1).split(",");
+        int[] numbers = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            numbers[i] = Integer.parseInt(values[i].trim());
+        }
+        return numbers;
+    }
+}
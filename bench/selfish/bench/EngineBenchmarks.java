@@ -0,0 +1,600 @@
+package selfish.bench;
+
+import java.io.*;
+import java.util.*;
+import selfish.Astronaut;
+import selfish.GameEngine;
+import selfish.PackedPosition;
+import selfish.RandomStream;
+import selfish.deck.*;
+import selfish.sim.*;
+
+/**
+ * Class EngineBenchmarks benchmarks of the engine and deck hot paths
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class EngineBenchmarks {
+
+    /**
+     * an empty constructor
+     */
+    private EngineBenchmarks() {
+    }
+
+    /**
+     * returns every engine benchmark
+     * 
+     * @return benchmarks
+     */
+    public static List<Benchmark> all() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.add(new Breathe());
+        benchmarks.add(new HasCard());
+        benchmarks.add(new GetHand());
+        benchmarks.add(new DrawOxygen());
+        benchmarks.add(new SplitOxygen());
+        benchmarks.add(new GetAllPlayers());
+        benchmarks.add(new StateHash());
+        benchmarks.add(new Shuffle());
+        benchmarks.add(new NewGame());
+        benchmarks.add(new SaveState());
+        benchmarks.add(new LoadState());
+        benchmarks.add(new SaveGame());
+        benchmarks.add(new LoadGame());
+        benchmarks.add(new Fork());
+        benchmarks.add(new ForkTurn());
+        benchmarks.add(new StateRoundTrip());
+        benchmarks.add(new SerialCopy());
+        benchmarks.add(new PackPosition());
+        benchmarks.add(new UnpackPosition());
+        benchmarks.add(new FullGame());
+        benchmarks.add(new BatchGame());
+        benchmarks.add(new EndgameQuery());
+        return benchmarks;
+    }
+
+    /**
+     * Class GameBenchmark a benchmark on a started game
+     */
+    abstract static class GameBenchmark extends Benchmark {
+        protected GameEngine game;
+        protected Astronaut astronaut;
+        private int players;
+        private int deckSize;
+        private long seed;
+
+        /**
+         * GameBenchmark constructor
+         * 
+         * @param name name shown in the results
+         */
+        GameBenchmark(String name) {
+            super(name);
+        }
+
+        @Override
+        public void setUp(int players, int deckSize) throws Exception {
+            this.players = players;
+            this.deckSize = deckSize;
+            reset();
+        }
+
+        @Override
+        public void reset() throws Exception {
+            game = Fixtures.newGame(seed++, players, deckSize, true);
+            astronaut = game.getAllPlayers().get(0);
+        }
+    }
+
+    /**
+     * Class Breathe Astronaut.breathe() until one oxygen is left
+     */
+    static class Breathe extends GameBenchmark {
+        Breathe() {
+            super("Astronaut.breathe");
+        }
+
+        @Override
+        public int batchSize() {
+            return 5;
+        }
+
+        @Override
+        public long op() {
+            return astronaut.breathe();
+        }
+    }
+
+    /**
+     * Class HasCard Astronaut.hasCard(String)
+     */
+    static class HasCard extends GameBenchmark {
+        HasCard() {
+            super("Astronaut.hasCard");
+        }
+
+        @Override
+        public long op() {
+            return astronaut.hasCard(GameDeck.LASER_BLAST);
+        }
+    }
+
+    /**
+     * Class GetHand Astronaut.getHand()
+     */
+    static class GetHand extends GameBenchmark {
+        GetHand() {
+            super("Astronaut.getHand");
+        }
+
+        @Override
+        public long op() {
+            return astronaut.getHand().size();
+        }
+    }
+
+    /**
+     * Class DrawOxygen GameDeck.drawOxygen(1) from a full deck
+     */
+    static class DrawOxygen extends Benchmark {
+        private int deckSize;
+        private long seed;
+        private GameDeck deck;
+
+        DrawOxygen() {
+            super("GameDeck.drawOxygen");
+        }
+
+        @Override
+        public void setUp(int players, int deckSize) throws Exception {
+            this.deckSize = deckSize;
+            reset();
+        }
+
+        @Override
+        public void reset() throws Exception {
+            deck = new GameDeck(Fixtures.cardPaths(deckSize)[0]);
+            deck.shuffle(new Random(seed++));
+        }
+
+        @Override
+        public int batchSize() {
+            return 32;
+        }
+
+        @Override
+        public long op() {
+            return deck.drawOxygen(1).getValue();
+        }
+    }
+
+    /**
+     * Class SplitOxygen GameEngine.splitOxygen(Oxygen) on a started game
+     */
+    static class SplitOxygen extends GameBenchmark {
+        private Oxygen[] doubles = new Oxygen[3];
+        private int next;
+
+        SplitOxygen() {
+            super("GameEngine.splitOxygen");
+        }
+
+        @Override
+        public void reset() throws Exception {
+            do {
+                super.reset();
+            } while (oxygenOneInGameDeck() < 2 * doubles.length);
+            for (int i = 0; i < doubles.length; i++) {
+                doubles[i] = Oxygen.TWO;
+            }
+            next = 0;
+        }
+
+        @Override
+        public int batchSize() {
+            return doubles.length;
+        }
+
+        @Override
+        public long op() {
+            return game.splitOxygen(doubles[next++]).length;
+        }
+
+        /**
+         * returns the number of Oxygen(1) cards in the game deck
+         * 
+         * @return number of Oxygen(1)
+         */
+        private int oxygenOneInGameDeck() {
+            int numberOfOxygenOne = 0;
+            for (Card card : game.getGameDeck().getCards()) {
+                if (card instanceof Oxygen && ((Oxygen) card).getValue() == 1) {
+                    numberOfOxygenOne++;
+                }
+            }
+            return numberOfOxygenOne;
+        }
+    }
+
+    /**
+     * Class GetAllPlayers GameEngine.getAllPlayers()
+     */
+    static class GetAllPlayers extends GameBenchmark {
+        GetAllPlayers() {
+            super("GameEngine.getAllPlayers");
+        }
+
+        @Override
+        public long op() {
+            return game.getAllPlayers().size();
+        }
+    }
+
+    /**
+     * Class StateHash GameEngine.stateHash()
+     */
+    static class StateHash extends GameBenchmark {
+        StateHash() {
+            super("GameEngine.stateHash");
+        }
+
+        @Override
+        public long op() {
+            return game.stateHash();
+        }
+    }
+
+    /**
+     * Class Shuffle Deck.shuffle(Random) of a full game deck
+     */
+    static class Shuffle extends Benchmark {
+        private GameDeck deck;
+        private Random random = new Random(422);
+
+        Shuffle() {
+            super("Deck.shuffle");
+        }
+
+        @Override
+        public void setUp(int players, int deckSize) throws Exception {
+            deck = new GameDeck(Fixtures.cardPaths(deckSize)[0]);
+        }
+
+        @Override
+        public long op() {
+            deck.shuffle(random);
+            return deck.size();
+        }
+    }
+
+    /**
+     * Class NewGame new GameEngine(long, String, String), loading and
+     * shuffling both decks
+     */
+    static class NewGame extends Benchmark {
+        private String[] paths;
+        private long seed;
+
+        NewGame() {
+            super("new GameEngine");
+        }
+
+        @Override
+        public void setUp(int players, int deckSize) throws Exception {
+            paths = Fixtures.cardPaths(deckSize);
+        }
+
+        @Override
+        public long op() throws Exception {
+            return new GameEngine(seed++, paths[0], paths[1]).getGameDeck().size();
+        }
+    }
+
+    /**
+     * Class SaveState GameEngine.saveState(String)
+     */
+    static class SaveState extends GameBenchmark {
+        private String path;
+
+        SaveState() {
+            this("GameEngine.saveState");
+        }
+
+        SaveState(String name) {
+            super(name);
+        }
+
+        @Override
+        public void setUp(int players, int deckSize) throws Exception {
+            super.setUp(players, deckSize);
+            File file = File.createTempFile("selfish-bench", ".ser");
+            file.deleteOnExit();
+            path = file.getPath();
+        }
+
+        @Override
+        public long op() throws Exception {
+            game.saveState(path);
+            return path.length();
+        }
+
+        /**
+         * returns the path of the save file
+         * 
+         * @return path
+         */
+        String getPath() {
+            return path;
+        }
+    }
+
+    /**
+     * Class LoadState GameEngine.loadState(String)
+     */
+    static class LoadState extends SaveState {
+
+        LoadState() {
+            super("GameEngine.loadState");
+        }
+
+        @Override
+        public void setUp(int players, int deckSize) throws Exception {
+            super.setUp(players, deckSize);
+            super.op();
+        }
+
+        @Override
+        public long op() throws Exception {
+            return GameEngine.loadState(getPath()).getFullPlayerCount();
+        }
+    }
+
+    /**
+     * Class SaveGame GameEngine.saveGame(String), the binary format
+     */
+    static class SaveGame extends SaveState {
+
+        SaveGame() {
+            this("GameEngine.saveGame");
+        }
+
+        SaveGame(String name) {
+            super(name);
+        }
+
+        @Override
+        public long op() throws Exception {
+            game.saveGame(getPath());
+            return getPath().length();
+        }
+    }
+
+    /**
+     * Class LoadGame GameEngine.loadGame(String), the binary format
+     */
+    static class LoadGame extends SaveGame {
+
+        LoadGame() {
+            super("GameEngine.loadGame");
+        }
+
+        @Override
+        public void setUp(int players, int deckSize) throws Exception {
+            super.setUp(players, deckSize);
+            super.op();
+        }
+
+        @Override
+        public long op() throws Exception {
+            return GameEngine.loadGame(getPath()).getFullPlayerCount();
+        }
+    }
+
+    /**
+     * Class Fork GameEngine.fork()
+     */
+    static class Fork extends GameBenchmark {
+        Fork() {
+            super("GameEngine.fork");
+        }
+
+        @Override
+        public long op() {
+            return game.fork().getFullPlayerCount();
+        }
+    }
+
+    /**
+     * Class PackPosition PackedPosition.encode(GameEngine)
+     */
+    static class PackPosition extends GameBenchmark {
+        PackPosition() {
+            super("PackedPosition.encode");
+        }
+
+        @Override
+        public long op() {
+            return PackedPosition.encode(game).getLow();
+        }
+    }
+
+    /**
+     * Class UnpackPosition PackedPosition.decode(GameEngine) of the position
+     * of the game
+     */
+    static class UnpackPosition extends GameBenchmark {
+        private PackedPosition position;
+
+        UnpackPosition() {
+            super("PackedPosition.decode");
+        }
+
+        @Override
+        public void reset() throws Exception {
+            super.reset();
+            position = PackedPosition.encode(game);
+        }
+
+        @Override
+        public long op() {
+            return position.decode(game).getFullPlayerCount();
+        }
+    }
+
+    /**
+     * Class ForkTurn GameEngine.fork() and one turn played on the fork, which
+     * copies whatever the turn changes
+     */
+    static class ForkTurn extends GameBenchmark {
+        private ScriptedPlayer player = new ScriptedPlayer();
+
+        ForkTurn() {
+            super("GameEngine.fork+turn");
+        }
+
+        @Override
+        public long op() {
+            GameEngine fork = game.fork();
+            fork.startTurn();
+            player.takeTurn(fork, fork.getCurrentPlayer(), fork.getRandom(RandomStream.PLAYERS));
+            return fork.endTurn();
+        }
+    }
+
+    /**
+     * Class StateRoundTrip GameEngine.saveState(String) then
+     * GameEngine.loadState(String), the copy a fork replaces
+     */
+    static class StateRoundTrip extends SaveState {
+
+        StateRoundTrip() {
+            super("GameEngine.saveState+loadState");
+        }
+
+        @Override
+        public long op() throws Exception {
+            super.op();
+            return GameEngine.loadState(getPath()).getFullPlayerCount();
+        }
+    }
+
+    /**
+     * Class SerialCopy a copy of the game through Java serialization in
+     * memory, without the file
+     */
+    static class SerialCopy extends GameBenchmark {
+        SerialCopy() {
+            super("serialization copy");
+        }
+
+        @Override
+        public long op() throws Exception {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(game);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                return ((GameEngine) in.readObject()).getFullPlayerCount();
+            }
+        }
+    }
+
+    /**
+     * Class FullGame a complete headless game of scripted players
+     */
+    static class FullGame extends Benchmark {
+        private Simulation simulation;
+        private SimulationResult result;
+        private long seed;
+
+        FullGame() {
+            super("Simulation.fullGame");
+        }
+
+        @Override
+        public void setUp(int players, int deckSize) throws Exception {
+            String[] paths = Fixtures.cardPaths(deckSize);
+            SimPlayer[] seats = new SimPlayer[players];
+            Arrays.fill(seats, new ScriptedPlayer());
+            simulation = new Simulation(paths[0], paths[1], seats);
+            result = new SimulationResult(players);
+        }
+
+        @Override
+        public long op() {
+            simulation.playGame(seed++, result);
+            return result.getTurns();
+        }
+    }
+
+    /**
+     * Class BatchGame the same games as FullGame on BatchEngine, a batch of
+     * them played every batch of operations, so the time per operation is
+     * the time per game
+     */
+    static class BatchGame extends Benchmark {
+        private BatchEngine engine;
+        private SimulationResult result;
+        private long seed;
+        private int next;
+
+        BatchGame() {
+            super("BatchEngine.fullGame");
+        }
+
+        @Override
+        public void setUp(int players, int deckSize) throws Exception {
+            String[] paths = Fixtures.cardPaths(deckSize);
+            engine = new BatchEngine(paths[0], paths[1], players, batchSize());
+            result = new SimulationResult(players);
+            next = batchSize();
+        }
+
+        @Override
+        public long op() {
+            if (next == batchSize()) {
+                engine.reset(seed, batchSize());
+                engine.run();
+                seed += batchSize();
+                next = 0;
+            }
+            engine.record(next++, result);
+            return result.getTurns();
+        }
+    }
+
+    /**
+     * Class EndgameQuery EndgameSolver.winProbability of two players with up to
+     * 20 oxygen each, after the table is warmed up
+     */
+    static class EndgameQuery extends Benchmark {
+        private static final int MAX_OXYGEN = 20;
+        private EndgameSolver solver;
+        private int anomalies;
+        private int others;
+        private int next;
+
+        EndgameQuery() {
+            super("EndgameSolver.winProbability");
+        }
+
+        @Override
+        public void setUp(int players, int deckSize) throws Exception {
+            SpaceDeck deck = new SpaceDeck(Fixtures.cardPaths(deckSize)[1]);
+            anomalies = deck.count(CardType.GRAVITATIONAL_ANOMALY);
+            others = deck.size() - anomalies;
+            solver = new EndgameSolver(1 << 22);
+            solver.warmUp(MAX_OXYGEN, anomalies, others, Runtime.getRuntime().availableProcessors());
+        }
+
+        @Override
+        public long op() {
+            int oxygen = 1 + next % MAX_OXYGEN;
+            int rivalOxygen = next / MAX_OXYGEN % (MAX_OXYGEN + 1);
+            next++;
+            return (long) (solver.winProbability(oxygen, 6, rivalOxygen, 6, anomalies, others) * 1000);
+        }
+    }
+}
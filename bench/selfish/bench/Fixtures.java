@@ -0,0 +1,93 @@
+package selfish.bench;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import selfish.GameEngine;
+import selfish.GameException;
+
+/**
+ * Class Fixtures builds card files and games for benchmarks
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class Fixtures {
+    /** Directory holding the original card files */
+    public static final String IO_DIR = System.getProperty("selfish.io", "io");
+    private static Map<Integer, String[]> cardFiles = new HashMap<Integer, String[]>();
+
+    /**
+     * an empty constructor
+     */
+    private Fixtures() {
+    }
+
+    /**
+     * returns the action and space card paths with every quantity multiplied
+     * 
+     * @param deckSize quantity multiplier
+     * @return action cards path and space cards path
+     * @throws IOException card files could not be written
+     */
+    public static synchronized String[] cardPaths(int deckSize) throws IOException {
+        String[] paths = cardFiles.get(deckSize);
+        if (paths == null) {
+            Path dir = Files.createTempDirectory("selfish-bench");
+            paths = new String[] { scale(Paths.get(IO_DIR, "ActionCards.txt"), dir, deckSize),
+                    scale(Paths.get(IO_DIR, "SpaceCards.txt"), dir, deckSize) };
+            cardFiles.put(deckSize, paths);
+        }
+        return paths;
+    }
+
+    /**
+     * returns a new game with the passed number of players
+     * 
+     * @param seed     seed of the game
+     * @param players  number of players
+     * @param deckSize quantity multiplier
+     * @param start    true to deal the cards
+     * @return game
+     * @throws IOException   card files could not be written
+     * @throws GameException card files could not be read
+     */
+    public static GameEngine newGame(long seed, int players, int deckSize, boolean start)
+            throws IOException, GameException {
+        String[] paths = cardPaths(deckSize);
+        GameEngine game = new GameEngine(seed, paths[0], paths[1]);
+        game.setHeadless(true);
+        for (int i = 0; i < players; i++) {
+            game.addPlayer("Player " + (i + 1));
+        }
+        if (start) {
+            game.startGame();
+        }
+        return game;
+    }
+
+    /**
+     * copies a card file with every quantity multiplied
+     * 
+     * @param source   original card file
+     * @param dir      directory to write to
+     * @param deckSize quantity multiplier
+     * @return path of the copy
+     * @throws IOException file could not be copied
+     */
+    private static String scale(Path source, Path dir, int deckSize) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        for (String line : Files.readAllLines(source)) {
+            String[] lineSplit = line.split("; ");
+            if (lineSplit[0].equals("NAME") || lineSplit.length < 3) {
+                lines.add(line);
+                continue;
+            }
+            int quantity = Integer.parseInt(lineSplit[2].trim()) * deckSize;
+            lines.add(lineSplit[0] + "; " + lineSplit[1] + "; " + quantity);
+        }
+        Path target = dir.resolve(source.getFileName());
+        Files.write(target, lines);
+        return target.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package selfish.bench;
+
+import java.util.*;
+import selfish.GameEngine;
+
+/**
+ * Class HeapPerGame loads many games at once and prints the heap used per
+ * game
+ * 
+ * <pre>
+ * java -cp out selfish.bench.HeapPerGame [--games=10000] [--players=4]
+ *      [--deckSize=1]
+ * </pre>
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class HeapPerGame {
+
+    /**
+     * an empty constructor
+     */
+    private HeapPerGame() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = 10000;
+        int players = 4;
+        int deckSize = 1;
+        for (String arg : args) {
+            int value = Integer.parseInt(arg.substring(arg.indexOf('=') + 1));
+            if (arg.startsWith("--games=")) {
+                games = value;
+            } else if (arg.startsWith("--players=")) {
+                players = value;
+            } else if (arg.startsWith("--deckSize=")) {
+                deckSize = value;
+            }
+        }
+        Fixtures.newGame(0, players, deckSize, true);
+        List<GameEngine> loaded = new ArrayList<GameEngine>(games);
+        long heapBefore = usedHeap();
+        for (int i = 0; i < games; i++) {
+            loaded.add(Fixtures.newGame(i, players, deckSize, true));
+        }
+        long heapAfter = usedHeap();
+        System.out.println("Games loaded: " + loaded.size());
+        System.out.println(String.format("Heap per game: %d B", (heapAfter - heapBefore) / games));
+    }
+
+    /**
+     * returns the heap in use after a full collection
+     * 
+     * @return bytes
+     * @throws InterruptedException interrupted while waiting
+     */
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
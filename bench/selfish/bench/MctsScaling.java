@@ -0,0 +1,87 @@
+package selfish.bench;
+
+import selfish.Astronaut;
+import selfish.GameEngine;
+import selfish.sim.*;
+
+/**
+ * Class MctsScaling prints the search iterations per second of MctsSearch for
+ * one thread up to the passed number of threads, with the same deadline for
+ * every decision
+ * 
+ * <pre>
+ * java -cp out selfish.bench.MctsScaling [--threads=cores] [--players=4]
+ *      [--millis=100] [--decisions=20]
+ * </pre>
+ * 
+ * The speedup is against one thread; with one search tree per thread and
+ * nothing shared but the starting game, it should stay close to the number
+ * of threads up to the number of cores.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class MctsScaling {
+
+    /**
+     * an empty constructor
+     */
+    private MctsScaling() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        int players = 4;
+        int millis = 100;
+        int decisions = 20;
+        for (String arg : args) {
+            int value = Integer.parseInt(arg.substring(arg.indexOf('=') + 1));
+            if (arg.startsWith("--threads=")) {
+                maxThreads = value;
+            } else if (arg.startsWith("--players=")) {
+                players = value;
+            } else if (arg.startsWith("--millis=")) {
+                millis = value;
+            } else if (arg.startsWith("--decisions=")) {
+                decisions = value;
+            }
+        }
+        measure(1, players, millis, decisions);
+        double single = 0;
+        System.out.println(String.format("%-8s %14s %8s", "threads", "iterations/s", "speedup"));
+        for (int threads = 1; threads <= maxThreads; threads++) {
+            double rate = measure(threads, players, millis, decisions);
+            if (threads == 1) {
+                single = rate;
+            }
+            System.out.println(String.format("%-8d %14.0f %8.2f", threads, rate, rate / single));
+        }
+    }
+
+    /**
+     * searches the first move of a number of games and returns the
+     * iterations per second
+     * 
+     * @param threads   search threads
+     * @param players   players per game
+     * @param millis    deadline of every decision
+     * @param decisions number of games to search
+     * @return iterations per second
+     * @throws Exception card files could not be read
+     */
+    private static double measure(int threads, int players, int millis, int decisions) throws Exception {
+        long iterations = 0;
+        long elapsed = 0;
+        for (int i = 0; i < decisions; i++) {
+            GameEngine game = Fixtures.newGame(i, players, 1, true);
+            game.startTurn();
+            Astronaut astronaut = game.getCurrentPlayer();
+            long start = System.nanoTime();
+            MctsSearch search = new MctsSearch(game, astronaut, i, millis * 1_000_000L, 0, threads);
+            search.run();
+            elapsed += System.nanoTime() - start;
+            iterations += search.getIterations();
+        }
+        return iterations / (elapsed / 1e9);
+    }
+}
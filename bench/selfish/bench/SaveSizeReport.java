@@ -0,0 +1,38 @@
+package selfish.bench;
+
+import java.io.File;
+import selfish.GameEngine;
+
+/**
+ * Class SaveSizeReport prints the size of a Java serialization save next to
+ * the binary save of the same game
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class SaveSizeReport {
+
+    /**
+     * an empty constructor
+     */
+    private SaveSizeReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File serFile = File.createTempFile("selfish-size", ".ser");
+        File binaryFile = File.createTempFile("selfish-size", ".sav");
+        serFile.deleteOnExit();
+        binaryFile.deleteOnExit();
+        System.out.println(String.format("%7s %8s %12s %12s %8s", "players", "deckSize", "saveState B", "saveGame B",
+                "ratio"));
+        for (int deckSize = 1; deckSize <= 2; deckSize++) {
+            for (int players = 2; players <= 5; players++) {
+                GameEngine game = Fixtures.newGame(players, players, deckSize, true);
+                game.saveState(serFile.getPath());
+                game.saveGame(binaryFile.getPath());
+                System.out.println(String.format("%7d %8d %12d %12d %8.1f", players, deckSize, serFile.length(),
+                        binaryFile.length(), (double) serFile.length() / binaryFile.length()));
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package selfish.bench;
+
+import java.util.*;
+import selfish.session.*;
+
+/**
+ * Class SessionLoadTest hosts many concurrent games and prints the heap used
+ * per idle game and the turns played per second
+ * 
+ * <pre>
+ * java -cp out selfish.bench.SessionLoadTest [--sessions=10000] [--players=4]
+ *      [--seconds=10]
+ * </pre>
+ * 
+ * Every session is fed commands by the test thread whenever its queue is
+ * empty, so the game threads only park and wake. Finished games are retired
+ * and replaced to keep the number of sessions constant.
+ * 
+ * The first line says which executor was measured. Before Java 21 every
+ * session has a platform thread of its own, whose stack is not counted in
+ * the heap per idle game.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class SessionLoadTest {
+
+    /**
+     * an empty constructor
+     */
+    private SessionLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int numberOfSessions = 10000;
+        int players = 4;
+        int seconds = 10;
+        for (String arg : args) {
+            int value = Integer.parseInt(arg.substring(arg.indexOf('=') + 1));
+            if (arg.startsWith("--sessions=")) {
+                numberOfSessions = value;
+            } else if (arg.startsWith("--players=")) {
+                players = value;
+            } else if (arg.startsWith("--seconds=")) {
+                seconds = value;
+            }
+        }
+        String[] paths = Fixtures.cardPaths(1);
+        String[] names = new String[players];
+        for (int i = 0; i < players; i++) {
+            names[i] = "Player " + (i + 1);
+        }
+        SessionManager manager = new SessionManager(paths[0], paths[1]);
+        System.out.println("Threads: " + (manager.usesVirtualThreads() ? "virtual" : "platform") + " ("
+                + manager.describeExecutor() + ")");
+
+        long heapBefore = usedHeap();
+        List<GameSession> sessions = new ArrayList<GameSession>();
+        long seed = 1;
+        for (int i = 0; i < numberOfSessions; i++) {
+            sessions.add(manager.create(seed++, names));
+        }
+        waitUntilIdle(sessions);
+        long heapAfter = usedHeap();
+        System.out.println("Idle sessions: " + manager.size());
+        System.out.println(String.format("Heap per idle game: %d B", (heapAfter - heapBefore) / numberOfSessions));
+
+        Random random = new Random(0);
+        long turnsBefore = manager.getTurnsPlayed();
+        int replaced = 0;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < sessions.size(); i++) {
+                GameSession session = sessions.get(i);
+                if (session.getState().isDone()) {
+                    manager.retire(session.getId());
+                    sessions.set(i, manager.create(seed++, names));
+                    replaced++;
+                } else if (session.getPendingCommands() == 0) {
+                    session.submit(null, random.nextInt(3) == 0 ? GameSession.BREATHE : GameSession.TRAVEL);
+                }
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        long turns = manager.getTurnsPlayed() - turnsBefore;
+        System.out.println(String.format("Turns per second: %.0f", turns / elapsedSeconds));
+        System.out.println("Games replaced: " + replaced);
+        manager.shutdown();
+    }
+
+    /**
+     * waits until every session is parked waiting for a command
+     * 
+     * @param sessions sessions
+     * @throws InterruptedException interrupted while waiting
+     */
+    private static void waitUntilIdle(List<GameSession> sessions) throws InterruptedException {
+        for (GameSession session : sessions) {
+            while (session.getState() != SessionState.WAITING && !session.getState().isDone()) {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    /**
+     * returns the heap in use after a full collection
+     * 
+     * @return bytes
+     * @throws InterruptedException interrupted while waiting
+     */
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -1,8 +1,9 @@
 import java.io.IOException;
-import java.util.Scanner;
+import java.util.*;
 import selfish.Astronaut;
 import selfish.GameEngine;
 import selfish.GameException;
+import selfish.io.*;
 
 /**
  * Class GameDriver
@@ -29,35 +30,61 @@ public class GameDriver {
     public GameDriver() {
     }
 
-    public static void main(String[] args) throws GameException, IOException, ClassNotFoundException {
+    public static void main(String[] args)
+            throws GameException, IOException, ClassNotFoundException, InterruptedException {
+        GameLog.startFromProperties();
+        try {
+            play(args);
+        } catch (GameException e) {
+            System.out.println("Game exception was thrown.");
+            throw e;
+        } finally {
+            GameLog.stop();
+        }
+    }
+
+    /**
+     * plays a game on the console, or serves one to remote players
+     * 
+     * @param args command line arguments
+     * @throws GameException          card files not found
+     * @throws IOException            port could not be opened
+     * @throws ClassNotFoundException unknown class in a saved game
+     * @throws InterruptedException   interrupted while waiting for players
+     */
+    private static void play(String[] args)
+            throws GameException, IOException, ClassNotFoundException, InterruptedException {
 
-        Scanner scanner = new Scanner(System.in);
+        ConsoleIO console = new ConsoleIO();
 
         // Instansiating the game engine.
         String actionCardsPath = "/home/minjun/github-repository/selfish-space-edition/io/ActionCards.txt";
         String spaceCardsPath = "/home/minjun/github-repository/selfish-space-edition/io/SpaceCards.txt";
 
-        System.out.print("Press any key to start the game: ");
-        scanner.nextLine();
-        System.out.print("Would you like to load previously saved game? [Y]es or [N]o: ");
+        // "serve <port> <players>" plays one game with remote players instead.
+        if (args.length == 3 && args[0].equals("serve")) {
+            serve(Integer.parseInt(args[1]), Integer.parseInt(args[2]), actionCardsPath, spaceCardsPath);
+            return;
+        }
+
+        console.readLine("Press any key to start the game: ");
 
-        if (scanner.nextLine().equalsIgnoreCase("y")) {
+        if (console.readLine("Would you like to load previously saved game? [Y]es or [N]o: ").equalsIgnoreCase("y")) {
             GameEngine.loadState("gameDeckSave.ser");
         } else {
             GameEngine gameEngine = new selfish.GameEngine(16412, actionCardsPath, spaceCardsPath);
+            gameEngine.setPlayerIO(console);
 
             // This loop generates from 2 to 5 players.
             int numberOfPlayers;
             for (int i = 0; i < 5; i++) {
                 numberOfPlayers = gameEngine.getAllPlayers().size();
                 if (numberOfPlayers >= 2) {
-                    System.out.print("Add another player? [Y]es or [N]o: ");
-                    if (!(scanner.nextLine().equalsIgnoreCase("y"))) {
+                    if (!(console.readLine("Add another player? [Y]es or [N]o: ").equalsIgnoreCase("y"))) {
                         break;
                     }
                 }
-                System.out.print("Enter player name: ");
-                String name = scanner.nextLine();
+                String name = console.readLine("Enter player name: ");
                 gameEngine.addPlayer(name);
                 numberOfPlayers = gameEngine.getAllPlayers().size();
                 System.out.println(numberOfPlayers + " player(s) added.");
@@ -83,6 +110,45 @@ public class GameDriver {
                 gameEngine.endTurn();
             }
         }
-        scanner.close();
+    }
+
+    /**
+     * waits for the players to connect, then plays one game with them
+     * 
+     * @param port            port to listen on
+     * @param players         number of players
+     * @param actionCardsPath path to the action cards text file
+     * @param spaceCardsPath  path to the space cards text file
+     * @throws GameException        card files not found
+     * @throws IOException          port could not be opened
+     * @throws InterruptedException interrupted while waiting for players
+     */
+    private static void serve(int port, int players, String actionCardsPath, String spaceCardsPath)
+            throws GameException, IOException, InterruptedException {
+        try (LineServer server = new LineServer(port)) {
+            server.start();
+            System.out.println("Waiting for " + players + " players on port " + server.getPort());
+            List<LineConnection> connections = new ArrayList<LineConnection>();
+            GameEngine gameEngine = new GameEngine(16412, actionCardsPath, spaceCardsPath);
+            while (connections.size() < players) {
+                LineConnection connection = server.awaitPlayer();
+                connections.add(connection);
+                gameEngine.addPlayer(connection.getName());
+                System.out.println(connection.getName() + " joined.");
+            }
+            gameEngine.setPlayerIO(new LinePlayerIO(connections));
+            gameEngine.startGame();
+            boolean playersConnected = true;
+            while (!gameEngine.gameOver() && playersConnected) {
+                gameEngine.startTurn();
+                gameEngine.endTurn();
+                playersConnected = false;
+                for (LineConnection connection : connections) {
+                    playersConnected = playersConnected || connection.isOpen();
+                }
+            }
+            gameEngine.getPlayerIO().message(null, "Game over.");
+            gameEngine.getPlayerIO().flush();
+        }
     }
 }
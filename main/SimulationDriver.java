@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.nio.file.*;
+import selfish.EngineMetrics;
+import selfish.GameException;
+import selfish.io.GameLog;
+import selfish.sim.*;
+
+/**
+ * Class SimulationDriver runs headless games from the command line
+ * 
+ * Usage: SimulationDriver [games] [players] [threads] [first seed]
+ * [random|scripted|mcts|batch|crosscheck]
+ * 
+ * With mcts the first player searches for its moves, for
+ * -Dselfish.mctsMillis milliseconds (10 by default) on one thread, against
+ * random players. With batch the scripted games are played on BatchEngine,
+ * and crosscheck plays them on both engines and counts the games that differ.
+ * 
+ * With -Dselfish.metrics=true the engine metrics are printed at the end, and
+ * with -Dselfish.log=path the games are logged to the file, at the level set
+ * by -Dselfish.log.level. With -Dselfish.stats=path the statistics of the run
+ * are written to the file, as JSON if its name ends in .json and as CSV
+ * otherwise.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class SimulationDriver {
+
+    /**
+     * an empty constructor
+     */
+    public SimulationDriver() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100000;
+        int numberOfPlayers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        boolean scripted = args.length > 4 && args[4].equalsIgnoreCase("scripted");
+        boolean mcts = args.length > 4 && args[4].equalsIgnoreCase("mcts");
+        boolean batch = args.length > 4 && args[4].equalsIgnoreCase("batch");
+        boolean crossCheck = args.length > 4 && args[4].equalsIgnoreCase("crosscheck");
+
+        String actionCardsPath = System.getProperty("selfish.actionCards", "io/ActionCards.txt");
+        String spaceCardsPath = System.getProperty("selfish.spaceCards", "io/SpaceCards.txt");
+
+        if (batch || crossCheck) {
+            playBatch(games, numberOfPlayers, threads, firstSeed, crossCheck, actionCardsPath, spaceCardsPath);
+            return;
+        }
+        SimPlayer[] players = new SimPlayer[numberOfPlayers];
+        for (int i = 0; i < numberOfPlayers; i++) {
+            players[i] = scripted ? new ScriptedPlayer() : new RandomPlayer();
+        }
+        if (mcts) {
+            players[0] = new MctsPlayer(Long.getLong("selfish.mctsMillis", 10), 1);
+        }
+        Simulation simulation = new Simulation(actionCardsPath, spaceCardsPath, players);
+        System.out.println("Playing " + games + " games of " + numberOfPlayers + " players on " + threads
+                + " threads");
+        boolean logging = GameLog.startFromProperties();
+        SimulationResult result = simulation.run(firstSeed, games, threads);
+        System.out.println(result);
+        writeStats(result);
+        if (logging) {
+            System.out.println("Log records dropped: " + GameLog.getDropped());
+            GameLog.stop();
+        }
+        if (EngineMetrics.isEnabled()) {
+            System.out.print(EngineMetrics.report());
+        }
+    }
+
+    /**
+     * plays scripted games on the batch engine, or on both engines to compare
+     * them
+     * 
+     * @param games           number of games
+     * @param numberOfPlayers players per game
+     * @param threads         worker threads
+     * @param firstSeed       seed of the first game
+     * @param crossCheck      true to compare the engines instead
+     * @param actionCardsPath path to the action cards text file
+     * @param spaceCardsPath  path to the space cards text file
+     * @throws IOException statistics could not be written
+     */
+    private static void playBatch(long games, int numberOfPlayers, int threads, long firstSeed, boolean crossCheck,
+            String actionCardsPath, String spaceCardsPath) throws IOException {
+        BatchSimulation simulation;
+        try {
+            simulation = new BatchSimulation(actionCardsPath, spaceCardsPath, numberOfPlayers);
+        } catch (GameException e) {
+            System.out.println("Card files could not be read.");
+            return;
+        }
+        if (crossCheck) {
+            System.out.println("Cross-checking " + games + " games of " + numberOfPlayers + " players");
+            System.out.println("Games that differ: " + simulation.crossCheck(firstSeed, games));
+            return;
+        }
+        System.out.println("Playing " + games + " batched games of " + numberOfPlayers + " players on " + threads
+                + " threads");
+        SimulationResult result = simulation.run(firstSeed, games, threads);
+        System.out.println(result);
+        writeStats(result);
+    }
+
+    /**
+     * writes the statistics of a run to the file named by -Dselfish.stats, as
+     * JSON if its name ends in .json and as CSV otherwise
+     * 
+     * @param result result of the run
+     * @throws IOException file could not be written
+     */
+    private static void writeStats(SimulationResult result) throws IOException {
+        String statsPath = System.getProperty("selfish.stats");
+        if (statsPath != null) {
+            boolean isJson = statsPath.toLowerCase().endsWith(".json");
+            Files.writeString(Paths.get(statsPath), isJson ? result.toJson() : result.toCsv());
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package selfish;
 
-import java.io.Serializable;
+import java.io.*;
 import java.util.*;
 import selfish.deck.*;
 
@@ -10,13 +10,24 @@ import selfish.deck.*;
  * @author Minjun Kim
  * @version 1.0
  */
-public class Astronaut implements Serializable {
+public class Astronaut implements Serializable, Cloneable {
     private static final long serialVersionUID = 422L;
     private GameEngine game;
     private String name;
+    private int seat = GameJournal.NONE;
     private List<Card> actions = new ArrayList<Card>();
     private List<Oxygen> oxygens = new ArrayList<Oxygen>();
     private Collection<Card> track = new ArrayList<Card>();
+    private transient int[] cardCounts = new int[CardType.COUNT];
+    private transient int oxygenTotal;
+    private transient boolean actionsSorted;
+    private transient List<Card> actionsView;
+    private transient List<Card> handView;
+    private transient Collection<Card> trackView;
+    private transient boolean handShared;
+    private transient boolean trackShared;
+    private transient long handHash;
+    private transient long trackHash;
 
     /**
      * Astronaut constructor
@@ -35,11 +46,8 @@ public class Astronaut implements Serializable {
      * @param card card to add
      */
     public void addToHand(Card card) {
-        if (card instanceof Oxygen) {
-            oxygens.add((Oxygen) card);
-        } else {
-            actions.add(card);
-        }
+        game.journalRecord(EventType.ADD_TO_HAND, seat, typeIdOf(card));
+        takeCard(card);
     }
 
     /**
@@ -48,7 +56,11 @@ public class Astronaut implements Serializable {
      * @param card card to add
      */
     public void addToTrack(Card card) {
+        game.journalRecord(EventType.ADD_TO_TRACK, seat, typeIdOf(card));
+        ownTrack();
         track.add(card);
+        trackHash ^= Zobrist.positionKey(track.size() - 1, card);
+        game.playerChanged(this);
     }
 
     /**
@@ -57,49 +69,34 @@ public class Astronaut implements Serializable {
      * @return oxygen remaining
      */
     public int breathe() {
-        boolean playerIsDead = !this.isAlive();
-        if (playerIsDead) {
-            throw new IllegalStateException();
-        }
-        int numberOfOxygenOneFound = 0;
-        Oxygen sampleOxygenOne = new Oxygen(1);
-        for (Oxygen element : oxygens) {
-            boolean isOxygenOne = element.compareTo(sampleOxygenOne) == 0;
-            if (element instanceof Oxygen && isOxygenOne) {
-                numberOfOxygenOneFound++;
+        game.journalEnter(EventType.BREATHE, seat, GameJournal.NONE);
+        try {
+            boolean playerIsDead = !this.isAlive();
+            if (playerIsDead) {
+                throw new IllegalStateException();
             }
-        }
-
-        if (numberOfOxygenOneFound == 0) {
-            for (Oxygen element : oxygens) {
-                boolean isNotOxygenTwo = element.getValue() != 2;
-                if (isNotOxygenTwo) {
-                    continue;
+            boolean noOxygenOneFound = hasCard(CardType.OXYGEN_1) == 0;
+            if (noOxygenOneFound) {
+                Oxygen oxygenTwo = firstOxygen(CardType.OXYGEN_2);
+                if (oxygenTwo != null) {
+                    splitOxygen(oxygenTwo);
                 }
-                Oxygen[] oxygenOnePair = game.splitOxygen(element);
-                oxygens.remove(element);
-                addToHand(oxygenOnePair[0]);
-                addToHand(oxygenOnePair[1]);
             }
-        }
 
-        for (Oxygen element : oxygens) {
-            boolean isNotOxygenOne = element.getValue() != 1;
-            if (isNotOxygenOne) {
-                continue;
+            Oxygen oxygenOne = firstOxygen(CardType.OXYGEN_1);
+            if (oxygenOne != null) {
+                dropCard(oxygenOne);
+                game.getOxygenBank().discard(oxygenOne);
             }
-            oxygens.remove(element);
-            (game.getGameDiscard()).add(element);
-        }
 
-        int totalOxygenLeft = 0;
-        for (Oxygen element : oxygens) {
-            totalOxygenLeft += element.getValue();
-        }
-        if (oxygenRemaining() == 0) {
-            game.killPlayer(this);
+            int totalOxygenLeft = oxygenTotal;
+            if (oxygenRemaining() == 0) {
+                game.killPlayer(this);
+            }
+            return totalOxygenLeft;
+        } finally {
+            game.journalExit();
         }
-        return totalOxygenLeft;
     }
 
     /**
@@ -114,13 +111,20 @@ public class Astronaut implements Serializable {
     }
 
     /**
-     * returns all the action cards in hand
+     * returns all the action cards in hand, as a sorted read-only view
      * 
      * @return action cards
      */
     public List<Card> getActions() {
-        Collections.sort(actions);
-        return actions;
+        if (!actionsSorted) {
+            ownHand();
+            Collections.sort(actions);
+            actionsSorted = true;
+        }
+        if (actionsView == null) {
+            actionsView = Collections.unmodifiableList(actions);
+        }
+        return actionsView;
     }
 
     /**
@@ -133,17 +137,10 @@ public class Astronaut implements Serializable {
     public String getActionsStr(boolean enumerated, boolean excludeShields) {
 
         String actionCardsListed = "";
-        ArrayList<String> actions = new ArrayList<String>();
-        actions.add("Hack suit");
-        actions.add("Hole in suit");
-        actions.add("Laser blast");
-        actions.add("Oxygen siphon");
-        actions.add("Rocket booster");
-        if (!excludeShields) {
-            actions.add("Shield");
-        }
-        actions.add("Tether");
-        actions.add("Tractor beam");
+        ArrayList<CardType> actions = new ArrayList<CardType>(CardType.actions());
+        if (excludeShields) {
+            actions.remove(CardType.SHIELD);
+        }
 
         ArrayList<String> letters = new ArrayList<String>();
         letters.add("[A] ");
@@ -157,7 +154,7 @@ public class Astronaut implements Serializable {
 
         if (enumerated) {
             int index = 0;
-            for (String element : actions) {
+            for (CardType element : actions) {
                 if (hasCard(element) == 0) {
                     continue;
                 }
@@ -165,7 +162,7 @@ public class Astronaut implements Serializable {
                 index++;
             }
         } else {
-            for (String element : actions) {
+            for (CardType element : actions) {
                 if (hasCard(element) == 1) {
                     actionCardsListed = actionCardsListed + element + ", ";
                 } else if (hasCard(element) > 1) {
@@ -174,25 +171,37 @@ public class Astronaut implements Serializable {
             }
         }
         boolean actionCardsListedIsEmpty = actionCardsListed.length() == 0;
-        String truncatedActionCardsListed = actionCardsListed.substring(0, actionCardsListed.length() - 2);
         if (actionCardsListedIsEmpty) {
             return actionCardsListed;
         } else {
-            return truncatedActionCardsListed;
+            return actionCardsListed.substring(0, actionCardsListed.length() - 2);
         }
     }
 
     /**
-     * returns all the cards in hand
+     * returns the astronaut's name
+     * 
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * returns all the cards in hand, as a sorted read-only list that is kept
+     * until the hand changes
      * 
      * @return cards
      */
     public List<Card> getHand() {
-        ArrayList<Card> hand = new ArrayList<Card>();
-        hand.addAll(oxygens);
-        hand.addAll(actions);
-        Collections.sort(hand);
-        return hand;
+        if (handView == null) {
+            ArrayList<Card> hand = new ArrayList<Card>(oxygens.size() + actions.size());
+            hand.addAll(oxygens);
+            hand.addAll(actions);
+            Collections.sort(hand);
+            handView = Collections.unmodifiableList(hand);
+        }
+        return handView;
     }
 
     /**
@@ -202,8 +211,8 @@ public class Astronaut implements Serializable {
      */
     public String getHandStr() {
         String oxygensInHandListed = "";
-        int numberOfOxygenTwoInHand = hasCard("Oxygen(2)");
-        int numberOfOxygenOneInHand = hasCard("Oxygen(1)");
+        int numberOfOxygenTwoInHand = hasCard(CardType.OXYGEN_2);
+        int numberOfOxygenOneInHand = hasCard(CardType.OXYGEN_1);
         String numberOfOxygenTwoInHandStr = Integer.toString(numberOfOxygenTwoInHand);
         String numberOfOxygenOneInHandStr = Integer.toString(numberOfOxygenOneInHand);
 
@@ -227,12 +236,15 @@ public class Astronaut implements Serializable {
     }
 
     /**
-     * returns the track of the astrunaut
+     * returns the track of the astrunaut, as a read-only view
      * 
      * @return track
      */
     public Collection<Card> getTrack() {
-        return track;
+        if (trackView == null) {
+            trackView = Collections.unmodifiableCollection(track);
+        }
+        return trackView;
     }
 
     /**
@@ -241,26 +253,20 @@ public class Astronaut implements Serializable {
      * @param card card to discard
      */
     public void hack(Card card) {
-        if (card == null) {
-            throw new IllegalArgumentException();
-        }
-        boolean cardNotFound = true;
-        for (Card element : getHand()) {
-            if (element != card) {
-                continue;
+        game.journalEnter(EventType.HACK, seat, typeIdOf(card));
+        try {
+            if (card == null) {
+                throw new IllegalArgumentException();
             }
-            cardNotFound = false;
-            if (card instanceof Oxygen) {
-                oxygens.remove(card);
-                if (oxygenRemaining() == 0) {
-                    game.killPlayer(this);
-                }
-            } else {
-                actions.remove(card);
+            boolean cardNotFound = !dropCard(card);
+            if (cardNotFound) {
+                throw new IllegalArgumentException();
             }
-        }
-        if (cardNotFound) {
-            throw new IllegalArgumentException();
+            if (card instanceof Oxygen && oxygenRemaining() == 0) {
+                game.killPlayer(this);
+            }
+        } finally {
+            game.journalExit();
         }
     }
 
@@ -271,42 +277,35 @@ public class Astronaut implements Serializable {
      * @return discarded card
      */
     public Card hack(String card) {
-        if (card == null) {
-            throw new IllegalArgumentException();
-        }
-        if (card.equals(GameDeck.OXYGEN_1)) {
-            for (Oxygen element : oxygens) {
-                if (element.getValue() != 1) {
-                    continue;
-                }
-                oxygens.remove(element);
-                if (oxygenRemaining() == 0) {
-                    game.killPlayer(this);
-                }
-                return (Card) element;
+        game.journalEnter(EventType.HACK, seat, typeIdOf(CardType.fromName(card)));
+        try {
+            if (card == null) {
+                throw new IllegalArgumentException();
             }
-        } else if (card.equals(GameDeck.OXYGEN_2)) {
-            for (Oxygen element : oxygens) {
-                if (element.getValue() != 2) {
-                    continue;
-                }
-                oxygens.remove(element);
-                if (oxygenRemaining() == 0) {
-                    game.killPlayer(this);
+            CardType type = CardType.fromName(card);
+            if (type != null && type.isOxygen()) {
+                Oxygen element = firstOxygen(type);
+                if (element != null) {
+                    dropCard(element);
+                    if (oxygenRemaining() == 0) {
+                        game.killPlayer(this);
+                    }
+                    return (Card) element;
                 }
-                return (Card) element;
-            }
-        } else {
-            for (Card element : actions) {
-                boolean notFound = !(element.toString().equals(card));
-                if (notFound) {
-                    continue;
+            } else if (type == null || hasCard(type) > 0) {
+                for (Card element : actions) {
+                    boolean notFound = type == null ? !element.toString().equals(card) : element.getType() != type;
+                    if (notFound) {
+                        continue;
+                    }
+                    dropCard(element);
+                    return (Card) element;
                 }
-                actions.remove(element);
-                return (Card) element;
             }
+            throw new IllegalArgumentException();
+        } finally {
+            game.journalExit();
         }
-        throw new IllegalArgumentException();
     }
 
     /**
@@ -316,25 +315,37 @@ public class Astronaut implements Serializable {
      * @return number of cards
      */
     public int hasCard(String card) {
+        CardType type = CardType.fromName(card);
+        if (type != null) {
+            return hasCard(type);
+        }
         int numberOfCardsInHand = 0;
-        for (Card element : getHand()) {
-            boolean found = element.toString().equals(card);
-            if (found) {
+        for (Card element : actions) {
+            if (element.toString().equals(card)) {
                 numberOfCardsInHand++;
             }
         }
         return numberOfCardsInHand;
     }
 
+    /**
+     * returns the number of cards of the passed type in hand
+     * 
+     * @param type card type
+     * @return number of cards
+     */
+    public int hasCard(CardType type) {
+        return cardCounts[type.getId()];
+    }
+
     /**
      * returns true if Solar flare is directed behind the astronaut
      * 
      * @return boolean
      */
     public boolean hasMeltedEyeballs() {
-        String spaceCardBehind = peekAtTrack().toString();
-        String solarFlare = SpaceDeck.SOLAR_FLARE;
-        return spaceCardBehind.equals(solarFlare);
+        Card spaceCardBehind = peekAtTrack();
+        return spaceCardBehind != null && spaceCardBehind.getType() == CardType.SOLAR_FLARE;
     }
 
     /**
@@ -354,7 +365,7 @@ public class Astronaut implements Serializable {
      * @return oxygenRemaining() > 0
      */
     public boolean isAlive() {
-        boolean isAlive = oxygenRemaining() > 0;
+        boolean isAlive = oxygenTotal > 0;
         return (isAlive);
     }
 
@@ -364,10 +375,13 @@ public class Astronaut implements Serializable {
      * @return the space card that was directly behind
      */
     public Card laserBlast() {
+        game.journalRecord(EventType.LASER_BLAST, seat, GameJournal.NONE);
         boolean isNotAtStartingPosition = this.track.size() > 0;
         if (isNotAtStartingPosition) {
-            Card spaceCardBehind = ((List<Card>) track).get(track.size() - 1);
-            track.remove(spaceCardBehind);
+            ownTrack();
+            Card spaceCardBehind = ((List<Card>) track).remove(track.size() - 1);
+            trackHash ^= Zobrist.positionKey(track.size(), spaceCardBehind);
+            game.playerChanged(this);
             return spaceCardBehind;
         } else {
             throw new IllegalArgumentException();
@@ -380,11 +394,7 @@ public class Astronaut implements Serializable {
      * @return number of oxygen
      */
     public int oxygenRemaining() {
-        int oxygenRemaining = 0;
-        for (Oxygen element : oxygens) {
-            oxygenRemaining += element.getValue();
-        }
-        return oxygenRemaining;
+        return oxygenTotal;
     }
 
     /**
@@ -409,55 +419,51 @@ public class Astronaut implements Serializable {
      * @return discarded oxygen
      */
     public Oxygen siphon() {
-        for (Oxygen element : oxygens) {
-            boolean elementIsNotOxygenOne = element.getValue() == 1;
-            if (elementIsNotOxygenOne) {
-                continue;
-            }
-            oxygens.remove(element);
-            if (oxygenRemaining() == 0) {
-                game.killPlayer(this);
+        game.journalEnter(EventType.SIPHON, seat, GameJournal.NONE);
+        try {
+            Oxygen oxygenOne = firstOxygen(CardType.OXYGEN_1);
+            if (oxygenOne != null) {
+                dropCard(oxygenOne);
+                if (oxygenRemaining() == 0) {
+                    game.killPlayer(this);
+                }
+                return oxygenOne;
             }
-            return element;
-        }
-        for (Oxygen element : oxygens) {
-            boolean elementIsNotOxygenTwo = element.getValue() == 2;
-            if (elementIsNotOxygenTwo) {
-                continue;
+            Oxygen oxygenTwo = firstOxygen(CardType.OXYGEN_2);
+            if (oxygenTwo != null) {
+                splitOxygen(oxygenTwo);
+                Oxygen siphoned = firstOxygen(CardType.OXYGEN_1);
+                dropCard(siphoned);
+                return siphoned;
             }
-            Card[] pairOfOxygenOne = game.splitOxygen(element);
-            oxygens.remove(element);
-            addToHand(pairOfOxygenOne[1]);
-            Card oxygenOne = pairOfOxygenOne[0];
-            return (Oxygen) oxygenOne;
+            return null;
+        } finally {
+            game.journalExit();
         }
-        return null;
     }
 
     /**
-     * removes a random card in hand
+     * removes a random card in hand, every card as likely as the others; a
+     * player whose last card is taken dies
      * 
      * @return removed card
      */
     public Card steal() {
-        if (getHand().size() == 1) {
-            Card stolenCard = getHand().get(0);
-            if (stolenCard instanceof Oxygen) {
-                oxygens.remove(stolenCard);
-            } else {
-                actions.remove(stolenCard);
-            }
-            game.killPlayer(this);
-            return stolenCard;
-        } else {
-            Random rand = new Random();
-            Card stolenCard = getHand().get(rand.nextInt(getHand().size() - 1));
-            if (stolenCard instanceof Oxygen) {
-                oxygens.remove(stolenCard);
+        game.journalEnter(EventType.STEAL, seat, GameJournal.NONE);
+        try {
+            List<Card> hand = getHand();
+            if (hand.size() == 1) {
+                Card stolenCard = hand.get(0);
+                dropCard(stolenCard);
+                game.killPlayer(this);
+                return stolenCard;
             } else {
-                actions.remove(stolenCard);
+                Card stolenCard = hand.get(game.getRandom(RandomStream.STEAL).nextInt(hand.size()));
+                dropCard(stolenCard);
+                return stolenCard;
             }
-            return stolenCard;
+        } finally {
+            game.journalExit();
         }
     }
 
@@ -467,10 +473,260 @@ public class Astronaut implements Serializable {
      * @param swapee astronaut to swap track with
      */
     public void swapTrack(Astronaut swapee) {
-        Collection<Card> swapeeTrack = swapee.getTrack();
-        Collection<Card> myTrack = this.getTrack();
+        game.journalRecord(EventType.SWAP_TRACK, seat, swapee.seat);
+        Collection<Card> swapeeTrack = swapee.track;
+        Collection<Card> myTrack = this.track;
+        boolean swapeeTrackShared = swapee.trackShared;
+        long swapeeTrackHash = swapee.trackHash;
         this.track = swapeeTrack;
         swapee.track = myTrack;
+        swapee.trackShared = this.trackShared;
+        this.trackShared = swapeeTrackShared;
+        swapee.trackHash = this.trackHash;
+        this.trackHash = swapeeTrackHash;
+        this.trackView = null;
+        swapee.trackView = null;
+        game.playerChanged(this);
+        game.playerChanged(swapee);
+    }
+
+    /**
+     * returns the seat the astronaut was given when added to the game
+     * 
+     * @return seat, or GameJournal.NONE
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * sets the seat of the astronaut
+     * 
+     * @param seat seat
+     */
+    void setSeat(int seat) {
+        this.seat = seat;
+    }
+
+    /**
+     * returns the Zobrist hash of the cards in hand, whatever their order,
+     * which includes the oxygen; it is kept up to date as the hand changes
+     * 
+     * @return hash
+     */
+    public long handHash() {
+        return handHash;
+    }
+
+    /**
+     * returns the Zobrist hash of the track, in order; it is kept up to date
+     * as the track changes
+     * 
+     * @return hash
+     */
+    public long trackHash() {
+        return trackHash;
+    }
+
+    /**
+     * returns a copy of the astronaut for a forked game, which shares the
+     * hand and track with this astronaut until either of the two changes them
+     * 
+     * @param game forked game
+     * @return copy
+     */
+    Astronaut fork(GameEngine game) {
+        Astronaut copy;
+        try {
+            copy = (Astronaut) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+        copy.game = game;
+        copy.handShared = true;
+        copy.trackShared = true;
+        this.handShared = true;
+        this.trackShared = true;
+        return copy;
+    }
+
+    /**
+     * discards every action card in hand
+     */
+    void clearActions() {
+        ownHand();
+        for (Card element : actions) {
+            countCard(element, -1);
+        }
+        actions.clear();
+    }
+
+    /**
+     * swaps an Oxygen(2) in hand for two Oxygen(1) from the oxygen bank
+     * 
+     * @param oxygenTwo Oxygen(2) in hand
+     */
+    private void splitOxygen(Oxygen oxygenTwo) {
+        game.journalEnter(EventType.SPLIT_OXYGEN, seat, GameJournal.NONE);
+        try {
+            EngineMetrics.count(Metric.SPLIT_OXYGEN);
+            OxygenBank bank = game.getOxygenBank();
+            if (!bank.canSplit()) {
+                throw new IllegalStateException();
+            }
+            dropCard(oxygenTwo);
+            bank.deposit(oxygenTwo);
+            takeCard(bank.withdrawOxygenOne());
+            takeCard(bank.withdrawOxygenOne());
+        } finally {
+            game.journalExit();
+        }
+    }
+
+    /**
+     * returns the type id of a card for the journal
+     * 
+     * @param card card, or null
+     * @return type id, or GameJournal.NONE
+     */
+    private static int typeIdOf(Card card) {
+        return card == null ? GameJournal.NONE : card.getTypeId();
+    }
+
+    /**
+     * returns the type id of a card type for the journal
+     * 
+     * @param type card type, or null
+     * @return type id, or GameJournal.NONE
+     */
+    private static int typeIdOf(CardType type) {
+        return type == null ? GameJournal.NONE : type.getId();
+    }
+
+    /**
+     * returns the first oxygen of the passed type in hand
+     * 
+     * @param type Oxygen(1) or Oxygen(2)
+     * @return oxygen, or null if there is none
+     */
+    private Oxygen firstOxygen(CardType type) {
+        if (hasCard(type) == 0) {
+            return null;
+        }
+        for (int i = 0; i < oxygens.size(); i++) {
+            Oxygen element = oxygens.get(i);
+            if (element.getType() == type) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * gives the astronaut its own copy of the hand if it still shares it with
+     * a fork
+     */
+    private void ownHand() {
+        if (!handShared) {
+            return;
+        }
+        actions = new ArrayList<Card>(actions);
+        oxygens = new ArrayList<Oxygen>(oxygens);
+        cardCounts = cardCounts.clone();
+        actionsView = null;
+        handShared = false;
+    }
+
+    /**
+     * gives the astronaut its own copy of the track if it still shares it
+     * with a fork
+     */
+    private void ownTrack() {
+        if (!trackShared) {
+            return;
+        }
+        track = new ArrayList<Card>(track);
+        trackView = null;
+        trackShared = false;
+    }
+
+    /**
+     * puts the passed card in hand and updates the counts
+     * 
+     * @param card card to add
+     */
+    private void takeCard(Card card) {
+        ownHand();
+        if (card instanceof Oxygen) {
+            oxygens.add((Oxygen) card);
+        } else {
+            actions.add(card);
+        }
+        countCard(card, 1);
+    }
+
+    /**
+     * takes the passed card out of hand and updates the counts
+     * 
+     * @param card card to remove
+     * @return false if the card was not in hand
+     */
+    private boolean dropCard(Card card) {
+        ownHand();
+        boolean removed;
+        if (card instanceof Oxygen) {
+            removed = oxygens.remove(card);
+        } else {
+            removed = actions.remove(card);
+        }
+        if (removed) {
+            countCard(card, -1);
+        }
+        return removed;
+    }
+
+    /**
+     * updates the card counts and oxygen total after a card enters or leaves
+     * the hand
+     * 
+     * @param card  card that moved
+     * @param delta 1 if it entered the hand, -1 if it left
+     */
+    private void countCard(Card card, int delta) {
+        CardType type = card.getType();
+        if (type != null) {
+            cardCounts[type.getId()] += delta;
+        }
+        handHash += delta * Zobrist.cardKey(card);
+        if (card instanceof Oxygen) {
+            oxygenTotal += delta * ((Oxygen) card).getValue();
+            game.playerChanged(this);
+        } else {
+            actionsSorted = false;
+        }
+        handView = null;
+    }
+
+    /**
+     * restores the card counts and hashes, which are not saved
+     * 
+     * @param in stream to read from
+     * @throws IOException            stream error
+     * @throws ClassNotFoundException unknown class in stream
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        cardCounts = new int[CardType.COUNT];
+        for (Card element : oxygens) {
+            countCard(element, 1);
+        }
+        for (Card element : actions) {
+            countCard(element, 1);
+        }
+        int position = 0;
+        for (Card element : track) {
+            trackHash ^= Zobrist.positionKey(position++, element);
+        }
     }
 
     /**
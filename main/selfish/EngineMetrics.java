@@ -0,0 +1,146 @@
+package selfish;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * Class EngineMetrics counts and times engine operations across every game
+ * in the JVM
+ * 
+ * Metrics are off unless the selfish.metrics system property is true or
+ * setEnabled(true) is called. While they are off every hook is one read of a
+ * static field. While they are on, counts go to LongAdders and durations to
+ * LatencyHistograms, which many games can update at once without contending
+ * on a lock, and which a monitoring thread can read at any time.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class EngineMetrics {
+    private static volatile boolean enabled = Boolean.getBoolean("selfish.metrics");
+    private static final LongAdder[] COUNTS = new LongAdder[Metric.COUNT];
+    private static final LatencyHistogram[] HISTOGRAMS = new LatencyHistogram[Metric.COUNT];
+
+    static {
+        for (Metric metric : Metric.values()) {
+            if (metric.isTimed()) {
+                HISTOGRAMS[metric.ordinal()] = new LatencyHistogram();
+            } else {
+                COUNTS[metric.ordinal()] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * an empty constructor
+     */
+    private EngineMetrics() {
+    }
+
+    /**
+     * returns true if metrics are being recorded
+     * 
+     * @return boolean
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * turns recording on or off; what was recorded is kept
+     * 
+     * @param enabled true to record
+     */
+    public static void setEnabled(boolean enabled) {
+        EngineMetrics.enabled = enabled;
+    }
+
+    /**
+     * counts one operation that is not timed
+     * 
+     * @param metric metric
+     */
+    public static void count(Metric metric) {
+        if (enabled) {
+            COUNTS[metric.ordinal()].increment();
+        }
+    }
+
+    /**
+     * returns the time to pass to stop when a timed operation ends
+     * 
+     * @return start time in nanoseconds, or 0 if metrics are off
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * counts a timed operation and records how long it took
+     * 
+     * @param metric metric
+     * @param start  value start returned when the operation began; 0 records
+     *               nothing
+     */
+    public static void stop(Metric metric, long start) {
+        if (start != 0) {
+            HISTOGRAMS[metric.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * returns how many times an operation was counted
+     * 
+     * @param metric metric
+     * @return count
+     */
+    public static long getCount(Metric metric) {
+        if (metric.isTimed()) {
+            return HISTOGRAMS[metric.ordinal()].getCount();
+        }
+        return COUNTS[metric.ordinal()].sum();
+    }
+
+    /**
+     * returns the durations of a timed operation
+     * 
+     * @param metric timed metric
+     * @return histogram, or null if the metric is not timed
+     */
+    public static LatencyHistogram getHistogram(Metric metric) {
+        return HISTOGRAMS[metric.ordinal()];
+    }
+
+    /**
+     * forgets everything recorded
+     */
+    public static void reset() {
+        for (Metric metric : Metric.values()) {
+            if (metric.isTimed()) {
+                HISTOGRAMS[metric.ordinal()].reset();
+            } else {
+                COUNTS[metric.ordinal()].reset();
+            }
+        }
+    }
+
+    /**
+     * returns every metric, one per line, with the mean, 50th and 99th
+     * percentile and longest time of the timed ones in microseconds
+     * 
+     * @return report
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        for (Metric metric : Metric.values()) {
+            report.append(String.format("%-13s %12d", metric, getCount(metric)));
+            LatencyHistogram histogram = getHistogram(metric);
+            if (histogram != null) {
+                report.append(String.format("   mean %9.1f   p50 %9.1f   p99 %9.1f   max %9.1f us",
+                        histogram.getMeanNanos() / 1e3, histogram.getPercentileNanos(0.5) / 1e3,
+                        histogram.getPercentileNanos(0.99) / 1e3, histogram.getMaxNanos() / 1e3));
+            }
+            report.append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+}
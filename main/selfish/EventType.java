@@ -0,0 +1,62 @@
+package selfish;
+
+/**
+ * Enum EventType the kinds of state change recorded in a GameJournal
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public enum EventType {
+    /** GameEngine.addPlayer, seat of the new player */
+    ADD_PLAYER,
+    /** GameEngine.startGame */
+    START_GAME,
+    /** GameEngine.startTurn, seat of the player */
+    START_TURN,
+    /** GameEngine.endTurn, seat of the player or none */
+    END_TURN,
+    /** GameEngine.travel, seat of the traveller */
+    TRAVEL,
+    /** Astronaut.breathe, seat of the astronaut */
+    BREATHE,
+    /** GameEngine.splitOxygen, or a split while breathing, seat or none */
+    SPLIT_OXYGEN,
+    /** GameEngine.mergeDecks, deck refilled and deck emptied */
+    MERGE_DECKS,
+    /** GameEngine.killPlayer, seat of the corpse */
+    KILL_PLAYER,
+    /** Astronaut.hack, seat and card type */
+    HACK,
+    /** Astronaut.laserBlast, seat */
+    LASER_BLAST,
+    /** Astronaut.siphon, seat */
+    SIPHON,
+    /** Astronaut.steal, seat */
+    STEAL,
+    /** Astronaut.swapTrack, seat and seat of the swapee */
+    SWAP_TRACK,
+    /** Astronaut.addToHand, seat and card type */
+    ADD_TO_HAND,
+    /** Astronaut.addToTrack, seat and card type */
+    ADD_TO_TRACK,
+    /** a card put on top of a deck, deck and card type */
+    DECK_ADD,
+    /** a card drawn from the top of a deck, deck and card type */
+    DECK_DRAW,
+    /** a card taken from inside a deck, deck and card type */
+    DECK_REMOVE,
+    /** a deck shuffled, deck */
+    DECK_SHUFFLE;
+
+    private static final EventType[] BY_CODE = values();
+
+    /**
+     * returns the type with the passed code
+     * 
+     * @param code code
+     * @return type
+     */
+    static EventType fromCode(int code) {
+        return BY_CODE[code];
+    }
+}
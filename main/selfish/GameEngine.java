@@ -3,29 +3,78 @@ package selfish;
 import java.io.*;
 import java.util.*;
 import selfish.deck.*;
+import selfish.io.*;
 
 /**
  * Class GameEngine
  * 
+ * Players sit in seats numbered in the order they joined. The players
+ * waiting for their turn are kept in a ring buffer in turn order, and a
+ * bitmask marks the seats that have not been killed, so turns, player counts
+ * and the winner are found without allocating. Whether the game is over is
+ * kept in a GameStatus that is updated whenever a player's track or oxygen
+ * changes.
+ * 
+ * A game can be forked for looking ahead. The fork shares the decks, hands
+ * and tracks with the game it came from, and each side copies one of them
+ * the first time it changes it, so forking costs a few small arrays and one
+ * object per player and deck.
+ * 
  * @author Minjun Kim
  * @version 1.0
  */
-public class GameEngine implements Serializable {
-    private Collection<Astronaut> activePlayers = new LinkedList<Astronaut>();
+public class GameEngine implements Serializable, Cloneable {
+    /** Most players a game can seat */
+    public static final int MAX_SEATS = 8;
+    private static final long serialVersionUID = 422L;
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("activePlayers", Collection.class),
+            new ObjectStreamField("corpses", List.class),
+            new ObjectStreamField("currentPlayer", Astronaut.class),
+            new ObjectStreamField("hasStarted", boolean.class),
+            new ObjectStreamField("random", Random.class),
+            new ObjectStreamField("randoms", GameRandom[].class),
+            new ObjectStreamField("gameDeck", GameDeck.class),
+            new ObjectStreamField("gameDiscard", GameDeck.class),
+            new ObjectStreamField("spaceDeck", SpaceDeck.class),
+            new ObjectStreamField("spaceDiscard", SpaceDeck.class) };
+    private Astronaut[] seats = new Astronaut[MAX_SEATS];
+    private int seatCount;
+    private Astronaut[] waiting = new Astronaut[MAX_SEATS];
+    private int waitingHead;
+    private int waitingCount;
+    private int aliveSeats;
     private List<Astronaut> corpses = new ArrayList<Astronaut>();
     private Astronaut currentPlayer = null;
+    private List<Astronaut> allPlayers;
     private boolean hasStarted = false;
-    private Random random = new Random();
-    private static final long serialVersionUID = 422L;
+    private Random random;
+    private GameRandom[] randoms;
     private GameDeck gameDeck = new GameDeck();
     private GameDeck gameDiscard = new GameDeck();
     private SpaceDeck spaceDeck = new SpaceDeck();
     private SpaceDeck spaceDiscard = new SpaceDeck();
+    private transient GameStatus status = new GameStatus();
+    private transient List<GameListener> listeners;
+    private transient OxygenBank oxygenBank;
+    private transient PlayerIO playerIO;
+    private transient Card chosenCard;
+    private transient long seed;
+    private transient String actionCardsPath;
+    private transient String spaceCardsPath;
+    private transient GameJournal journal;
+    private transient int journalDepth;
+    private transient long turnStarted;
+    private transient int callDepth;
+    private transient EventType outerCall;
+    private transient EventType[] causesOfDeath;
+    private transient int mergeCount;
 
     /**
-     * an empty constructor
+     * an empty constructor, used when loading a game; restore gives the game
+     * its random streams
      */
-    private GameEngine() {
+    GameEngine() {
     }
 
     /**
@@ -38,7 +87,11 @@ public class GameEngine implements Serializable {
      */
     public GameEngine(long seed, String gameDeck, String spaceDeck) throws GameException {
 
-        random.setSeed(seed);
+        randoms = splitStreams(new GameRandom(seed));
+        random = randoms[RandomStream.SHUFFLE.ordinal()];
+        this.seed = seed;
+        this.actionCardsPath = gameDeck;
+        this.spaceCardsPath = spaceDeck;
 
         try {
             this.gameDeck = new GameDeck(gameDeck);
@@ -63,11 +116,87 @@ public class GameEngine implements Serializable {
      * @return number of players added
      */
     public int addPlayer(String player) {
-        if (hasStarted && getFullPlayerCount() == 5) {
+        if ((hasStarted && getFullPlayerCount() == 5) || seatCount == MAX_SEATS) {
+            throw new IllegalStateException();
+        }
+        int seat = seatCount;
+        Astronaut astronaut = new Astronaut(player, this);
+        if (journal != null) {
+            journal.addName(player);
+        }
+        journalRecord(EventType.ADD_PLAYER, seat, GameJournal.NONE);
+        seat(astronaut, seat, true);
+        enqueue(astronaut);
+        return waitingCount;
+    }
+
+    /**
+     * turns console prompts and messages on or off, so games can be played
+     * unattended
+     * 
+     * @param headless true to play without the console
+     */
+    public void setHeadless(boolean headless) {
+        this.playerIO = headless ? SilentIO.INSTANCE : new ConsoleIO();
+    }
+
+    /**
+     * returns where prompts and messages go; the console unless set otherwise
+     * 
+     * @return player io
+     */
+    public PlayerIO getPlayerIO() {
+        if (playerIO == null) {
+            playerIO = new ConsoleIO();
+        }
+        return playerIO;
+    }
+
+    /**
+     * sets where prompts and messages go
+     * 
+     * @param playerIO player io
+     */
+    public void setPlayerIO(PlayerIO playerIO) {
+        this.playerIO = playerIO;
+    }
+
+    /**
+     * returns the action card the current player chose to play this turn
+     * 
+     * @return card, or null if the player did not choose one
+     */
+    public Card getChosenCard() {
+        return chosenCard;
+    }
+
+    /**
+     * starts recording every state change of the game in a journal, which can
+     * be saved and replayed; must be called on a new game before any player is
+     * added
+     * 
+     * @return journal
+     */
+    public GameJournal startJournal() {
+        if (actionCardsPath == null || hasStarted || getFullPlayerCount() > 0 || journal != null) {
             throw new IllegalStateException();
         }
-        ((LinkedList<Astronaut>) activePlayers).add(new Astronaut(player, this));
-        return activePlayers.size();
+        journal = new GameJournal(seed, actionCardsPath, spaceCardsPath);
+        DeckListener deckListener = new JournalDeckListener();
+        gameDeck.setListener(deckListener);
+        gameDiscard.setListener(deckListener);
+        spaceDeck.setListener(deckListener);
+        spaceDiscard.setListener(deckListener);
+        return journal;
+    }
+
+    /**
+     * returns the journal of the game
+     * 
+     * @return journal, or null if the game is not being recorded
+     */
+    public GameJournal getJournal() {
+        return journal;
     }
 
     /**
@@ -76,41 +205,81 @@ public class GameEngine implements Serializable {
      * @return boolean
      */
     public boolean gameOver() {
-        for (Astronaut astronaut : getAllPlayers()) {
-            if (astronaut.hasWon() && astronaut.isAlive()) {
-                return true;
-            }
+        return status.isOver();
+    }
+
+    /**
+     * returns which players are at the ship and which are out of oxygen
+     * 
+     * @return status
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * subscribes to the end of the game
+     * 
+     * @param listener listener
+     */
+    public void addGameListener(GameListener listener) {
+        if (listeners == null) {
+            listeners = new ArrayList<GameListener>(2);
         }
-        int numberOfPlayersAlive = 0;
-        for (Astronaut astronaut : getAllPlayers()) {
-            if (!astronaut.isAlive()) {
-                numberOfPlayersAlive++;
-            }
-            if (getFullPlayerCount() == numberOfPlayersAlive) {
-                return true;
-            }
+        listeners.add(listener);
+    }
+
+    /**
+     * unsubscribes from the end of the game
+     * 
+     * @param listener listener
+     */
+    public void removeGameListener(GameListener listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
         }
-        return false;
     }
 
     /**
-     * returns all the players in game
+     * returns all the players in game: the current player, then the players
+     * waiting in turn order, then the dead in order of death
      * 
-     * @return players
+     * @return players, as a read-only list that is reused until the players
+     *         change
      */
     public List<Astronaut> getAllPlayers() {
-        List<Astronaut> allPlayers = new ArrayList<Astronaut>();
-        boolean currentPlayerExists = !(currentPlayer == null);
-        boolean currentPlayerIsNotCorpse = !corpses.contains(currentPlayer);
-
-        if (currentPlayerExists && currentPlayerIsNotCorpse) {
-            allPlayers.add(currentPlayer);
+        if (allPlayers == null) {
+            Astronaut[] orderedPlayers = new Astronaut[seatCount];
+            for (int i = 0; i < seatCount; i++) {
+                orderedPlayers[i] = playerAt(i);
+            }
+            allPlayers = Collections.unmodifiableList(Arrays.asList(orderedPlayers));
         }
-        allPlayers.addAll(activePlayers);
-        allPlayers.addAll(corpses);
         return allPlayers;
     }
 
+    /**
+     * returns the player in the passed seat
+     * 
+     * @param seat seat, numbered from 0 in the order players joined
+     * @return player
+     */
+    public Astronaut getPlayer(int seat) {
+        if (seat < 0 || seat >= seatCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        return seats[seat];
+    }
+
+    /**
+     * returns the number of players who have not been killed
+     * 
+     * @return number of players
+     */
+    public int getAlivePlayerCount() {
+        return Integer.bitCount(aliveSeats);
+    }
+
     /**
      * returns the current player
      * 
@@ -126,8 +295,7 @@ public class GameEngine implements Serializable {
      * @return number of players
      */
     public int getFullPlayerCount() {
-        int fullPlayerCount = getAllPlayers().size();
-        return fullPlayerCount;
+        return seatCount;
     }
 
     /**
@@ -148,6 +316,19 @@ public class GameEngine implements Serializable {
         return this.gameDiscard;
     }
 
+    /**
+     * returns the bank that moves oxygen in and out of the game deck and
+     * discard pile
+     * 
+     * @return oxygen bank
+     */
+    public OxygenBank getOxygenBank() {
+        if (oxygenBank == null) {
+            oxygenBank = new OxygenBank(gameDeck, gameDiscard);
+        }
+        return oxygenBank;
+    }
+
     /**
      * returns the space deck
      * 
@@ -166,16 +347,52 @@ public class GameEngine implements Serializable {
         return this.spaceDiscard;
     }
 
+    /**
+     * returns the call that killed a player: the outermost engine call that
+     * was running when the player died, like TRAVEL or STEAL, or KILL_PLAYER
+     * if killPlayer was called directly. It is not saved with the game.
+     * 
+     * @param astronaut player
+     * @return cause, or null if the player is alive or died before the game
+     *         was loaded
+     */
+    public EventType getCauseOfDeath(Astronaut astronaut) {
+        int seat = astronaut.getSeat();
+        boolean isSeatedHere = seat >= 0 && seat < seatCount && seats[seat] == astronaut;
+        if (!isSeatedHere || causesOfDeath == null) {
+            return null;
+        }
+        return causesOfDeath[seat];
+    }
+
+    /**
+     * returns the number of times mergeDecks has been called on this game
+     * since it was created or loaded
+     * 
+     * @return merges
+     */
+    public int getMergeCount() {
+        return mergeCount;
+    }
+
     /**
      * returns the winner of the game
      * 
      * @return winner
      */
     public Astronaut getWinner() {
-        for (Astronaut player : getAllPlayers())
-            if (player.hasWon() && player.isAlive()) {
+        int winningSeats = status.getWinningSeats();
+        if (winningSeats == 0) {
+            return null;
+        } else if (Integer.bitCount(winningSeats) == 1) {
+            return seats[Integer.numberOfTrailingZeros(winningSeats)];
+        }
+        for (int i = 0; i < seatCount; i++) {
+            Astronaut player = playerAt(i);
+            if ((winningSeats & (1 << player.getSeat())) != 0) {
                 return player;
             }
+        }
         return null;
     }
 
@@ -185,14 +402,38 @@ public class GameEngine implements Serializable {
      * @param corpse player to kill
      */
     public void killPlayer(Astronaut corpse) {
-        for (int i = 0; i < corpse.oxygenRemaining(); i++) {
-            corpse.breathe();
+        int seat = corpse.getSeat();
+        boolean notSeatedHere = seat < 0 || seat >= seatCount || seats[seat] != corpse;
+        if (notSeatedHere) {
+            throw new IllegalArgumentException();
         }
-        corpse.getActions().clear();
-        corpses.add(corpse);
-        activePlayers.remove(corpse);
-        if (corpse.equals(currentPlayer)) {
-            currentPlayer = null;
+        boolean alreadyDead = (aliveSeats & (1 << seat)) == 0;
+        if (alreadyDead) {
+            return;
+        }
+        if (causesOfDeath == null) {
+            causesOfDeath = new EventType[MAX_SEATS];
+        }
+        causesOfDeath[seat] = callDepth == 0 ? EventType.KILL_PLAYER : outerCall;
+        journalEnter(EventType.KILL_PLAYER, seat, GameJournal.NONE);
+        try {
+            EngineMetrics.count(Metric.DEATH);
+            if (GameLog.isEnabled(LogLevel.INFO)) {
+                GameLog.log(LogLevel.INFO, "player_killed", System.identityHashCode(this), seat, corpse.getName());
+            }
+            aliveSeats &= ~(1 << seat);
+            corpses.add(corpse);
+            removeWaiting(corpse);
+            if (corpse.equals(currentPlayer)) {
+                currentPlayer = null;
+            }
+            allPlayers = null;
+            while (corpse.oxygenRemaining() > 0) {
+                corpse.breathe();
+            }
+            corpse.clearActions();
+        } finally {
+            journalExit();
         }
     }
 
@@ -203,15 +444,109 @@ public class GameEngine implements Serializable {
      * @param deck2 deck to empty
      */
     public void mergeDecks(Deck deck1, Deck deck2) {
-        System.out.println("Merging Decks");
-        System.out.println("Size of deck1 is " + deck1.size());
-        System.out.println("Size of deck2 is " + deck2.size());
-        int sizeOfDeck2 = deck2.size();
-        for (int i = 0; i < sizeOfDeck2; i++) {
-            deck1.add(deck2.draw());
+        journalEnter(EventType.MERGE_DECKS, deckId(deck1), deckId(deck2));
+        long started = EngineMetrics.start();
+        try {
+            if (GameLog.isEnabled(LogLevel.DEBUG)) {
+                GameLog.log(LogLevel.DEBUG, "merge_decks", System.identityHashCode(this), GameJournal.NONE,
+                        "deck1=" + deck1.size() + " deck2=" + deck2.size());
+            }
+            PlayerIO io = getPlayerIO();
+            io.message(null, "Merging Decks");
+            io.message(null, "Size of deck1 is " + deck1.size());
+            io.message(null, "Size of deck2 is " + deck2.size());
+            int sizeOfDeck2 = deck2.size();
+            for (int i = 0; i < sizeOfDeck2; i++) {
+                deck1.add(deck2.draw());
+            }
+            deck1.shuffle(random);
+            mergeCount++;
+            io.message(null, "Merging done");
+            EngineMetrics.stop(Metric.MERGE_DECKS, started);
+        } finally {
+            journalExit();
+        }
+    }
+
+    /**
+     * returns a 64-bit Zobrist hash of the state of the game: the order of
+     * every deck, the name, hand and track of the player in every seat, the
+     * seat to move, the seats waiting in turn order and the seats still
+     * alive. The hands and tracks are hashed as the game changes, so this
+     * only combines a few numbers per player. Equal states hash the same on
+     * every JVM, so replicas and reloaded games can be compared every turn.
+     * The random streams are left out, so a fork that shuffled differently
+     * but holds the same cards in the same order hashes the same.
+     * 
+     * @return hash
+     */
+    public long stateHash() {
+        long hash = Zobrist.slot(0, gameDeck.stateHash()) ^ Zobrist.slot(1, gameDiscard.stateHash())
+                ^ Zobrist.slot(2, spaceDeck.stateHash()) ^ Zobrist.slot(3, spaceDiscard.stateHash());
+        for (int i = 0; i < seatCount; i++) {
+            Astronaut astronaut = seats[i];
+            hash ^= Zobrist.slot(4 + 2 * i, astronaut.handHash()) ^ Zobrist.slot(5 + 2 * i, astronaut.trackHash());
+            hash ^= Zobrist.slot(6 + 2 * MAX_SEATS + i, astronaut.getName().hashCode());
+        }
+        // 4 bits per seat, seat + 1 so that 0 is no seat: the current player,
+        // then every waiting player in turn order; then the alive seats
+        long order = currentPlayer == null ? 0 : currentPlayer.getSeat() + 1;
+        for (int i = 0; i < waitingCount; i++) {
+            order |= (long) (waitingAt(i).getSeat() + 1) << (4 * (i + 1));
+        }
+        order |= (long) aliveSeats << (4 * (MAX_SEATS + 1));
+        hash ^= Zobrist.slot(4 + 2 * MAX_SEATS, order) ^ Zobrist.slot(5 + 2 * MAX_SEATS, hasStarted ? 1 : 0);
+        return hash;
+    }
+
+    /**
+     * returns an independent copy of the game, for looking ahead; the copy
+     * continues every random stream from where this game is, so it plays out
+     * the same as this game would given the same moves. The copy plays
+     * silently and has no listeners or journal.
+     * 
+     * @return copy
+     */
+    public GameEngine fork() {
+        GameEngine copy;
+        try {
+            copy = (GameEngine) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+        copy.seats = new Astronaut[MAX_SEATS];
+        for (int i = 0; i < seatCount; i++) {
+            copy.seats[i] = seats[i].fork(copy);
+        }
+        copy.waiting = new Astronaut[MAX_SEATS];
+        for (int i = 0; i < waitingCount; i++) {
+            int index = (waitingHead + i) % MAX_SEATS;
+            copy.waiting[index] = copy.seats[waiting[index].getSeat()];
         }
-        deck1.shuffle(random);
-        System.out.println("Merging done");
+        copy.corpses = new ArrayList<Astronaut>(corpses.size());
+        for (Astronaut corpse : corpses) {
+            copy.corpses.add(copy.seats[corpse.getSeat()]);
+        }
+        copy.currentPlayer = currentPlayer == null ? null : copy.seats[currentPlayer.getSeat()];
+        copy.allPlayers = null;
+        copy.randoms = new GameRandom[randoms.length];
+        for (int i = 0; i < randoms.length; i++) {
+            copy.randoms[i] = randoms[i].copy();
+        }
+        copy.random = copy.randoms[RandomStream.SHUFFLE.ordinal()];
+        copy.gameDeck = gameDeck.fork();
+        copy.gameDiscard = gameDiscard.fork();
+        copy.spaceDeck = spaceDeck.fork();
+        copy.spaceDiscard = spaceDiscard.fork();
+        copy.status = status.copy();
+        copy.listeners = null;
+        copy.oxygenBank = null;
+        copy.playerIO = SilentIO.INSTANCE;
+        copy.journal = null;
+        copy.journalDepth = 0;
+        copy.callDepth = 0;
+        copy.causesOfDeath = causesOfDeath == null ? null : causesOfDeath.clone();
+        return copy;
     }
 
     /**
@@ -221,6 +556,7 @@ public class GameEngine implements Serializable {
      * @throws GameException file not found
      */
     public void saveState(String path) throws GameException {
+        long started = EngineMetrics.start();
         FileOutputStream fileOut;
         try {
             fileOut = new FileOutputStream(path);
@@ -237,6 +573,7 @@ public class GameEngine implements Serializable {
         } catch (IOException e) {
             throw new GameException("IOException", e);
         }
+        EngineMetrics.stop(Metric.SAVE, started);
     }
 
     /**
@@ -248,6 +585,21 @@ public class GameEngine implements Serializable {
      * @throws ClassNotFoundException IOException
      */
     public static GameEngine loadState(String path) throws GameException, ClassNotFoundException {
+        long started = EngineMetrics.start();
+        GameEngine gameEngine = readState(path);
+        EngineMetrics.stop(Metric.LOAD, started);
+        return gameEngine;
+    }
+
+    /**
+     * reads a game saved by saveState
+     * 
+     * @param path name of the save file
+     * @return game
+     * @throws GameException          file not found
+     * @throws ClassNotFoundException unknown class
+     */
+    private static GameEngine readState(String path) throws GameException, ClassNotFoundException {
         selfish.GameEngine gameEngine;
         FileInputStream fileIn;
         try {
@@ -268,6 +620,66 @@ public class GameEngine implements Serializable {
         return gameEngine;
     }
 
+    /**
+     * saves game in the compact binary format
+     * 
+     * @param path name of the save file
+     * @throws GameException file could not be written
+     */
+    public void saveGame(String path) throws GameException {
+        long started = EngineMetrics.start();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(path)))) {
+            SaveFormat.write(this, out);
+        } catch (IOException e) {
+            throw new GameException("IOException", e);
+        }
+        EngineMetrics.stop(Metric.SAVE, started);
+    }
+
+    /**
+     * loads a game saved by saveGame, or by saveState in older versions
+     * 
+     * @param path name of the save file
+     * @return game
+     * @throws GameException          file not found or not a save file
+     * @throws ClassNotFoundException unknown class in an older save
+     */
+    public static GameEngine loadGame(String path) throws GameException, ClassNotFoundException {
+        long started = EngineMetrics.start();
+        GameEngine game;
+        if (isBinarySave(path)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+                game = SaveFormat.read(in);
+            } catch (IOException e) {
+                throw new GameException("IOException", e);
+            }
+        } else {
+            game = readState(path);
+        }
+        EngineMetrics.stop(Metric.LOAD, started);
+        return game;
+    }
+
+    /**
+     * returns true if the file starts with the magic number of saveGame
+     * 
+     * @param path name of the save file
+     * @return boolean
+     * @throws GameException file not found
+     */
+    private static boolean isBinarySave(String path) throws GameException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(path))) {
+            return in.readInt() == SaveFormat.MAGIC;
+        } catch (FileNotFoundException e) {
+            throw new GameException("FileNotFoundError", e);
+        } catch (EOFException e) {
+            return false;
+        } catch (IOException e) {
+            throw new GameException("IOException", e);
+        }
+    }
+
     /**
      * takes one Oxygen(2) and returns a pair of Oxygen(1)
      * 
@@ -275,45 +687,13 @@ public class GameEngine implements Serializable {
      * @return pair of Oxygen(1)
      */
     public Oxygen[] splitOxygen(Oxygen dbl) {
-        if (dbl.getValue() == 1) {
-            throw new IllegalArgumentException();
-        }
-        int numberOfOxygenOne = 0;
-        for (Card element : gameDeck.getCards()) {
-            if (element instanceof Oxygen && ((Oxygen) element).getValue() == 1) {
-                numberOfOxygenOne++;
-            }
-        }
-        if (numberOfOxygenOne > 1) {
-            gameDeck.add(dbl);
-            Oxygen[] pairOfOxygenOne = { gameDeck.drawOxygen(1), gameDeck.drawOxygen(1) };
-            return pairOfOxygenOne;
-        } else if (numberOfOxygenOne == 1) {
-            for (Card card : gameDiscard.getCards()) {
-                boolean cardIsOxygenOne = ((Oxygen) card).getValue() == 1;
-                if (card instanceof Oxygen && cardIsOxygenOne) {
-                    numberOfOxygenOne++;
-                }
-            }
-            if (numberOfOxygenOne > 1) {
-                gameDeck.add(dbl);
-                Oxygen[] pairOfOxygenOne = { gameDeck.drawOxygen(1), gameDeck.drawOxygen(1) };
-                return pairOfOxygenOne;
-            }
-        } else {
-            for (Card card : gameDiscard.getCards()) {
-                boolean cardIsOxygenOne = ((Oxygen) card).getValue() == 1;
-                if (card instanceof Oxygen && cardIsOxygenOne) {
-                    numberOfOxygenOne++;
-                }
-            }
-            if (numberOfOxygenOne > 1) {
-                gameDeck.add(dbl);
-                Oxygen[] pairOfOxygenOne = { gameDeck.drawOxygen(1), gameDeck.drawOxygen(1) };
-                return pairOfOxygenOne;
-            }
+        journalEnter(EventType.SPLIT_OXYGEN, GameJournal.NONE, GameJournal.NONE);
+        try {
+            EngineMetrics.count(Metric.SPLIT_OXYGEN);
+            return getOxygenBank().split(dbl);
+        } finally {
+            journalExit();
         }
-        throw new IllegalStateException();
     }
 
     /**
@@ -324,44 +704,62 @@ public class GameEngine implements Serializable {
         if (wrongNumberOfPlayers || hasStarted) {
             throw new IllegalStateException();
         }
-        int numberOfOxygenOneToDeal = 4;
-        int numberOfActionCardsToDeal = 4;
-        for (Astronaut element : activePlayers) {
-            element.addToHand(this.gameDeck.drawOxygen(2));
-            for (int i = 0; i < numberOfOxygenOneToDeal; i++) {
-                element.addToHand(this.gameDeck.drawOxygen(1));
+        journalEnter(EventType.START_GAME, GameJournal.NONE, GameJournal.NONE);
+        try {
+            int numberOfOxygenOneToDeal = 4;
+            int numberOfActionCardsToDeal = 4;
+            for (int j = 0; j < waitingCount; j++) {
+                Astronaut element = waitingAt(j);
+                element.addToHand(this.gameDeck.drawOxygen(2));
+                for (int i = 0; i < numberOfOxygenOneToDeal; i++) {
+                    element.addToHand(this.gameDeck.drawOxygen(1));
+                }
             }
-        }
-        for (int i = 0; i < numberOfActionCardsToDeal; i++) {
-            for (Astronaut element : activePlayers) {
-                element.addToHand(this.gameDeck.draw());
+            for (int i = 0; i < numberOfActionCardsToDeal; i++) {
+                for (int j = 0; j < waitingCount; j++) {
+                    Astronaut element = waitingAt(j);
+                    element.addToHand(this.gameDeck.draw());
+                }
             }
+            hasStarted = true;
+        } finally {
+            journalExit();
         }
-        hasStarted = true;
     }
 
     /**
      * starts the turn
      */
     public void startTurn() {
-        Scanner scanner = new Scanner(System.in);
         if (!hasStarted || gameOver() || !(currentPlayer == null)) {
-            scanner.close();
             throw new IllegalStateException();
         }
-        currentPlayer = ((LinkedList<Astronaut>) activePlayers).poll();
-        String playerName = currentPlayer.toString();
-        System.out.println(playerName + "'s turn has started");
-        if (gameDeck.size() == 0) {
-            mergeDecks(gameDeck, gameDiscard);
-        }
-        currentPlayer.addToHand(gameDeck.draw());
-        System.out.println("Your actions cards are: " + currentPlayer.getActionsStr(false, false));
-        System.out.print("Do you wish to play a game card? [Y]es or [N]o: ");
-        if (scanner.nextLine().equalsIgnoreCase("y")) {
-            System.out.println("Which card would you like to play?");
+        journalEnter(EventType.START_TURN, seatOf(waitingCount == 0 ? null : waitingAt(0)), GameJournal.NONE);
+        try {
+            turnStarted = EngineMetrics.start();
+            currentPlayer = dequeue();
+            String playerName = currentPlayer.toString();
+            if (GameLog.isEnabled(LogLevel.INFO)) {
+                GameLog.log(LogLevel.INFO, "turn_start", System.identityHashCode(this), currentPlayer.getSeat(),
+                        playerName);
+            }
+            PlayerIO io = getPlayerIO();
+            io.message(null, playerName + "'s turn has started");
+            if (gameDeck.size() == 0) {
+                mergeDecks(gameDeck, gameDiscard);
+            }
+            currentPlayer.addToHand(gameDeck.draw());
+            chosenCard = null;
+            if (!io.isInteractive()) {
+                return;
+            }
+            io.message(currentPlayer, "Your actions cards are: " + currentPlayer.getActionsStr(false, false));
+            if (io.ask(currentPlayer, "Do you wish to play a game card?")) {
+                chosenCard = io.choose(currentPlayer, "Which card would you like to play?", currentPlayer.getActions());
+            }
+        } finally {
+            journalExit();
         }
-        scanner.close();
     }
 
     /**
@@ -370,18 +768,32 @@ public class GameEngine implements Serializable {
      * @return number of players alive
      */
     public int endTurn() {
-        if (currentPlayer != null) {
-            String playerName = currentPlayer.toString();
-            if (currentPlayer.isAlive()) {
-                activePlayers.add(currentPlayer);
-                currentPlayer = null;
-            } else {
-                killPlayer(currentPlayer);
+        journalEnter(EventType.END_TURN, seatOf(currentPlayer), GameJournal.NONE);
+        try {
+            if (currentPlayer != null) {
+                String playerName = currentPlayer.toString();
+                if (GameLog.isEnabled(LogLevel.INFO)) {
+                    GameLog.log(LogLevel.INFO, "turn_end", System.identityHashCode(this), currentPlayer.getSeat(),
+                            playerName);
+                }
+                if (currentPlayer.isAlive()) {
+                    enqueue(currentPlayer);
+                    currentPlayer = null;
+                } else {
+                    killPlayer(currentPlayer);
+                }
+                chosenCard = null;
+                PlayerIO io = getPlayerIO();
+                io.message(null, playerName + "'s turn has ended");
+                io.flush();
             }
-            System.out.println(playerName + "'s turn has ended");
+            EngineMetrics.stop(Metric.TURN, turnStarted);
+            turnStarted = 0;
+            int numberOfPlayersAlive = getAlivePlayerCount();
+            return numberOfPlayersAlive;
+        } finally {
+            journalExit();
         }
-        int numberOfPlayersAlive = getFullPlayerCount() - corpses.size();
-        return numberOfPlayersAlive;
     }
 
     /**
@@ -395,18 +807,477 @@ public class GameEngine implements Serializable {
         if (notEnoughOxygenToTravell) {
             throw new IllegalStateException();
         }
-        traveller.breathe();
-        traveller.breathe();
-        Card drawnSpaceCard = spaceDeck.draw();
+        journalEnter(EventType.TRAVEL, traveller.getSeat(), GameJournal.NONE);
+        try {
+            traveller.breathe();
+            traveller.breathe();
+            Card drawnSpaceCard = spaceDeck.draw();
+            EngineMetrics.count(Metric.TRAVEL);
 
-        boolean drawnSpaceCardIsGravitationalAnomaly = drawnSpaceCard.toString()
-                .equalsIgnoreCase("GRAVITATIONAL ANOMALY");
+            boolean drawnSpaceCardIsGravitationalAnomaly = drawnSpaceCard.getType() == CardType.GRAVITATIONAL_ANOMALY;
 
-        if (drawnSpaceCardIsGravitationalAnomaly) {
-            spaceDiscard.add(drawnSpaceCard);
-        } else {
-            traveller.addToTrack(drawnSpaceCard);
+            if (drawnSpaceCardIsGravitationalAnomaly) {
+                spaceDiscard.add(drawnSpaceCard);
+            } else {
+                traveller.addToTrack(drawnSpaceCard);
+            }
+            return drawnSpaceCard;
+        } finally {
+            journalExit();
+        }
+    }
+
+    /**
+     * records an event and marks the start of the call that caused it; events
+     * recorded before the matching journalExit are its consequences
+     * 
+     * @param type type of event
+     * @param seat seat or deck, or GameJournal.NONE
+     * @param arg  argument, or GameJournal.NONE
+     */
+    void journalEnter(EventType type, int seat, int arg) {
+        if (callDepth++ == 0) {
+            outerCall = type;
+        }
+        if (journal != null) {
+            journal.append(type, seat, arg, journalDepth == 0);
+            journalDepth++;
+        }
+    }
+
+    /**
+     * marks the end of the call started by journalEnter
+     */
+    void journalExit() {
+        callDepth--;
+        if (journal != null) {
+            journalDepth--;
+        }
+    }
+
+    /**
+     * records an event that does not cause any others
+     * 
+     * @param type type of event
+     * @param seat seat or deck, or GameJournal.NONE
+     * @param arg  argument, or GameJournal.NONE
+     */
+    void journalRecord(EventType type, int seat, int arg) {
+        if (journal != null) {
+            journal.append(type, seat, arg, journalDepth == 0);
+        }
+    }
+
+    /**
+     * returns the seat of a player
+     * 
+     * @param astronaut player, or null
+     * @return seat, or GameJournal.NONE
+     */
+    private static int seatOf(Astronaut astronaut) {
+        return astronaut == null ? GameJournal.NONE : astronaut.getSeat();
+    }
+
+    /**
+     * returns the number the journal uses for a deck
+     * 
+     * @param deck deck
+     * @return deck number, or GameJournal.NONE if it is not one of the game's
+     */
+    private int deckId(Deck deck) {
+        if (deck == gameDeck) {
+            return 0;
+        } else if (deck == gameDiscard) {
+            return 1;
+        } else if (deck == spaceDeck) {
+            return 2;
+        } else if (deck == spaceDiscard) {
+            return 3;
+        }
+        return GameJournal.NONE;
+    }
+
+    /**
+     * updates the game status after a player's track or oxygen changed, and
+     * tells the listeners if that ended the game
+     * 
+     * @param astronaut player who changed
+     */
+    void playerChanged(Astronaut astronaut) {
+        int seat = astronaut.getSeat();
+        boolean notSeatedHere = status == null || seat < 0 || seat >= seatCount || seats[seat] != astronaut;
+        if (notSeatedHere) {
+            return;
+        }
+        boolean wasOver = status.isOver();
+        status.update(seat, astronaut.distanceFromShip() == 0, !astronaut.isAlive());
+        boolean justEnded = hasStarted && !wasOver && status.isOver();
+        if (justEnded && listeners != null) {
+            Astronaut winner = getWinner();
+            for (GameListener listener : new ArrayList<GameListener>(listeners)) {
+                listener.gameOver(this, winner);
+            }
+        }
+    }
+
+    /**
+     * returns true if the game has started
+     * 
+     * @return boolean
+     */
+    boolean hasStarted() {
+        return hasStarted;
+    }
+
+    /**
+     * returns the players waiting for their turn, in turn order
+     * 
+     * @return players
+     */
+    List<Astronaut> getActivePlayers() {
+        List<Astronaut> activePlayers = new ArrayList<Astronaut>(waitingCount);
+        for (int i = 0; i < waitingCount; i++) {
+            activePlayers.add(waitingAt(i));
+        }
+        return activePlayers;
+    }
+
+    /**
+     * returns the dead players, in order of death
+     * 
+     * @return players
+     */
+    List<Astronaut> getCorpses() {
+        return corpses;
+    }
+
+    /**
+     * returns one of the random streams of the game
+     * 
+     * @param stream stream
+     * @return random
+     */
+    public GameRandom getRandom(RandomStream stream) {
+        return randoms[stream.ordinal()];
+    }
+
+    /**
+     * returns the random number generator used for shuffling
+     * 
+     * @return random
+     */
+    GameRandom getRandom() {
+        return randoms[RandomStream.SHUFFLE.ordinal()];
+    }
+
+    /**
+     * returns every random stream, indexed by stream
+     * 
+     * @return randoms
+     */
+    GameRandom[] getRandoms() {
+        return randoms;
+    }
+
+    /**
+     * splits one independent generator for every random stream off a root
+     * generator
+     * 
+     * @param root generator to split
+     * @return randoms, indexed by stream
+     */
+    static GameRandom[] splitStreams(GameRandom root) {
+        GameRandom[] streams = new GameRandom[RandomStream.COUNT];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = root.split();
+        }
+        return streams;
+    }
+
+    /**
+     * sets the whole state of a game being loaded
+     * 
+     * @param hasStarted    true if the game has started
+     * @param randoms       random streams, indexed by stream
+     * @param gameDeck      game deck
+     * @param gameDiscard   game discard deck
+     * @param spaceDeck     space deck
+     * @param spaceDiscard  space discard deck
+     * @param currentPlayer current player, or null
+     * @param active        players waiting for their turn
+     * @param corpses       dead players
+     * @param playerSeats   seat of every player, the current player first,
+     *                      then the waiting and the dead; or null to number
+     *                      the seats in that order
+     */
+    void restore(boolean hasStarted, GameRandom[] randoms, GameDeck gameDeck, GameDeck gameDiscard, SpaceDeck spaceDeck,
+            SpaceDeck spaceDiscard, Astronaut currentPlayer, List<Astronaut> active, List<Astronaut> corpses,
+            int[] playerSeats) {
+        this.hasStarted = hasStarted;
+        this.randoms = randoms;
+        this.random = randoms[RandomStream.SHUFFLE.ordinal()];
+        this.gameDeck = gameDeck;
+        this.gameDiscard = gameDiscard;
+        this.spaceDeck = spaceDeck;
+        this.spaceDiscard = spaceDiscard;
+        this.oxygenBank = null;
+        if (playerSeats != null) {
+            int next = 0;
+            if (currentPlayer != null) {
+                currentPlayer.setSeat(playerSeats[next++]);
+            }
+            for (Astronaut astronaut : active) {
+                astronaut.setSeat(playerSeats[next++]);
+            }
+            for (Astronaut astronaut : corpses) {
+                astronaut.setSeat(playerSeats[next++]);
+            }
+        }
+        seatPlayers(currentPlayer, active, corpses);
+    }
+
+    /**
+     * seats the players of a loaded game in the seats they were saved in;
+     * saves that did not keep the seats, or kept them wrong, have the seats
+     * numbered in the order of getAllPlayers
+     * 
+     * @param current current player, or null
+     * @param active  players waiting for their turn, in turn order
+     * @param dead    dead players, in order of death
+     */
+    private void seatPlayers(Astronaut current, Collection<Astronaut> active, List<Astronaut> dead) {
+        seats = new Astronaut[MAX_SEATS];
+        waiting = new Astronaut[MAX_SEATS];
+        seatCount = 0;
+        waitingHead = 0;
+        waitingCount = 0;
+        aliveSeats = 0;
+        corpses = new ArrayList<Astronaut>();
+        allPlayers = null;
+        status = new GameStatus();
+        boolean currentIsDead = current != null && dead.contains(current);
+        currentPlayer = currentIsDead ? null : current;
+        List<Astronaut> players = new ArrayList<Astronaut>();
+        if (currentPlayer != null) {
+            players.add(currentPlayer);
+        }
+        players.addAll(active);
+        int numberAlive = players.size();
+        for (Astronaut astronaut : dead) {
+            boolean listedTwice = players.subList(numberAlive, players.size()).contains(astronaut);
+            if (!listedTwice) {
+                players.add(astronaut);
+            }
+        }
+        if (players.size() > MAX_SEATS) {
+            throw new IllegalStateException();
+        }
+        boolean keepSeats = hasOwnSeats(players);
+        for (int i = 0; i < players.size(); i++) {
+            Astronaut astronaut = players.get(i);
+            boolean alive = i < numberAlive;
+            seat(astronaut, keepSeats ? astronaut.getSeat() : i, alive);
+            if (!alive) {
+                corpses.add(astronaut);
+            } else if (astronaut != currentPlayer) {
+                enqueue(astronaut);
+            }
+        }
+    }
+
+    /**
+     * returns true if every player has a seat of their own, numbered from 0
+     * 
+     * @param players players
+     * @return boolean
+     */
+    private static boolean hasOwnSeats(List<Astronaut> players) {
+        boolean[] taken = new boolean[players.size()];
+        for (Astronaut astronaut : players) {
+            int seat = astronaut.getSeat();
+            if (seat < 0 || seat >= taken.length || taken[seat]) {
+                return false;
+            }
+            taken[seat] = true;
+        }
+        return true;
+    }
+
+    /**
+     * gives a player a seat
+     * 
+     * @param astronaut player
+     * @param seat      seat, free and below MAX_SEATS
+     * @param alive     false if the player is already dead
+     */
+    private void seat(Astronaut astronaut, int seat, boolean alive) {
+        if (seatCount == MAX_SEATS) {
+            throw new IllegalStateException();
+        }
+        astronaut.setSeat(seat);
+        seats[seat] = astronaut;
+        if (alive) {
+            aliveSeats |= 1 << seat;
+        }
+        status.update(seat, astronaut.distanceFromShip() == 0, !astronaut.isAlive());
+        seatCount++;
+        allPlayers = null;
+    }
+
+    /**
+     * puts a player at the back of the turn order
+     * 
+     * @param astronaut player
+     */
+    private void enqueue(Astronaut astronaut) {
+        waiting[(waitingHead + waitingCount) % MAX_SEATS] = astronaut;
+        waitingCount++;
+        allPlayers = null;
+    }
+
+    /**
+     * takes the player at the front of the turn order
+     * 
+     * @return player, or null if nobody is waiting
+     */
+    private Astronaut dequeue() {
+        if (waitingCount == 0) {
+            return null;
+        }
+        Astronaut astronaut = waiting[waitingHead];
+        waiting[waitingHead] = null;
+        waitingHead = (waitingHead + 1) % MAX_SEATS;
+        waitingCount--;
+        allPlayers = null;
+        return astronaut;
+    }
+
+    /**
+     * returns a waiting player
+     * 
+     * @param index place in the turn order, 0 being next
+     * @return player
+     */
+    private Astronaut waitingAt(int index) {
+        return waiting[(waitingHead + index) % MAX_SEATS];
+    }
+
+    /**
+     * takes a player out of the turn order, keeping the others in order
+     * 
+     * @param astronaut player
+     */
+    private void removeWaiting(Astronaut astronaut) {
+        for (int i = 0; i < waitingCount; i++) {
+            if (waitingAt(i) != astronaut) {
+                continue;
+            }
+            for (int j = i; j < waitingCount - 1; j++) {
+                waiting[(waitingHead + j) % MAX_SEATS] = waitingAt(j + 1);
+            }
+            waiting[(waitingHead + waitingCount - 1) % MAX_SEATS] = null;
+            waitingCount--;
+            return;
+        }
+    }
+
+    /**
+     * returns a player in the order of getAllPlayers
+     * 
+     * @param index index
+     * @return player
+     */
+    private Astronaut playerAt(int index) {
+        boolean currentPlayerIsListed = currentPlayer != null && (aliveSeats & (1 << currentPlayer.getSeat())) != 0;
+        if (currentPlayerIsListed) {
+            if (index == 0) {
+                return currentPlayer;
+            }
+            index--;
+        }
+        if (index < waitingCount) {
+            return waitingAt(index);
+        }
+        return corpses.get(index - waitingCount);
+    }
+
+    /**
+     * writes the game in the form it has always been saved in, with the
+     * waiting players as a list
+     * 
+     * @param out stream to write to
+     * @throws IOException stream error
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("activePlayers", new LinkedList<Astronaut>(getActivePlayers()));
+        fields.put("corpses", corpses);
+        fields.put("currentPlayer", currentPlayer);
+        fields.put("hasStarted", hasStarted);
+        fields.put("random", random);
+        fields.put("randoms", randoms);
+        fields.put("gameDeck", gameDeck);
+        fields.put("gameDiscard", gameDiscard);
+        fields.put("spaceDeck", spaceDeck);
+        fields.put("spaceDiscard", spaceDiscard);
+        out.writeFields();
+    }
+
+    /**
+     * reads a game saved by writeObject or by an older version, seats its
+     * players, and gives saves from before the random streams a stream of
+     * each kind, split off their old generator
+     * 
+     * @param in stream to read from
+     * @throws IOException            stream error
+     * @throws ClassNotFoundException unknown class in stream
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        hasStarted = fields.get("hasStarted", false);
+        random = (Random) fields.get("random", null);
+        randoms = (GameRandom[]) fields.get("randoms", null);
+        gameDeck = (GameDeck) fields.get("gameDeck", null);
+        gameDiscard = (GameDeck) fields.get("gameDiscard", null);
+        spaceDeck = (SpaceDeck) fields.get("spaceDeck", null);
+        spaceDiscard = (SpaceDeck) fields.get("spaceDiscard", null);
+        if (randoms == null) {
+            GameRandom root = random instanceof GameRandom ? (GameRandom) random : new GameRandom(random.nextLong());
+            randoms = splitStreams(root);
+            random = randoms[RandomStream.SHUFFLE.ordinal()];
+        }
+        Collection<Astronaut> active = (Collection<Astronaut>) fields.get("activePlayers", null);
+        List<Astronaut> dead = (List<Astronaut>) fields.get("corpses", null);
+        Astronaut current = (Astronaut) fields.get("currentPlayer", null);
+        if (active == null || dead == null) {
+            throw new InvalidObjectException("players missing");
+        }
+        seatPlayers(current, active, dead);
+    }
+
+    /**
+     * Class JournalDeckListener records the cards going in and out of the decks
+     */
+    private class JournalDeckListener implements DeckListener {
+
+        @Override
+        public void cardAdded(Deck deck, Card card) {
+            journalRecord(EventType.DECK_ADD, deckId(deck), card.getTypeId());
+        }
+
+        @Override
+        public void cardRemoved(Deck deck, Card card, boolean fromTop) {
+            if (fromTop) {
+                journalRecord(EventType.DECK_DRAW, deckId(deck), card.getTypeId());
+            } else {
+                journalRecord(EventType.DECK_REMOVE, deckId(deck), card.getTypeId());
+            }
+        }
+
+        @Override
+        public void deckShuffled(Deck deck) {
+            journalRecord(EventType.DECK_SHUFFLE, deckId(deck), GameJournal.NONE);
         }
-        return drawnSpaceCard;
     }
 }
@@ -1,5 +1,7 @@
 package selfish;
 
+import selfish.io.*;
+
 /**
  * Class GameException custom exception
  * 
@@ -16,6 +18,6 @@ public class GameException extends Exception {
      */
     public GameException(String msg, Throwable e) {
         super(msg, e);
-        System.out.println("Game exception was thrown.");
+        GameLog.log(LogLevel.WARN, "game_exception", 0, GameJournal.NONE, msg);
     }
 }
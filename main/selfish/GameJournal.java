@@ -0,0 +1,377 @@
+package selfish;
+
+import java.io.*;
+import java.util.*;
+import selfish.deck.*;
+
+/**
+ * Class GameJournal an append-only record of every state change of a game
+ * 
+ * Each event is one int: its type, whether it was a root call (made by a
+ * caller of the engine) or a consequence of one, a seat or deck, and an
+ * argument such as a card type id. Root events are enough to rebuild the
+ * game from its seed; the other events record what happened (cards dealt
+ * and drawn, oxygen split, decks merged, players killed) and are checked
+ * when the journal is replayed.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class GameJournal {
+    /** Value of a seat or argument that is not used */
+    public static final int NONE = -1;
+    private static final int MAGIC = 0x534A524E;
+    private static final short VERSION = 1;
+    private static final int TYPE_BITS = 5;
+    private static final int SEAT_BITS = 4;
+    private static final int ARG_BITS = 32 - TYPE_BITS - 1 - SEAT_BITS;
+    private static final int SEAT_MASK = (1 << SEAT_BITS) - 1;
+    private static final int ARG_MASK = (1 << ARG_BITS) - 1;
+    private static final int ROOT_BIT = 1 << TYPE_BITS;
+    private static final int SEAT_SHIFT = TYPE_BITS + 1;
+    private static final int ARG_SHIFT = SEAT_SHIFT + SEAT_BITS;
+    private long seed;
+    private String actionCardsPath;
+    private String spaceCardsPath;
+    private List<String> names = new ArrayList<String>();
+    private int[] events = new int[1024];
+    private int size;
+
+    /**
+     * GameJournal constructor
+     * 
+     * @param seed            seed of the game
+     * @param actionCardsPath path to the action cards text file
+     * @param spaceCardsPath  path to the space cards text file
+     */
+    GameJournal(long seed, String actionCardsPath, String spaceCardsPath) {
+        this.seed = seed;
+        this.actionCardsPath = actionCardsPath;
+        this.spaceCardsPath = spaceCardsPath;
+    }
+
+    /**
+     * appends an event
+     * 
+     * @param type type of event
+     * @param seat seat or deck, or NONE
+     * @param arg  argument, or NONE
+     * @param root true if the event is a root call
+     */
+    void append(EventType type, int seat, int arg, boolean root) {
+        if (size == events.length) {
+            events = Arrays.copyOf(events, size * 2);
+        }
+        int event = type.ordinal() | ((seat & SEAT_MASK) << SEAT_SHIFT) | ((arg & ARG_MASK) << ARG_SHIFT);
+        if (root) {
+            event |= ROOT_BIT;
+        }
+        events[size++] = event;
+    }
+
+    /**
+     * records the name of the player in the next seat
+     * 
+     * @param name player name
+     */
+    void addName(String name) {
+        names.add(name);
+    }
+
+    /**
+     * returns the number of events
+     * 
+     * @return number of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * returns the seed of the game
+     * 
+     * @return seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * returns the type of an event
+     * 
+     * @param index index of the event
+     * @return type
+     */
+    public EventType getType(int index) {
+        return EventType.fromCode(events[index] & (ROOT_BIT - 1));
+    }
+
+    /**
+     * returns true if the event was a root call
+     * 
+     * @param index index of the event
+     * @return boolean
+     */
+    public boolean isRoot(int index) {
+        return (events[index] & ROOT_BIT) != 0;
+    }
+
+    /**
+     * returns the seat or deck of an event; decks are numbered game deck,
+     * game discard, space deck, space discard
+     * 
+     * @param index index of the event
+     * @return seat or deck, or NONE
+     */
+    public int getSeat(int index) {
+        int seat = (events[index] >>> SEAT_SHIFT) & SEAT_MASK;
+        return seat == SEAT_MASK ? NONE : seat;
+    }
+
+    /**
+     * returns the argument of an event
+     * 
+     * @param index index of the event
+     * @return argument, or NONE
+     */
+    public int getArg(int index) {
+        int arg = events[index] >>> ARG_SHIFT;
+        return arg == ARG_MASK ? NONE : arg;
+    }
+
+    /**
+     * returns a readable line for an event
+     * 
+     * @param index index of the event
+     * @return description
+     */
+    public String describe(int index) {
+        EventType type = getType(index);
+        String line = (isRoot(index) ? "" : "  ") + type;
+        int seat = getSeat(index);
+        int arg = getArg(index);
+        if (type == EventType.ADD_PLAYER) {
+            return line + " " + names.get(seat);
+        }
+        if (seat != NONE) {
+            line = line + " " + seat;
+        }
+        boolean argIsCard = type == EventType.HACK || type == EventType.ADD_TO_HAND
+                || type == EventType.ADD_TO_TRACK || type.name().startsWith("DECK_");
+        if (arg != NONE) {
+            line = line + " " + (argIsCard ? CardType.fromId(arg).toString() : Integer.toString(arg));
+        }
+        return line;
+    }
+
+    /**
+     * writes the journal to a file
+     * 
+     * @param path name of the journal file
+     * @throws GameException file could not be written
+     */
+    public void save(String path) throws GameException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(seed);
+            out.writeUTF(actionCardsPath);
+            out.writeUTF(spaceCardsPath);
+            out.writeByte(names.size());
+            for (String name : names) {
+                out.writeUTF(name);
+            }
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeInt(events[i]);
+            }
+        } catch (IOException e) {
+            throw new GameException("IOException", e);
+        }
+    }
+
+    /**
+     * reads a journal file
+     * 
+     * @param path name of the journal file
+     * @return journal
+     * @throws GameException file not found or not a journal
+     */
+    public static GameJournal load(String path) throws GameException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                throw new GameException("Not a journal file", null);
+            }
+            GameJournal journal = new GameJournal(in.readLong(), in.readUTF(), in.readUTF());
+            int numberOfNames = in.readUnsignedByte();
+            for (int i = 0; i < numberOfNames; i++) {
+                journal.addName(in.readUTF());
+            }
+            journal.size = in.readInt();
+            journal.events = new int[Math.max(journal.size, 16)];
+            for (int i = 0; i < journal.size; i++) {
+                journal.events[i] = in.readInt();
+            }
+            return journal;
+        } catch (FileNotFoundException e) {
+            throw new GameException("FileNotFoundError", e);
+        } catch (IOException e) {
+            throw new GameException("IOException", e);
+        }
+    }
+
+    /**
+     * rebuilds the game by replaying the root events on a new game with the
+     * same seed, and checks that every other event happened again
+     * 
+     * @return game in the state it was in after the last event
+     * @throws GameException card files not found, or the replay did not
+     *                       produce the same events
+     */
+    public GameEngine replay() throws GameException {
+        GameEngine game = new GameEngine(seed, actionCardsPath, spaceCardsPath);
+        game.setHeadless(true);
+        GameJournal replayed = game.startJournal();
+        List<Astronaut> seats = new ArrayList<Astronaut>();
+        List<Card> looseCards = new ArrayList<Card>();
+        Map<CardType, Card> catalog = new EnumMap<CardType, Card>(CardType.class);
+        Deck[] piles = { game.getGameDeck(), game.getGameDiscard(), game.getSpaceDeck(), game.getSpaceDiscard() };
+        for (Deck pile : piles) {
+            for (Card card : pile.getCards()) {
+                if (card.getType() != null) {
+                    catalog.putIfAbsent(card.getType(), card);
+                }
+            }
+        }
+        int checked = 0;
+        for (int i = 0; i < size; i++) {
+            if (!isRoot(i)) {
+                continue;
+            }
+            try {
+                replayRoot(game, i, seats, looseCards, catalog);
+            } catch (RuntimeException e) {
+                // the original call failed the same way, which the comparison below checks
+            }
+            boolean diverged = replayed.size > size
+                    || !Arrays.equals(events, checked, replayed.size, replayed.events, checked, replayed.size);
+            if (diverged) {
+                throw new GameException("Replay diverged from the journal after event " + i, null);
+            }
+            checked = replayed.size;
+        }
+        if (replayed.size != size) {
+            throw new GameException("Replay diverged from the journal at the end", null);
+        }
+        return game;
+    }
+
+    /**
+     * replays one root event
+     * 
+     * @param game       game being rebuilt
+     * @param index      index of the event
+     * @param seats      players by seat
+     * @param looseCards cards returned by earlier calls and not yet placed
+     * @param catalog    a card of each type dealt in the game
+     */
+    private void replayRoot(GameEngine game, int index, List<Astronaut> seats, List<Card> looseCards,
+            Map<CardType, Card> catalog) {
+        int seat = getSeat(index);
+        int arg = getArg(index);
+        Astronaut astronaut = seat == NONE || seat >= seats.size() ? null : seats.get(seat);
+        Deck[] decks = { game.getGameDeck(), game.getGameDiscard(), game.getSpaceDeck(), game.getSpaceDiscard() };
+        switch (getType(index)) {
+            case ADD_PLAYER:
+                game.addPlayer(names.get(seat));
+                seats.add(game.getPlayer(game.getFullPlayerCount() - 1));
+                break;
+            case START_GAME:
+                game.startGame();
+                break;
+            case START_TURN:
+                game.startTurn();
+                break;
+            case END_TURN:
+                game.endTurn();
+                break;
+            case TRAVEL:
+                game.travel(astronaut);
+                break;
+            case BREATHE:
+                astronaut.breathe();
+                break;
+            case SPLIT_OXYGEN:
+                Oxygen oxygenTwo = (Oxygen) takeLooseCard(looseCards, CardType.OXYGEN_2, catalog);
+                Oxygen[] pairOfOxygenOne = game.splitOxygen(oxygenTwo);
+                looseCards.addAll(Arrays.asList(pairOfOxygenOne));
+                break;
+            case MERGE_DECKS:
+                game.mergeDecks(decks[seat], decks[arg]);
+                break;
+            case KILL_PLAYER:
+                game.killPlayer(astronaut);
+                break;
+            case HACK:
+                // a name that is not a card type was journaled as NONE and failed; null fails the same way
+                String cardName = arg == NONE ? null : CardType.fromId(arg).toString();
+                looseCards.add(astronaut.hack(cardName));
+                break;
+            case LASER_BLAST:
+                looseCards.add(astronaut.laserBlast());
+                break;
+            case SIPHON:
+                looseCards.add(astronaut.siphon());
+                break;
+            case STEAL:
+                looseCards.add(astronaut.steal());
+                break;
+            case SWAP_TRACK:
+                astronaut.swapTrack(seats.get(arg));
+                break;
+            case ADD_TO_HAND:
+                astronaut.addToHand(takeLooseCard(looseCards, CardType.fromId(arg), catalog));
+                break;
+            case ADD_TO_TRACK:
+                astronaut.addToTrack(takeLooseCard(looseCards, CardType.fromId(arg), catalog));
+                break;
+            case DECK_ADD:
+                decks[seat].add(takeLooseCard(looseCards, CardType.fromId(arg), catalog));
+                break;
+            case DECK_DRAW:
+                looseCards.add(decks[seat].draw());
+                break;
+            case DECK_REMOVE:
+                looseCards.add(decks[seat].removeFirst(CardType.fromId(arg)));
+                break;
+            case DECK_SHUFFLE:
+                decks[seat].shuffle(game.getRandom());
+                break;
+            default:
+                throw new IllegalStateException("Cannot replay " + describe(index));
+        }
+    }
+
+    /**
+     * takes the most recent loose card of the passed type or, if the caller
+     * put in a card the journal never saw, the game's own card of that type
+     * 
+     * @param looseCards cards returned by earlier calls and not yet placed
+     * @param type       type of card wanted
+     * @param catalog    a card of each type dealt in the game
+     * @return card
+     */
+    private static Card takeLooseCard(List<Card> looseCards, CardType type, Map<CardType, Card> catalog) {
+        for (int i = looseCards.size() - 1; i >= 0; i--) {
+            if (looseCards.get(i) != null && looseCards.get(i).getType() == type) {
+                return looseCards.remove(i);
+            }
+        }
+        if (type.isOxygen()) {
+            return Oxygen.of(type.oxygenValue());
+        }
+        Card known = catalog.get(type);
+        return known != null ? known : Card.of(type.toString(), "");
+    }
+}
@@ -0,0 +1,19 @@
+package selfish;
+
+/**
+ * Interface GameListener is told when a game is over
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public interface GameListener {
+
+    /**
+     * called on the game's thread as soon as a started game is over, from
+     * inside the call that ended it
+     * 
+     * @param game   game
+     * @param winner winner, or null if every player ran out of oxygen
+     */
+    void gameOver(GameEngine game, Astronaut winner);
+}
@@ -0,0 +1,188 @@
+package selfish;
+
+import java.io.*;
+import java.util.Random;
+
+/**
+ * Class GameRandom the random number generator of a game
+ * 
+ * A xoshiro256** generator seeded through SplitMix64. It extends
+ * java.util.Random so it can be passed anywhere a Random is expected, but it
+ * keeps its own state in four plain longs instead of an atomic one, so no
+ * call pays for a compare-and-set. The state can be read and restored, so
+ * saved games continue where they stopped, and split gives a new generator
+ * whose numbers are independent of this one's, for handing out separate
+ * streams or seeding parallel work. It is not thread safe; a game is played
+ * by one thread at a time.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class GameRandom extends Random {
+    private static final long serialVersionUID = 422L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    /**
+     * creates a generator with a seed from the clock
+     */
+    public GameRandom() {
+        this(System.nanoTime() ^ 0x2545F4914F6CDD1DL);
+    }
+
+    /**
+     * GameRandom constructor
+     * 
+     * @param seed seed
+     */
+    public GameRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * sets the seed
+     * 
+     * @param seed seed
+     */
+    @Override
+    public synchronized void setSeed(long seed) {
+        long x = seed;
+        s0 = mix64(x += GOLDEN_GAMMA);
+        s1 = mix64(x += GOLDEN_GAMMA);
+        s2 = mix64(x += GOLDEN_GAMMA);
+        s3 = mix64(x + GOLDEN_GAMMA);
+    }
+
+    /**
+     * returns a new generator seeded from this one; the two produce
+     * independent numbers from then on
+     * 
+     * @return new generator
+     */
+    public GameRandom split() {
+        return new GameRandom(mix64(nextLong()));
+    }
+
+    /**
+     * returns a generator in the same state as this one, which produces the
+     * same numbers
+     * 
+     * @return copy
+     */
+    public GameRandom copy() {
+        GameRandom copy = new GameRandom(0);
+        copy.setState(getState());
+        return copy;
+    }
+
+    /**
+     * returns the internal state
+     * 
+     * @return four longs
+     */
+    public long[] getState() {
+        return new long[] { s0, s1, s2, s3 };
+    }
+
+    /**
+     * restores a state returned by getState()
+     * 
+     * @param state four longs, not all zero
+     */
+    public void setState(long[] state) {
+        if (state.length != 4 || (state[0] | state[1] | state[2] | state[3]) == 0) {
+            throw new IllegalArgumentException();
+        }
+        s0 = state[0];
+        s1 = state[1];
+        s2 = state[2];
+        s3 = state[3];
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    /**
+     * returns a number from 0 (inclusive) to bound (exclusive), without the
+     * bias of taking a remainder
+     * 
+     * @param bound upper bound
+     * @return number
+     */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        long product = (nextLong() >>> 32) * bound;
+        int low = (int) product;
+        if (Integer.compareUnsigned(low, bound) < 0) {
+            int threshold = Integer.remainderUnsigned(-bound, bound);
+            while (Integer.compareUnsigned(low, threshold) < 0) {
+                product = (nextLong() >>> 32) * bound;
+                low = (int) product;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    /**
+     * the SplitMix64 output function
+     * 
+     * @param z number to mix
+     * @return mixed number
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * reseeds a generator saved before its state was four longs, whose old
+     * state cannot be carried over
+     * 
+     * @param in stream to read from
+     * @throws IOException            read error
+     * @throws ClassNotFoundException class not found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if ((s0 | s1 | s2 | s3) == 0) {
+            setSeed(0);
+        }
+    }
+}
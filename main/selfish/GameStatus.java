@@ -0,0 +1,102 @@
+package selfish;
+
+/**
+ * Class GameStatus which seats are at the ship and which are out of oxygen
+ * 
+ * The engine updates it whenever a player's track or oxygen changes, so
+ * whether the game is over and who won are read from a field instead of
+ * recomputed from every player. Each set of seats is a bitmask with bit n for
+ * seat n.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class GameStatus {
+    private int seats;
+    private int seatsAtShip;
+    private int seatsOutOfOxygen;
+    private boolean over;
+
+    /**
+     * an empty constructor
+     */
+    GameStatus() {
+    }
+
+    /**
+     * records the position and oxygen of a player
+     * 
+     * @param seat         seat of the player
+     * @param atShip       true if the player has reached the ship
+     * @param outOfOxygen  true if the player has no oxygen left
+     */
+    void update(int seat, boolean atShip, boolean outOfOxygen) {
+        int bit = 1 << seat;
+        seats |= bit;
+        seatsAtShip = atShip ? seatsAtShip | bit : seatsAtShip & ~bit;
+        seatsOutOfOxygen = outOfOxygen ? seatsOutOfOxygen | bit : seatsOutOfOxygen & ~bit;
+        over = getWinningSeats() != 0 || (seats != 0 && seatsOutOfOxygen == seats);
+    }
+
+    /**
+     * returns a status with the same seats, for a forked game
+     * 
+     * @return copy
+     */
+    GameStatus copy() {
+        GameStatus copy = new GameStatus();
+        copy.seats = seats;
+        copy.seatsAtShip = seatsAtShip;
+        copy.seatsOutOfOxygen = seatsOutOfOxygen;
+        copy.over = over;
+        return copy;
+    }
+
+    /**
+     * forgets every player
+     */
+    void clear() {
+        seats = 0;
+        seatsAtShip = 0;
+        seatsOutOfOxygen = 0;
+        over = false;
+    }
+
+    /**
+     * returns true if a player with oxygen left has reached the ship, or every
+     * player is out of oxygen
+     * 
+     * @return boolean
+     */
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * returns the seats of the players who have reached the ship with oxygen
+     * left
+     * 
+     * @return bitmask of seats
+     */
+    public int getWinningSeats() {
+        return seatsAtShip & ~seatsOutOfOxygen;
+    }
+
+    /**
+     * returns the seats of the players who have reached the ship
+     * 
+     * @return bitmask of seats
+     */
+    public int getSeatsAtShip() {
+        return seatsAtShip;
+    }
+
+    /**
+     * returns the seats of the players who have no oxygen left
+     * 
+     * @return bitmask of seats
+     */
+    public int getSeatsOutOfOxygen() {
+        return seatsOutOfOxygen;
+    }
+}
@@ -0,0 +1,136 @@
+package selfish;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * Class LatencyHistogram counts durations in buckets that double in width
+ * 
+ * Bucket n holds the durations whose highest set bit is bit n - 1, so a
+ * recorded duration costs a leading-zero count and two LongAdder increments,
+ * and any thread can record or read at any time without locking. Percentiles
+ * are only known to within a factor of two, and are reported as the upper
+ * end of their bucket.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 64;
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * an empty constructor
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * records a duration
+     * 
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * returns the number of durations recorded
+     * 
+     * @return count
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * returns the sum of the durations recorded
+     * 
+     * @return nanoseconds
+     */
+    public long getTotalNanos() {
+        return total.sum();
+    }
+
+    /**
+     * returns the longest duration recorded
+     * 
+     * @return nanoseconds
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * returns the mean duration
+     * 
+     * @return nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) getTotalNanos() / count;
+    }
+
+    /**
+     * returns the duration that the passed fraction of the recorded durations
+     * do not exceed, rounded up to the end of its bucket
+     * 
+     * @param fraction fraction between 0 and 1, like 0.99
+     * @return nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double fraction) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(upperBound(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * forgets every recorded duration; durations recorded at the same time
+     * may be partly kept
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        total.reset();
+        max.reset();
+    }
+
+    /**
+     * returns the longest duration that falls in a bucket
+     * 
+     * @param bucket bucket
+     * @return nanoseconds
+     */
+    private static long upperBound(int bucket) {
+        return (1L << bucket) - 1;
+    }
+}
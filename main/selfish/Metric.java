@@ -0,0 +1,47 @@
+package selfish;
+
+/**
+ * Enum Metric the engine operations counted by EngineMetrics; the timed ones
+ * also keep a histogram of how long they took
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public enum Metric {
+    /** GameEngine.startTurn to endTurn */
+    TURN(true),
+    /** GameEngine.travel, one space card drawn */
+    TRAVEL(false),
+    /** GameEngine.splitOxygen, or a split while breathing */
+    SPLIT_OXYGEN(false),
+    /** GameEngine.mergeDecks */
+    MERGE_DECKS(true),
+    /** GameEngine.killPlayer of a living player */
+    DEATH(false),
+    /** GameEngine.saveState or saveGame */
+    SAVE(true),
+    /** GameEngine.loadState or loadGame */
+    LOAD(true);
+
+    /** Number of metrics */
+    public static final int COUNT = values().length;
+    private final boolean timed;
+
+    /**
+     * Metric constructor
+     * 
+     * @param timed true if the time taken is recorded
+     */
+    Metric(boolean timed) {
+        this.timed = timed;
+    }
+
+    /**
+     * returns true if the time taken is recorded
+     * 
+     * @return boolean
+     */
+    public boolean isTimed() {
+        return timed;
+    }
+}
@@ -0,0 +1,456 @@
+package selfish;
+
+import java.util.*;
+import selfish.deck.*;
+
+/**
+ * Class PackedPosition a game position packed into two longs and an array of
+ * card type ids, for keeping very many positions in memory
+ * 
+ * The two longs hold what every player can see, with the players in the order
+ * of getAllPlayers, so the first player is the one to move:
+ * 
+ * <pre>
+ * low   bits  0-2   number of players, up to 5
+ *       bit   3     the first player is the current player, in their turn
+ *       bit   4     game has started
+ *       bits  5-9   one flag per player, set if not among the dead
+ *       bits 10-59  per player: 6 bits of Oxygen(1) cards, 4 of Oxygen(2)
+ *       bits 60-63  unused, always 0
+ * high  bits  0-14  per player: 3 bits of cards on the track
+ *       bits 15-39  per player: 5 bits of action cards in hand
+ *       bits 40-63  per action type, in the order of CardType.actions():
+ *                   3 bits of cards of that type held by the first player
+ * </pre>
+ * 
+ * The two longs alone are a key for a table of positions as the player to
+ * move sees them. The card array holds the rest, the hidden part: the game
+ * deck, game discard, space deck and space discard, each a two byte count
+ * followed by one type id per card from the bottom up; then every track from
+ * the bottom up; then the action cards of every player but the first, sorted
+ * by type id. The longs and the array together are the whole position.
+ * 
+ * Only cards of a known CardType can be packed, and a game whose counts do
+ * not fit the fields above, like six players or eight Shields in one hand,
+ * cannot be packed at all.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class PackedPosition {
+    /** Most players a packed position has room for */
+    public static final int MAX_PLAYERS = 5;
+    private static final List<CardType> ACTIONS = CardType.actions();
+    private static final int OXYGEN_ONE_BITS = 6;
+    private static final int OXYGEN_TWO_BITS = 4;
+    private static final int TRACK_BITS = 3;
+    private static final int HAND_BITS = 5;
+    private static final int ACTION_BITS = 3;
+    private static final int ALIVE_SHIFT = 5;
+    private static final int OXYGEN_SHIFT = 10;
+    private static final int OXYGEN_WIDTH = OXYGEN_ONE_BITS + OXYGEN_TWO_BITS;
+    private static final int HAND_SHIFT = TRACK_BITS * MAX_PLAYERS;
+    private static final int ACTION_SHIFT = HAND_SHIFT + HAND_BITS * MAX_PLAYERS;
+    private static final int PILES = 4;
+    private final long low;
+    private final long high;
+    private final byte[] cards;
+
+    /**
+     * PackedPosition constructor
+     * 
+     * @param low   first word
+     * @param high  second word
+     * @param cards card type ids, not copied
+     */
+    private PackedPosition(long low, long high, byte[] cards) {
+        this.low = low;
+        this.high = high;
+        this.cards = cards;
+    }
+
+    /**
+     * returns a position read back from its two words and card array, as
+     * stored by a table
+     * 
+     * @param low   first word, from getLow()
+     * @param high  second word, from getHigh()
+     * @param cards card type ids, from getCards()
+     * @return position
+     */
+    public static PackedPosition of(long low, long high, byte[] cards) {
+        return new PackedPosition(low, high, cards.clone());
+    }
+
+    /**
+     * packs the position of a game
+     * 
+     * @param game game
+     * @return position
+     * @throws IllegalArgumentException the game does not fit a packed position
+     */
+    public static PackedPosition encode(GameEngine game) {
+        List<Astronaut> players = game.getAllPlayers();
+        int count = players.size();
+        check(count, MAX_PLAYERS, "players");
+        int alive = count - game.getCorpses().size();
+        boolean firstIsCurrent = game.getCurrentPlayer() != null;
+        long low = count;
+        if (firstIsCurrent) {
+            low |= 1L << 3;
+        }
+        if (game.hasStarted()) {
+            low |= 1L << 4;
+        }
+        low |= (long) ((1 << alive) - 1) << ALIVE_SHIFT;
+        long high = 0;
+        int cardCount = 2 * PILES;
+        for (int i = 0; i < count; i++) {
+            Astronaut player = players.get(i);
+            int oxygenOne = check(player.hasCard(CardType.OXYGEN_1), (1 << OXYGEN_ONE_BITS) - 1, "Oxygen(1) cards");
+            int oxygenTwo = check(player.hasCard(CardType.OXYGEN_2), (1 << OXYGEN_TWO_BITS) - 1, "Oxygen(2) cards");
+            int trackSize = check(player.getTrack().size(), (1 << TRACK_BITS) - 1, "track cards");
+            int actions = check(player.getActions().size(), (1 << HAND_BITS) - 1, "action cards");
+            low |= (long) (oxygenOne | oxygenTwo << OXYGEN_ONE_BITS) << (OXYGEN_SHIFT + i * OXYGEN_WIDTH);
+            high |= (long) trackSize << (i * TRACK_BITS);
+            high |= (long) actions << (HAND_SHIFT + i * HAND_BITS);
+            cardCount += trackSize + (i == 0 ? 0 : actions);
+        }
+        if (count > 0) {
+            Astronaut first = players.get(0);
+            for (int t = 0; t < ACTIONS.size(); t++) {
+                int held = check(first.hasCard(ACTIONS.get(t)), (1 << ACTION_BITS) - 1, ACTIONS.get(t) + " cards");
+                high |= (long) held << (ACTION_SHIFT + t * ACTION_BITS);
+            }
+        }
+
+        Deck[] piles = { game.getGameDeck(), game.getGameDiscard(), game.getSpaceDeck(), game.getSpaceDiscard() };
+        for (Deck pile : piles) {
+            cardCount += check(pile.size(), 0xFFFF, "cards in a deck");
+        }
+        byte[] cards = new byte[cardCount];
+        int next = 0;
+        for (Deck pile : piles) {
+            cards[next++] = (byte) (pile.size() >>> 8);
+            cards[next++] = (byte) pile.size();
+            next = putIds(pile.getCards(), cards, next);
+        }
+        for (Astronaut player : players) {
+            next = putIds(player.getTrack(), cards, next);
+        }
+        for (int i = 1; i < count; i++) {
+            int start = next;
+            next = putIds(players.get(i).getActions(), cards, next);
+            Arrays.sort(cards, start, next);
+        }
+        return new PackedPosition(low, high, cards);
+    }
+
+    /**
+     * builds a game in this position; cards are made like the cards of the
+     * template game, the players are named and seated like the template's
+     * players in the same place, and every random stream continues from the
+     * template's
+     * 
+     * @param template game to take cards, names and random streams from
+     * @return game
+     */
+    public GameEngine decode(GameEngine template) {
+        Map<CardType, Card> known = new EnumMap<CardType, Card>(CardType.class);
+        Deck[] templatePiles = { template.getGameDeck(), template.getGameDiscard(), template.getSpaceDeck(),
+                template.getSpaceDiscard() };
+        for (Deck pile : templatePiles) {
+            learn(pile.getCards(), known);
+        }
+        List<Astronaut> templatePlayers = template.getAllPlayers();
+        for (Astronaut player : templatePlayers) {
+            learn(player.getHand(), known);
+            learn(player.getTrack(), known);
+        }
+
+        GameEngine game = new GameEngine();
+        GameDeck gameDeck = new GameDeck();
+        GameDeck gameDiscard = new GameDeck();
+        SpaceDeck spaceDeck = new SpaceDeck();
+        SpaceDeck spaceDiscard = new SpaceDeck();
+        int next = 0;
+        for (Deck pile : new Deck[] { gameDeck, gameDiscard, spaceDeck, spaceDiscard }) {
+            int size = (cards[next] & 0xFF) << 8 | cards[next + 1] & 0xFF;
+            next += 2;
+            for (int i = 0; i < size; i++) {
+                pile.add(card(cards[next++], known));
+            }
+        }
+        int count = getPlayerCount();
+        Astronaut[] players = new Astronaut[count];
+        int[] seats = templatePlayers.size() == count ? new int[count] : null;
+        for (int i = 0; i < count; i++) {
+            String name = i < templatePlayers.size() ? templatePlayers.get(i).getName() : "Player " + (i + 1);
+            players[i] = new Astronaut(name, game);
+            if (seats != null) {
+                seats[i] = templatePlayers.get(i).getSeat();
+            }
+            for (int j = 0; j < getOxygenOne(i); j++) {
+                players[i].addToHand(Oxygen.ONE);
+            }
+            for (int j = 0; j < getOxygenTwo(i); j++) {
+                players[i].addToHand(Oxygen.TWO);
+            }
+            for (int j = 0; j < getTrackSize(i); j++) {
+                players[i].addToTrack(card(cards[next++], known));
+            }
+        }
+        if (count > 0) {
+            for (CardType type : ACTIONS) {
+                for (int j = 0; j < getActionCount(type); j++) {
+                    players[0].addToHand(known.computeIfAbsent(type, t -> Card.of(t.toString(), "")));
+                }
+            }
+        }
+        for (int i = 1; i < count; i++) {
+            for (int j = 0; j < getActionCount(i); j++) {
+                players[i].addToHand(card(cards[next++], known));
+            }
+        }
+
+        Astronaut current = hasCurrentPlayer() ? players[0] : null;
+        List<Astronaut> active = new ArrayList<Astronaut>();
+        List<Astronaut> corpses = new ArrayList<Astronaut>();
+        for (int i = current == null ? 0 : 1; i < count; i++) {
+            if (isAlive(i)) {
+                active.add(players[i]);
+            } else {
+                corpses.add(players[i]);
+            }
+        }
+        GameRandom[] randoms = new GameRandom[RandomStream.COUNT];
+        for (RandomStream stream : RandomStream.values()) {
+            randoms[stream.ordinal()] = template.getRandom(stream).copy();
+        }
+        game.restore(hasStarted(), randoms, gameDeck, gameDiscard, spaceDeck, spaceDiscard, current, active, corpses,
+                seats);
+        return game;
+    }
+
+    /**
+     * returns the first word
+     * 
+     * @return word
+     */
+    public long getLow() {
+        return low;
+    }
+
+    /**
+     * returns the second word
+     * 
+     * @return word
+     */
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * returns a copy of the card type ids
+     * 
+     * @return card type ids
+     */
+    public byte[] getCards() {
+        return cards.clone();
+    }
+
+    /**
+     * returns the number of players
+     * 
+     * @return number of players
+     */
+    public int getPlayerCount() {
+        return (int) (low & 7);
+    }
+
+    /**
+     * returns true if the first player is in their turn
+     * 
+     * @return boolean
+     */
+    public boolean hasCurrentPlayer() {
+        return (low & 1L << 3) != 0;
+    }
+
+    /**
+     * returns true if the game has started
+     * 
+     * @return boolean
+     */
+    public boolean hasStarted() {
+        return (low & 1L << 4) != 0;
+    }
+
+    /**
+     * returns true if a player is alive
+     * 
+     * @param player player, numbered from 0 in the order of getAllPlayers
+     * @return boolean
+     */
+    public boolean isAlive(int player) {
+        return (low >>> (ALIVE_SHIFT + player) & 1) != 0;
+    }
+
+    /**
+     * returns the number of Oxygen(1) cards a player holds
+     * 
+     * @param player player, numbered from 0 in the order of getAllPlayers
+     * @return number of cards
+     */
+    public int getOxygenOne(int player) {
+        return (int) (low >>> (OXYGEN_SHIFT + player * OXYGEN_WIDTH)) & ((1 << OXYGEN_ONE_BITS) - 1);
+    }
+
+    /**
+     * returns the number of Oxygen(2) cards a player holds
+     * 
+     * @param player player, numbered from 0 in the order of getAllPlayers
+     * @return number of cards
+     */
+    public int getOxygenTwo(int player) {
+        return (int) (low >>> (OXYGEN_SHIFT + player * OXYGEN_WIDTH + OXYGEN_ONE_BITS)) & ((1 << OXYGEN_TWO_BITS) - 1);
+    }
+
+    /**
+     * returns the oxygen a player has left
+     * 
+     * @param player player, numbered from 0 in the order of getAllPlayers
+     * @return oxygen
+     */
+    public int getOxygen(int player) {
+        return getOxygenOne(player) + 2 * getOxygenTwo(player);
+    }
+
+    /**
+     * returns the number of cards on a player's track
+     * 
+     * @param player player, numbered from 0 in the order of getAllPlayers
+     * @return number of cards
+     */
+    public int getTrackSize(int player) {
+        return (int) (high >>> (player * TRACK_BITS)) & ((1 << TRACK_BITS) - 1);
+    }
+
+    /**
+     * returns a player's distance from the ship
+     * 
+     * @param player player, numbered from 0 in the order of getAllPlayers
+     * @return distance
+     */
+    public int getDistanceFromShip(int player) {
+        return 6 - getTrackSize(player);
+    }
+
+    /**
+     * returns the number of action cards a player holds
+     * 
+     * @param player player, numbered from 0 in the order of getAllPlayers
+     * @return number of cards
+     */
+    public int getActionCount(int player) {
+        return (int) (high >>> (HAND_SHIFT + player * HAND_BITS)) & ((1 << HAND_BITS) - 1);
+    }
+
+    /**
+     * returns the number of action cards of a type the first player holds
+     * 
+     * @param type action type
+     * @return number of cards
+     * @throws IllegalArgumentException not an action type
+     */
+    public int getActionCount(CardType type) {
+        int index = ACTIONS.indexOf(type);
+        if (index < 0) {
+            throw new IllegalArgumentException(type + " is not an action");
+        }
+        return (int) (high >>> (ACTION_SHIFT + index * ACTION_BITS)) & ((1 << ACTION_BITS) - 1);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof PackedPosition)) {
+            return false;
+        }
+        PackedPosition position = (PackedPosition) other;
+        return low == position.low && high == position.high && Arrays.equals(cards, position.cards);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) Zobrist.mix(Zobrist.mix(low) ^ high ^ Arrays.hashCode(cards));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x+%d", high, low, cards.length);
+    }
+
+    /**
+     * returns a count if it fits in its field
+     * 
+     * @param value count
+     * @param max   largest count the field holds
+     * @param what  what is counted, for the message
+     * @return count
+     * @throws IllegalArgumentException the count does not fit
+     */
+    private static int check(int value, int max, String what) {
+        if (value > max) {
+            throw new IllegalArgumentException("Too many " + what + " to pack: " + value + " > " + max);
+        }
+        return value;
+    }
+
+    /**
+     * writes the type id of every card into the array
+     * 
+     * @param pile  cards
+     * @param cards array to write to
+     * @param next  index to write the first id at
+     * @return index after the last id
+     * @throws IllegalArgumentException a card of no known type
+     */
+    private static int putIds(Collection<Card> pile, byte[] cards, int next) {
+        for (Card card : pile) {
+            if (card.getType() == null) {
+                throw new IllegalArgumentException("Cannot pack unknown card " + card);
+            }
+            cards[next++] = (byte) card.getType().getId();
+        }
+        return next;
+    }
+
+    /**
+     * remembers one card of every type among the passed cards
+     * 
+     * @param pile  cards
+     * @param known cards by type
+     */
+    private static void learn(Collection<Card> pile, Map<CardType, Card> known) {
+        for (Card card : pile) {
+            if (card.getType() != null) {
+                known.putIfAbsent(card.getType(), card);
+            }
+        }
+    }
+
+    /**
+     * returns a card of the type with the passed id
+     * 
+     * @param id    type id
+     * @param known cards by type
+     * @return card
+     */
+    private static Card card(byte id, Map<CardType, Card> known) {
+        CardType type = CardType.fromId(id);
+        if (type.isOxygen()) {
+            return Oxygen.of(type.oxygenValue());
+        }
+        return known.computeIfAbsent(type, t -> Card.of(t.toString(), ""));
+    }
+}
@@ -0,0 +1,23 @@
+package selfish;
+
+/**
+ * Enum RandomStream the independent random streams of a game
+ * 
+ * Each stream is its own GameRandom split from the game's seed, so using one
+ * never changes the numbers another produces: a steal does not change the
+ * next shuffle, and computer players do not change the deal.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public enum RandomStream {
+    /** Shuffling the decks */
+    SHUFFLE,
+    /** Picking the card taken by a steal */
+    STEAL,
+    /** Decisions of computer players */
+    PLAYERS;
+
+    /** Number of streams */
+    public static final int COUNT = values().length;
+}
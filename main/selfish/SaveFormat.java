@@ -0,0 +1,323 @@
+package selfish;
+
+import java.io.*;
+import java.util.*;
+import selfish.deck.*;
+
+/**
+ * Class SaveFormat the compact binary save file
+ * 
+ * <pre>
+ * int     magic "SSAV"
+ * short   version
+ * boolean game has started
+ * byte    number of random streams, then per stream:
+ *           four longs of generator state
+ *           (version 1: a single long, the state of one java.util.Random)
+ * byte    number of card kinds, then per kind:
+ *           byte type id (-1 if the name is not in the catalog),
+ *           [UTF name if not in the catalog,] UTF description
+ * decks   game deck, game discard, space deck, space discard
+ * players current player (byte 0 or 1, then the player),
+ *         waiting players (byte count, then each player),
+ *         dead players (byte count, then each player)
+ * </pre>
+ * 
+ * A deck is a short count followed by one byte per card, which indexes the
+ * card kinds; decks are written from the bottom up. A player is a UTF name,
+ * a byte seat (from version 3), then their hand and their track, written
+ * like decks.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+class SaveFormat {
+    /** First four bytes of every binary save, "SSAV" */
+    static final int MAGIC = 0x53534156;
+    /** Current version of the format */
+    static final short VERSION = 3;
+    private static final int MAX_KINDS = 255;
+    private Map<CardKey, Integer> kindIndex = new HashMap<CardKey, Integer>();
+    private List<CardKey> kinds = new ArrayList<CardKey>();
+
+    /**
+     * an empty constructor
+     */
+    private SaveFormat() {
+    }
+
+    /**
+     * writes the game
+     * 
+     * @param game game to save
+     * @param out  stream to write to
+     * @throws IOException stream error
+     */
+    static void write(GameEngine game, DataOutputStream out) throws IOException {
+        SaveFormat format = new SaveFormat();
+        List<Astronaut> current = new ArrayList<Astronaut>();
+        if (game.getCurrentPlayer() != null) {
+            current.add(game.getCurrentPlayer());
+        }
+        List<Astronaut> active = new ArrayList<Astronaut>(game.getActivePlayers());
+        List<Astronaut> corpses = new ArrayList<Astronaut>(game.getCorpses());
+        Deck[] decks = { game.getGameDeck(), game.getGameDiscard(), game.getSpaceDeck(), game.getSpaceDiscard() };
+        for (Deck deck : decks) {
+            format.index(deck.getCards());
+        }
+        for (List<Astronaut> players : Arrays.asList(current, active, corpses)) {
+            for (Astronaut player : players) {
+                format.index(player.getHand());
+                format.index(player.getTrack());
+            }
+        }
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeBoolean(game.hasStarted());
+        GameRandom[] randoms = game.getRandoms();
+        out.writeByte(randoms.length);
+        for (GameRandom random : randoms) {
+            for (long word : random.getState()) {
+                out.writeLong(word);
+            }
+        }
+        out.writeByte(format.kinds.size());
+        for (CardKey kind : format.kinds) {
+            out.writeByte(kind.typeId);
+            if (kind.typeId < 0) {
+                out.writeUTF(kind.name);
+            }
+            out.writeUTF(kind.description == null ? "" : kind.description);
+        }
+        for (Deck deck : decks) {
+            format.writeCards(deck.getCards(), out);
+        }
+        out.writeByte(current.size());
+        format.writePlayers(current, out);
+        out.writeByte(active.size());
+        format.writePlayers(active, out);
+        out.writeByte(corpses.size());
+        format.writePlayers(corpses, out);
+    }
+
+    /**
+     * reads a game
+     * 
+     * @param in stream to read from
+     * @return game
+     * @throws IOException   stream error
+     * @throws GameException not a binary save or unsupported version
+     */
+    static GameEngine read(DataInputStream in) throws IOException, GameException {
+        if (in.readInt() != MAGIC) {
+            throw new GameException("Not a binary save file", null);
+        }
+        short version = in.readShort();
+        if (version < 1 || version > VERSION) {
+            throw new GameException("Unsupported save version " + version, null);
+        }
+        SaveFormat format = new SaveFormat();
+        boolean hasStarted = in.readBoolean();
+        GameRandom[] randoms;
+        if (version == 1) {
+            // version 1 saved the state of a single java.util.Random generator
+            randoms = GameEngine.splitStreams(new GameRandom(in.readLong()));
+        } else {
+            randoms = new GameRandom[in.readUnsignedByte()];
+            if (randoms.length != RandomStream.COUNT) {
+                throw new GameException("Unsupported number of random streams " + randoms.length, null);
+            }
+            for (int i = 0; i < randoms.length; i++) {
+                long[] state = { in.readLong(), in.readLong(), in.readLong(), in.readLong() };
+                randoms[i] = new GameRandom();
+                randoms[i].setState(state);
+            }
+        }
+        int numberOfKinds = in.readUnsignedByte();
+        for (int i = 0; i < numberOfKinds; i++) {
+            int typeId = in.readByte();
+            if (typeId >= CardType.COUNT) {
+                throw new IOException("Unknown card type " + typeId);
+            }
+            String name = typeId < 0 ? in.readUTF() : CardType.fromId(typeId).toString();
+            format.kinds.add(new CardKey(typeId, name, in.readUTF()));
+        }
+
+        GameEngine game = new GameEngine();
+        GameDeck gameDeck = new GameDeck();
+        GameDeck gameDiscard = new GameDeck();
+        SpaceDeck spaceDeck = new SpaceDeck();
+        SpaceDeck spaceDiscard = new SpaceDeck();
+        for (Deck deck : new Deck[] { gameDeck, gameDiscard, spaceDeck, spaceDiscard }) {
+            int size = in.readUnsignedShort();
+            for (int i = 0; i < size; i++) {
+                deck.add(format.readCard(in));
+            }
+        }
+        // versions 1 and 2 did not save the seats, which are then numbered in turn order
+        List<Integer> seats = version >= 3 ? new ArrayList<Integer>() : null;
+        List<Astronaut> current = format.readPlayers(game, in.readUnsignedByte(), seats, in);
+        List<Astronaut> active = format.readPlayers(game, in.readUnsignedByte(), seats, in);
+        List<Astronaut> corpses = format.readPlayers(game, in.readUnsignedByte(), seats, in);
+        Astronaut currentPlayer = current.isEmpty() ? null : current.get(0);
+        int[] playerSeats = null;
+        if (seats != null) {
+            playerSeats = new int[seats.size()];
+            for (int i = 0; i < playerSeats.length; i++) {
+                playerSeats[i] = seats.get(i);
+            }
+        }
+        game.restore(hasStarted, randoms, gameDeck, gameDiscard, spaceDeck, spaceDiscard, currentPlayer, active,
+                corpses, playerSeats);
+        return game;
+    }
+
+    /**
+     * adds the kinds of the passed cards to the card kind table
+     * 
+     * @param cards cards
+     * @throws IOException too many kinds of card
+     */
+    private void index(Collection<Card> cards) throws IOException {
+        for (Card card : cards) {
+            CardKey key = new CardKey(card);
+            if (kindIndex.containsKey(key)) {
+                continue;
+            }
+            if (kinds.size() == MAX_KINDS) {
+                throw new IOException("Too many kinds of card to save");
+            }
+            kindIndex.put(key, kinds.size());
+            kinds.add(key);
+        }
+    }
+
+    /**
+     * writes a count and one byte per card
+     * 
+     * @param cards cards
+     * @param out   stream to write to
+     * @throws IOException stream error
+     */
+    private void writeCards(Collection<Card> cards, DataOutputStream out) throws IOException {
+        out.writeShort(cards.size());
+        for (Card card : cards) {
+            out.writeByte(kindIndex.get(new CardKey(card)));
+        }
+    }
+
+    /**
+     * writes players
+     * 
+     * @param players players
+     * @param out     stream to write to
+     * @throws IOException stream error
+     */
+    private void writePlayers(List<Astronaut> players, DataOutputStream out) throws IOException {
+        for (Astronaut player : players) {
+            out.writeUTF(player.getName());
+            out.writeByte(player.getSeat());
+            writeCards(player.getHand(), out);
+            writeCards(player.getTrack(), out);
+        }
+    }
+
+    /**
+     * reads one card
+     * 
+     * @param in stream to read from
+     * @return card
+     * @throws IOException stream error
+     */
+    private Card readCard(DataInputStream in) throws IOException {
+        int index = in.readUnsignedByte();
+        if (index >= kinds.size()) {
+            throw new IOException("Unknown card kind " + index);
+        }
+        // type ids were checked when the kinds were read
+        CardKey kind = kinds.get(index);
+        CardType type = kind.typeId < 0 ? null : CardType.fromId(kind.typeId);
+        if (type != null && type.isOxygen()) {
+            return Oxygen.of(type.oxygenValue());
+        }
+        return Card.of(kind.name, kind.description);
+    }
+
+    /**
+     * reads players
+     * 
+     * @param game  game the players are in
+     * @param count number of players
+     * @param seats list the seats of the players are added to, or null if
+     *              the save has none
+     * @param in    stream to read from
+     * @return players
+     * @throws IOException stream error
+     */
+    private List<Astronaut> readPlayers(GameEngine game, int count, List<Integer> seats, DataInputStream in)
+            throws IOException {
+        List<Astronaut> players = new ArrayList<Astronaut>();
+        for (int i = 0; i < count; i++) {
+            Astronaut player = new Astronaut(in.readUTF(), game);
+            if (seats != null) {
+                seats.add(in.readUnsignedByte());
+            }
+            int handSize = in.readUnsignedShort();
+            for (int j = 0; j < handSize; j++) {
+                player.addToHand(readCard(in));
+            }
+            int trackSize = in.readUnsignedShort();
+            for (int j = 0; j < trackSize; j++) {
+                player.addToTrack(readCard(in));
+            }
+            players.add(player);
+        }
+        return players;
+    }
+
+    /**
+     * Class CardKey what tells two cards apart in a save
+     */
+    private static class CardKey {
+        private int typeId;
+        private String name;
+        private String description;
+
+        /**
+         * CardKey constructor
+         * 
+         * @param card card
+         */
+        CardKey(Card card) {
+            this(card.getTypeId(), card.toString(), card.getDescription());
+        }
+
+        /**
+         * CardKey constructor
+         * 
+         * @param typeId      type id, or -1
+         * @param name        name
+         * @param description description
+         */
+        CardKey(int typeId, String name, String description) {
+            this.typeId = typeId;
+            this.name = name;
+            this.description = description;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof CardKey)) {
+                return false;
+            }
+            CardKey key = (CardKey) other;
+            return typeId == key.typeId && name.equals(key.name) && Objects.equals(description, key.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(typeId, name, description);
+        }
+    }
+}
@@ -5,25 +5,53 @@ import java.io.Serializable;
 /**
  * Class Card
  * 
+ * Cards are immutable and shared: use Card.of, or Oxygen.ONE and Oxygen.TWO,
+ * rather than making new ones.
+ * 
  * @author Minjun Kim
  * @version 1.0
  */
 public class Card implements Serializable, Comparable<Card> {
     private static final long serialVersionUID = 422L;
-    private String name;
-    private String description;
+    private final String name;
+    private final String description;
+    private final transient CardType type;
 
     /**
-     * Card constructor
+     * returns the shared card with the passed name and description
+     * 
+     * @param name        name
+     * @param description description
+     * @return card
+     */
+    public static Card of(String name, String description) {
+        return CardCatalog.get(name, description);
+    }
+
+    /**
+     * Card constructor; makes a card that is not shared, prefer Card.of
      * 
      * @param name        name
      * @param description description
      */
     public Card(String name, String description) {
+        this(CardType.fromName(name), name, description);
+    }
+
+    /**
+     * Card constructor for a card whose type is already known
+     * 
+     * @param type        type, or null if the name is not in the catalog
+     * @param name        name
+     * @param description description
+     */
+    Card(CardType type, String name, String description) {
 
         this.name = name;
 
         this.description = description;
+
+        this.type = type;
     }
 
     /**
@@ -35,6 +63,27 @@ public class Card implements Serializable, Comparable<Card> {
         return description;
     }
 
+    /**
+     * returns the card type
+     * 
+     * @return type, or null if the name is not in the catalog
+     */
+    public CardType getType() {
+        return type;
+    }
+
+    /**
+     * returns the id of the card type
+     * 
+     * @return type id, or -1 if the name is not in the catalog
+     */
+    public int getTypeId() {
+        if (type == null) {
+            return -1;
+        }
+        return type.getId();
+    }
+
     /**
      * returns card name
      * 
@@ -49,6 +98,9 @@ public class Card implements Serializable, Comparable<Card> {
      */
     @Override
     public int compareTo(Card a) {
+        if (this.type != null && a.type != null) {
+            return Integer.compare(this.type.getId(), a.type.getId());
+        }
         if (this instanceof Oxygen && a instanceof Oxygen) {
             Oxygen firstOxygen = (Oxygen) this;
             Oxygen secondOxygen = (Oxygen) a;
@@ -66,4 +118,13 @@ public class Card implements Serializable, Comparable<Card> {
             return firstCardName.compareTo(secondCardName);
         }
     }
+
+    /**
+     * replaces a loaded card with the shared one
+     * 
+     * @return shared card
+     */
+    protected Object readResolve() {
+        return of(name, description);
+    }
 }
@@ -0,0 +1,58 @@
+package selfish.deck;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Class CardCatalog the one shared instance of every card
+ * 
+ * Cards are immutable, so every deck, hand and track in every game can hold
+ * the same object for the same card. Oxygen is kept as Oxygen.ONE and
+ * Oxygen.TWO; every other card is looked up here by name and description.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class CardCatalog {
+    private static final Map<String, Map<String, Card>> CARDS = new ConcurrentHashMap<String, Map<String, Card>>();
+
+    /**
+     * an empty constructor
+     */
+    private CardCatalog() {
+    }
+
+    /**
+     * returns the shared card with the passed name and description, creating
+     * it the first time it is asked for
+     * 
+     * @param name        name
+     * @param description description
+     * @return card
+     */
+    public static Card get(String name, String description) {
+        Map<String, Card> byDescription = CARDS.get(name);
+        if (byDescription == null) {
+            byDescription = CARDS.computeIfAbsent(name.intern(), key -> new ConcurrentHashMap<String, Card>(2));
+        }
+        Card card = byDescription.get(description);
+        if (card == null) {
+            card = byDescription.computeIfAbsent(description.intern(),
+                    key -> new Card(CardType.fromName(name), name.intern(), key));
+        }
+        return card;
+    }
+
+    /**
+     * returns the number of shared cards, not counting oxygen
+     * 
+     * @return number of cards
+     */
+    public static int size() {
+        int size = 0;
+        for (Map<String, Card> byDescription : CARDS.values()) {
+            size += byDescription.size();
+        }
+        return size;
+    }
+}
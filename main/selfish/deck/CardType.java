@@ -0,0 +1,193 @@
+package selfish.deck;
+
+import java.util.*;
+
+/**
+ * Enum CardType the catalog of every card in the game
+ * 
+ * Constants are declared in the alphabetical order of their names, so
+ * comparing ids sorts cards exactly like comparing their names.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public enum CardType {
+    /** Asteroid field */
+    ASTEROID_FIELD(SpaceDeck.ASTEROID_FIELD, Kind.SPACE),
+    /** Blank space */
+    BLANK_SPACE(SpaceDeck.BLANK_SPACE, Kind.SPACE),
+    /** Cosmic radiation */
+    COSMIC_RADIATION(SpaceDeck.COSMIC_RADIATION, Kind.SPACE),
+    /** Gravitational anomaly */
+    GRAVITATIONAL_ANOMALY(SpaceDeck.GRAVITATIONAL_ANOMALY, Kind.SPACE),
+    /** Hack suit */
+    HACK_SUIT(GameDeck.HACK_SUIT, Kind.ACTION),
+    /** Hole in suit */
+    HOLE_IN_SUIT(GameDeck.HOLE_IN_SUIT, Kind.ACTION),
+    /** Hyperspace */
+    HYPERSPACE(SpaceDeck.HYPERSPACE, Kind.SPACE),
+    /** Laser blast */
+    LASER_BLAST(GameDeck.LASER_BLAST, Kind.ACTION),
+    /** Meteoroid */
+    METEOROID(SpaceDeck.METEOROID, Kind.SPACE),
+    /** Mysterious nebula */
+    MYSTERIOUS_NEBULA(SpaceDeck.MYSTERIOUS_NEBULA, Kind.SPACE),
+    /** Oxygen siphon */
+    OXYGEN_SIPHON(GameDeck.OXYGEN_SIPHON, Kind.ACTION),
+    /** Oxygen(1) */
+    OXYGEN_1(GameDeck.OXYGEN_1, Kind.OXYGEN),
+    /** Oxygen(2) */
+    OXYGEN_2(GameDeck.OXYGEN_2, Kind.OXYGEN),
+    /** Rocket booster */
+    ROCKET_BOOSTER(GameDeck.ROCKET_BOOSTER, Kind.ACTION),
+    /** Shield */
+    SHIELD(GameDeck.SHIELD, Kind.ACTION),
+    /** Solar flare */
+    SOLAR_FLARE(SpaceDeck.SOLAR_FLARE, Kind.SPACE),
+    /** Tether */
+    TETHER(GameDeck.TETHER, Kind.ACTION),
+    /** Tractor beam */
+    TRACTOR_BEAM(GameDeck.TRACTOR_BEAM, Kind.ACTION),
+    /** Useful junk */
+    USEFUL_JUNK(SpaceDeck.USEFUL_JUNK, Kind.SPACE),
+    /** Wormhole */
+    WORMHOLE(SpaceDeck.WORMHOLE, Kind.SPACE);
+
+    /**
+     * Enum Kind which deck a card type belongs to
+     */
+    public enum Kind {
+        /** Oxygen cards of the game deck */
+        OXYGEN,
+        /** Action cards of the game deck */
+        ACTION,
+        /** Space cards */
+        SPACE
+    }
+
+    /** Number of card types */
+    public static final int COUNT = values().length;
+    private static final CardType[] BY_ID = values();
+    private static final Map<String, CardType> BY_NAME = new HashMap<String, CardType>();
+    private static final List<CardType> ACTIONS;
+
+    static {
+        List<CardType> actions = new ArrayList<CardType>();
+        for (CardType type : BY_ID) {
+            BY_NAME.put(type.cardName, type);
+            if (type.kind == Kind.ACTION) {
+                actions.add(type);
+            }
+        }
+        ACTIONS = Collections.unmodifiableList(actions);
+    }
+
+    private final String cardName;
+    private final Kind kind;
+
+    /**
+     * CardType constructor
+     * 
+     * @param cardName name of the card
+     * @param kind     which deck the card belongs to
+     */
+    CardType(String cardName, Kind kind) {
+        this.cardName = cardName;
+        this.kind = kind;
+    }
+
+    /**
+     * returns the type with the passed card name
+     * 
+     * @param cardName card name, as returned by Card.toString()
+     * @return type, or null if no card has that name
+     */
+    public static CardType fromName(String cardName) {
+        return BY_NAME.get(cardName);
+    }
+
+    /**
+     * returns the type with the passed id
+     * 
+     * @param id type id
+     * @return type
+     */
+    public static CardType fromId(int id) {
+        return BY_ID[id];
+    }
+
+    /**
+     * returns the type of an oxygen card of the passed value
+     * 
+     * @param value value of oxygen
+     * @return type, or null if there is no such oxygen card
+     */
+    public static CardType oxygen(int value) {
+        if (value == 1) {
+            return OXYGEN_1;
+        } else if (value == 2) {
+            return OXYGEN_2;
+        }
+        return null;
+    }
+
+    /**
+     * returns the action card types in alphabetical order
+     * 
+     * @return action card types
+     */
+    public static List<CardType> actions() {
+        return ACTIONS;
+    }
+
+    /**
+     * returns the small integer id of the type
+     * 
+     * @return id
+     */
+    public int getId() {
+        return ordinal();
+    }
+
+    /**
+     * returns which deck the type belongs to
+     * 
+     * @return kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * returns true for Oxygen(1) and Oxygen(2)
+     * 
+     * @return boolean
+     */
+    public boolean isOxygen() {
+        return kind == Kind.OXYGEN;
+    }
+
+    /**
+     * returns the value of an oxygen type
+     * 
+     * @return value, or 0 if the type is not oxygen
+     */
+    public int oxygenValue() {
+        if (this == OXYGEN_1) {
+            return 1;
+        } else if (this == OXYGEN_2) {
+            return 2;
+        }
+        return 0;
+    }
+
+    /**
+     * returns the card name
+     * 
+     * @return name
+     */
+    @Override
+    public String toString() {
+        return cardName;
+    }
+}
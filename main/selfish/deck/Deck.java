@@ -10,9 +10,16 @@ import selfish.GameException;
  * @author Minjun Kim
  * @version 1.0
  */
-public abstract class Deck implements Serializable {
+public abstract class Deck implements Serializable, Cloneable {
     private static final long serialVersionUID = 422L;
     private Collection<Card> cards = new ArrayList<Card>();
+    private transient int[] typeCounts = new int[CardType.COUNT];
+    private transient int[] lowestIndex = new int[CardType.COUNT];
+    private transient Collection<Card> cardsView;
+    private transient DeckListener listener;
+    private transient boolean shared;
+    private transient long hash;
+    private transient boolean hashStale;
 
     /**
      * Empty constructor
@@ -21,12 +28,57 @@ public abstract class Deck implements Serializable {
     }
 
     /**
-     * returns all the cards in the deck
+     * creates a deck holding the cards of a template
+     * 
+     * @param template parsed card file
+     */
+    Deck(DeckTemplate template) {
+        this.cards = template.copyCards();
+        System.arraycopy(template.getTypeCounts(), 0, typeCounts, 0, CardType.COUNT);
+        hashStale = true;
+    }
+
+    /**
+     * returns all the cards in the deck, bottom first, as a read-only view.
+     * This used to return the deck's own list; changing the cards through it
+     * would now leave the type counts and the hash wrong, so the view throws
+     * UnsupportedOperationException and callers use add, draw and remove.
      * 
      * @return cards
      */
     public Collection<Card> getCards() {
-        return cards;
+        if (cardsView == null) {
+            cardsView = Collections.unmodifiableCollection(cards);
+        }
+        return cardsView;
+    }
+
+    /**
+     * sets the listener told about every change to the deck
+     * 
+     * @param listener listener, or null for none
+     */
+    public void setListener(DeckListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * returns a deck holding the same cards, which shares them with this deck
+     * until either of the two changes; the copy has no listener
+     * 
+     * @return copy
+     */
+    public Deck fork() {
+        Deck copy;
+        try {
+            copy = (Deck) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+        copy.listener = null;
+        copy.shared = true;
+        this.shared = true;
+        return copy;
     }
 
     /**
@@ -37,28 +89,7 @@ public abstract class Deck implements Serializable {
      * @throws GameException file not found
      */
     protected static List<Card> loadCards(String path) throws GameException {
-
-        List<Card> cardList = new ArrayList<Card>();
-        try {
-            File cardFile = new File(path);
-            Scanner Scan = new Scanner(cardFile);
-
-            while (Scan.hasNextLine()) {
-                String cardLine = Scan.nextLine();
-                String lineSplit[] = cardLine.split("; ");
-                if (lineSplit[0].equals("NAME") == true) {
-                    continue;
-                }
-
-                for (int i = 0; i < stringToCards(cardLine).length; i++) {
-                    ((ArrayList<Card>) cardList).add(stringToCards(cardLine)[i]);
-                }
-            }
-            Scan.close();
-        } catch (FileNotFoundException e) {
-            throw new GameException("FileNotFoundError", e);
-        }
-        return cardList;
+        return DeckTemplate.parse(path);
     }
 
     /**
@@ -71,9 +102,7 @@ public abstract class Deck implements Serializable {
         String lineSplit[] = str.split("; ");
         int numOfCards = Integer.parseInt(lineSplit[2]);
         Card[] cards = new Card[numOfCards];
-        for (int i = 0; i < numOfCards; i++) {
-            cards[i] = new Card(lineSplit[0], lineSplit[1]);
-        }
+        Arrays.fill(cards, Card.of(lineSplit[0], lineSplit[1]));
         return cards;
     }
 
@@ -84,7 +113,13 @@ public abstract class Deck implements Serializable {
      * @return number of cards in deck
      */
     public int add(Card card) {
+        own();
         ((ArrayList<Card>) this.cards).add(card);
+        hash ^= Zobrist.positionKey(cards.size() - 1, card);
+        countCard(card, cards.size() - 1, 1);
+        if (listener != null) {
+            listener.cardAdded(this, card);
+        }
         return cards.size();
     }
 
@@ -95,7 +130,9 @@ public abstract class Deck implements Serializable {
      * @return number of cards in deck
      */
     protected int add(List<Card> cards) {
-        this.cards.addAll(cards);
+        for (Card card : cards) {
+            add(card);
+        }
         return cards.size();
     }
 
@@ -109,9 +146,7 @@ public abstract class Deck implements Serializable {
         if (cards.isEmpty()) {
             throw new IllegalStateException();
         }
-        Card card = ((ArrayList<Card>) cards).get(lastIndex);
-        ((ArrayList<Card>) cards).remove(lastIndex);
-        return card;
+        return removeAt(lastIndex);
     }
 
     /**
@@ -120,23 +155,140 @@ public abstract class Deck implements Serializable {
      * @param card removed card
      */
     public void remove(Card card) {
-        for (Card element : cards) {
-            boolean match = element.compareTo(card) == 0;
+        if (card.getType() != null) {
+            removeFirst(card.getType());
+            return;
+        }
+        List<Card> cardList = (ArrayList<Card>) cards;
+        for (int i = 0; i < cardList.size(); i++) {
+            boolean match = cardList.get(i).compareTo(card) == 0;
             if (!match) {
                 continue;
             }
-            cards.remove(element);
+            removeAt(i);
             break;
         }
     }
 
+    /**
+     * removes the card of the passed type that is nearest the bottom of the
+     * deck
+     * 
+     * @param type type of card to remove
+     * @return removed card, or null if the deck has none
+     */
+    public Card removeFirst(CardType type) {
+        int typeId = type.getId();
+        if (typeCounts[typeId] == 0) {
+            return null;
+        }
+        own();
+        List<Card> cardList = (ArrayList<Card>) cards;
+        int index = lowestIndex[typeId];
+        while (cardList.get(index).getType() != type) {
+            index++;
+        }
+        lowestIndex[typeId] = index;
+        return removeAt(index);
+    }
+
+    /**
+     * returns the number of cards of the passed type in the deck, kept up to
+     * date as cards are added and removed
+     * 
+     * @param type card type
+     * @return number of cards
+     */
+    public int count(CardType type) {
+        return typeCounts[type.getId()];
+    }
+
+    /**
+     * returns the number of cards of the passed kind in the deck
+     * 
+     * @param kind kind of card
+     * @return number of cards
+     */
+    public int count(CardType.Kind kind) {
+        int count = 0;
+        for (int i = 0; i < CardType.COUNT; i++) {
+            if (CardType.fromId(i).getKind() == kind) {
+                count += typeCounts[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * returns the chance that the next card drawn is of the passed type, as far
+     * as anyone who has not seen the order of the deck can tell
+     * 
+     * @param type card type
+     * @return chance, 0 if the deck is empty
+     */
+    public double drawChance(CardType type) {
+        return cards.isEmpty() ? 0 : (double) count(type) / cards.size();
+    }
+
+    /**
+     * returns the chance that at least one of the next cards drawn is of the
+     * passed type
+     * 
+     * @param type  card type
+     * @param draws number of cards drawn, up to the size of the deck
+     * @return chance
+     * @throws IllegalArgumentException more draws than cards
+     */
+    public double drawChance(CardType type, int draws) {
+        return Hypergeometric.atLeastOne(cards.size(), count(type), draws);
+    }
+
+    /**
+     * returns the chance that at least one of the next cards drawn is of the
+     * passed kind
+     * 
+     * @param kind  kind of card
+     * @param draws number of cards drawn, up to the size of the deck
+     * @return chance
+     * @throws IllegalArgumentException more draws than cards
+     */
+    public double drawChance(CardType.Kind kind, int draws) {
+        return Hypergeometric.atLeastOne(cards.size(), count(kind), draws);
+    }
+
     /**
      * shuffles the deck
      * 
      * @param random random
      */
     public void shuffle(Random random) {
+        own();
         Collections.shuffle((ArrayList<Card>) cards, random);
+        Arrays.fill(lowestIndex, 0);
+        hashStale = true;
+        if (listener != null) {
+            listener.deckShuffled(this);
+        }
+    }
+
+    /**
+     * returns the Zobrist hash of the cards in the deck, in order. Adding and
+     * drawing update it as they go; removing a card from under the top moves
+     * every card above it, and shuffling moves them all, so those only mark
+     * it to be hashed again here.
+     * 
+     * @return hash
+     */
+    public long stateHash() {
+        if (hashStale) {
+            hash = 0;
+            int position = 0;
+            for (Card card : cards) {
+                hash ^= Zobrist.positionKey(position++, card);
+            }
+            hashStale = false;
+        }
+        return hash;
     }
 
     /**
@@ -147,4 +299,87 @@ public abstract class Deck implements Serializable {
     public int size() {
         return this.cards.size();
     }
+
+    /**
+     * removes the card at the passed position. Drawing the top card takes
+     * constant time; removing a card under it shifts every card above it
+     * down by one, which takes time in proportion to those cards. That is on
+     * purpose: swapping the top card into the gap would be constant time but
+     * would change which card is drawn next, and so the course of every game
+     * played from a seed.
+     * 
+     * @param index position from the bottom of the deck
+     * @return removed card
+     */
+    private Card removeAt(int index) {
+        own();
+        Card card = ((ArrayList<Card>) cards).remove(index);
+        if (index == cards.size()) {
+            hash ^= Zobrist.positionKey(index, card);
+        } else {
+            hashStale = true;
+        }
+        countCard(card, index, -1);
+        for (int i = 0; i < lowestIndex.length; i++) {
+            if (lowestIndex[i] > index) {
+                lowestIndex[i]--;
+            }
+        }
+        if (listener != null) {
+            listener.cardRemoved(this, card, index == cards.size());
+        }
+        return card;
+    }
+
+    /**
+     * gives the deck its own copy of the cards and counts if it still shares
+     * them with a fork
+     */
+    private void own() {
+        if (!shared) {
+            return;
+        }
+        cards = new ArrayList<Card>(cards);
+        typeCounts = typeCounts.clone();
+        lowestIndex = lowestIndex.clone();
+        cardsView = null;
+        shared = false;
+    }
+
+    /**
+     * updates the type counts after a card enters or leaves the deck; the
+     * lowest index of a type is only a lower bound, so it moves down when a
+     * card is added below it and is tightened by removeFirst
+     * 
+     * @param card  card that moved
+     * @param index position of the card
+     * @param delta 1 if it entered the deck, -1 if it left
+     */
+    private void countCard(Card card, int index, int delta) {
+        CardType type = card.getType();
+        if (type == null) {
+            return;
+        }
+        typeCounts[type.getId()] += delta;
+        if (delta > 0 && index < lowestIndex[type.getId()]) {
+            lowestIndex[type.getId()] = index;
+        }
+    }
+
+    /**
+     * restores the type counts, which are not saved
+     * 
+     * @param in stream to read from
+     * @throws IOException            stream error
+     * @throws ClassNotFoundException unknown class in stream
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        typeCounts = new int[CardType.COUNT];
+        lowestIndex = new int[CardType.COUNT];
+        for (Card card : cards) {
+            countCard(card, 0, 1);
+        }
+        hashStale = true;
+    }
 }
@@ -0,0 +1,35 @@
+package selfish.deck;
+
+/**
+ * Interface DeckListener is told about every card that enters or leaves a
+ * deck
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public interface DeckListener {
+
+    /**
+     * called after a card was put on top of the deck
+     * 
+     * @param deck deck
+     * @param card card added
+     */
+    void cardAdded(Deck deck, Card card);
+
+    /**
+     * called after a card was taken out of the deck
+     * 
+     * @param deck    deck
+     * @param card    card removed
+     * @param fromTop true if the card was drawn from the top
+     */
+    void cardRemoved(Deck deck, Card card, boolean fromTop);
+
+    /**
+     * called after the deck was shuffled
+     * 
+     * @param deck deck
+     */
+    void deckShuffled(Deck deck);
+}
@@ -0,0 +1,162 @@
+package selfish.deck;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import selfish.GameException;
+
+/**
+ * Class DeckTemplate the parsed contents of a card file, which new decks are
+ * copied from
+ * 
+ * Each file is read, parsed and checked once, then kept in a cache keyed by
+ * its path. The cache checks the file's modification time and size on every
+ * use and parses it again when either has changed.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+final class DeckTemplate {
+    private static final Map<String, DeckTemplate> ACTION_TEMPLATES = new ConcurrentHashMap<String, DeckTemplate>();
+    private static final Map<String, DeckTemplate> SPACE_TEMPLATES = new ConcurrentHashMap<String, DeckTemplate>();
+    private static final int NUMBER_OF_OXYGEN_TWO = 10;
+    private static final int NUMBER_OF_OXYGEN_ONE = 38;
+    private final long lastModified;
+    private final long length;
+    private final ArrayList<Card> cards;
+    private final int[] typeCounts = new int[CardType.COUNT];
+
+    /**
+     * DeckTemplate constructor
+     * 
+     * @param lastModified modification time of the file
+     * @param length       size of the file
+     * @param cards        cards in deck order
+     */
+    private DeckTemplate(long lastModified, long length, ArrayList<Card> cards) {
+        this.lastModified = lastModified;
+        this.length = length;
+        this.cards = cards;
+        for (Card card : cards) {
+            if (card.getType() != null) {
+                typeCounts[card.getType().getId()]++;
+            }
+        }
+    }
+
+    /**
+     * returns the template of a full game deck: the action cards of the file
+     * followed by the oxygen
+     * 
+     * @param path path of action cards
+     * @return template
+     * @throws GameException file not found or not a card file
+     */
+    static DeckTemplate forActionCards(String path) throws GameException {
+        return get(ACTION_TEMPLATES, path, true);
+    }
+
+    /**
+     * returns the template of a full space deck
+     * 
+     * @param path path of space cards
+     * @return template
+     * @throws GameException file not found or not a card file
+     */
+    static DeckTemplate forSpaceCards(String path) throws GameException {
+        return get(SPACE_TEMPLATES, path, false);
+    }
+
+    /**
+     * returns a new list holding the cards of the template
+     * 
+     * @return cards
+     */
+    ArrayList<Card> copyCards() {
+        return new ArrayList<Card>(cards);
+    }
+
+    /**
+     * returns the number of cards of each type, indexed by type id
+     * 
+     * @return counts, which must not be changed
+     */
+    int[] getTypeCounts() {
+        return typeCounts;
+    }
+
+    /**
+     * returns the cached template of a file, parsing the file if it is not
+     * cached or has changed
+     * 
+     * @param cache      cache to look in
+     * @param path       path of the card file
+     * @param withOxygen true to add the oxygen of a game deck
+     * @return template
+     * @throws GameException file not found or not a card file
+     */
+    private static DeckTemplate get(Map<String, DeckTemplate> cache, String path, boolean withOxygen)
+            throws GameException {
+        File cardFile = new File(path);
+        long lastModified = cardFile.lastModified();
+        long length = cardFile.length();
+        if (lastModified == 0L && !cardFile.isFile()) {
+            throw new GameException("FileNotFoundError", new FileNotFoundException(path));
+        }
+        DeckTemplate template = cache.get(path);
+        boolean fileChanged = template == null || template.lastModified != lastModified || template.length != length;
+        if (fileChanged) {
+            ArrayList<Card> cards = parse(path);
+            if (withOxygen) {
+                cards.addAll(Collections.nCopies(NUMBER_OF_OXYGEN_TWO, Oxygen.TWO));
+                cards.addAll(Collections.nCopies(NUMBER_OF_OXYGEN_ONE, Oxygen.ONE));
+            }
+            cards.trimToSize();
+            template = new DeckTemplate(lastModified, length, cards);
+            cache.put(path, template);
+        }
+        return template;
+    }
+
+    /**
+     * reads and checks a card file; every line but the NAME header must be
+     * "name; description; quantity"
+     * 
+     * @param path path of the card file
+     * @return cards in file order
+     * @throws GameException file not found or not a card file
+     */
+    static ArrayList<Card> parse(String path) throws GameException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            throw new GameException("FileNotFoundError", e);
+        } catch (IOException e) {
+            throw new GameException("IOException", e);
+        }
+        ArrayList<Card> cards = new ArrayList<Card>();
+        for (int i = 0; i < lines.size(); i++) {
+            String cardLine = lines.get(i);
+            String lineSplit[] = cardLine.split("; ");
+            if (lineSplit[0].equals("NAME") || cardLine.trim().isEmpty()) {
+                continue;
+            }
+            int numOfCards = -1;
+            if (lineSplit.length == 3 && !lineSplit[0].isEmpty()) {
+                try {
+                    numOfCards = Integer.parseInt(lineSplit[2].trim());
+                } catch (NumberFormatException e) {
+                    numOfCards = -1;
+                }
+            }
+            if (numOfCards < 0) {
+                throw new GameException("Invalid card on line " + (i + 1) + " of " + path, null);
+            }
+            cards.addAll(Collections.nCopies(numOfCards, Card.of(lineSplit[0], lineSplit[1])));
+        }
+        return cards;
+    }
+}
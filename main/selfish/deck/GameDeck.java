@@ -49,15 +49,7 @@ public class GameDeck extends Deck {
      * @throws GameException path not found
      */
     public GameDeck(String path) throws GameException {
-        add(GameDeck.loadCards(path));
-        int numberOfOxygenTwo = 10;
-        int numberOfOxygenOne = 38;
-        for (int i = 0; i < numberOfOxygenTwo; i++) {
-            add(new Oxygen(2));
-        }
-        for (int i = 0; i < numberOfOxygenOne; i++) {
-            add(new Oxygen(1));
-        }
+        super(DeckTemplate.forActionCards(path));
     }
 
     /**
@@ -67,17 +59,26 @@ public class GameDeck extends Deck {
      * @return drawn oxygen
      */
     public Oxygen drawOxygen(int value) {
-        Oxygen sampleOxygen = new Oxygen(value);
-        for (Card element : this.getCards()) {
-            boolean notOxygen = !(element instanceof Oxygen);
-            boolean wrongOxygen = sampleOxygen.compareTo(element) != 0;
-            if (notOxygen || wrongOxygen) {
-                continue;
-            }
-            this.remove(element);
-            return ((Oxygen) element);
+        CardType oxygenType = CardType.oxygen(value);
+        Card oxygen = oxygenType == null ? null : removeFirst(oxygenType);
+        if (oxygen == null) {
+            throw new IllegalStateException();
         }
-        throw new IllegalStateException();
+        return (Oxygen) oxygen;
+    }
+
+    /**
+     * returns the number of oxygens of the passed value in the deck
+     * 
+     * @param value value of oxygen
+     * @return number of oxygens
+     */
+    public int countOxygen(int value) {
+        CardType oxygenType = CardType.oxygen(value);
+        if (oxygenType == null) {
+            return 0;
+        }
+        return count(oxygenType);
     }
 
     /**
@@ -98,4 +99,15 @@ public class GameDeck extends Deck {
         this.add(dbl);
         return oxygenPair;
     }
+
+    /**
+     * returns a GameDeck holding the same cards, which shares them with this
+     * deck until either of the two changes
+     * 
+     * @return copy
+     */
+    @Override
+    public GameDeck fork() {
+        return (GameDeck) super.fork();
+    }
 }
@@ -0,0 +1,106 @@
+package selfish.deck;
+
+/**
+ * Class Hypergeometric chances of drawing cards of a kind from a shuffled
+ * deck, without putting them back
+ * 
+ * Every chance is a product of one ratio per card drawn, so it takes time in
+ * proportion to the number of draws and creates no objects.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class Hypergeometric {
+
+    /**
+     * an empty constructor
+     */
+    private Hypergeometric() {
+    }
+
+    /**
+     * returns the chance that exactly the passed number of the cards drawn
+     * are matches
+     * 
+     * @param size    cards in the deck
+     * @param matches cards in the deck that match
+     * @param draws   cards drawn
+     * @param hits    matches wanted among the cards drawn
+     * @return chance
+     * @throws IllegalArgumentException counts out of range
+     */
+    public static double exactly(int size, int matches, int draws, int hits) {
+        check(size, matches, draws);
+        int misses = draws - hits;
+        if (hits < 0 || hits > matches || misses < 0 || misses > size - matches) {
+            return 0;
+        }
+        double chance = 1;
+        for (int i = 0; i < hits; i++) {
+            chance *= (double) (matches - i) / (size - i) * (draws - i) / (hits - i);
+        }
+        for (int i = 0; i < misses; i++) {
+            chance *= (double) (size - matches - i) / (size - hits - i);
+        }
+        return chance;
+    }
+
+    /**
+     * returns the chance that at least one of the cards drawn is a match
+     * 
+     * @param size    cards in the deck
+     * @param matches cards in the deck that match
+     * @param draws   cards drawn
+     * @return chance
+     * @throws IllegalArgumentException counts out of range
+     */
+    public static double atLeastOne(int size, int matches, int draws) {
+        check(size, matches, draws);
+        double none = 1;
+        for (int i = 0; i < draws && none > 0; i++) {
+            none *= (double) (size - matches - i) / (size - i);
+        }
+        return 1 - none;
+    }
+
+    /**
+     * returns the chance that at least the passed number of the cards drawn
+     * are matches
+     * 
+     * @param size    cards in the deck
+     * @param matches cards in the deck that match
+     * @param draws   cards drawn
+     * @param hits    least matches wanted among the cards drawn
+     * @return chance
+     * @throws IllegalArgumentException counts out of range
+     */
+    public static double atLeast(int size, int matches, int draws, int hits) {
+        check(size, matches, draws);
+        int fewest = Math.max(0, draws - (size - matches));
+        if (hits <= fewest) {
+            return 1;
+        }
+        double chance = exactly(size, matches, draws, fewest);
+        double below = 0;
+        for (int i = fewest; i < hits && chance > 0; i++) {
+            below += chance;
+            // chance of i + 1 matches from the chance of i
+            chance *= (double) (matches - i) * (draws - i) / ((i + 1) * (size - matches - draws + i + 1));
+        }
+        return Math.max(0, 1 - below);
+    }
+
+    /**
+     * checks the counts of a draw
+     * 
+     * @param size    cards in the deck
+     * @param matches cards in the deck that match
+     * @param draws   cards drawn
+     * @throws IllegalArgumentException counts out of range
+     */
+    private static void check(int size, int matches, int draws) {
+        if (matches < 0 || matches > size || draws < 0 || draws > size) {
+            throw new IllegalArgumentException("Cannot draw " + draws + " of " + size + " cards");
+        }
+    }
+}
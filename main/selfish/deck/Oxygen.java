@@ -3,20 +3,42 @@ package selfish.deck;
 /**
  * Class Oxygen
  * 
+ * Every Oxygen(1) is Oxygen.ONE and every Oxygen(2) is Oxygen.TWO.
+ * 
  * @author Minjun Kim
  * @version 1.0
  */
 public class Oxygen extends Card {
     private static final long serialVersionUID = 422L;
-    private int value;
+    /** The shared Oxygen(1) */
+    public static final Oxygen ONE = new Oxygen(1);
+    /** The shared Oxygen(2) */
+    public static final Oxygen TWO = new Oxygen(2);
+    private final int value;
+
+    /**
+     * returns the shared oxygen of the passed value
+     * 
+     * @param value value of oxygen
+     * @return oxygen
+     */
+    public static Oxygen of(int value) {
+        if (value == 1) {
+            return ONE;
+        } else if (value == 2) {
+            return TWO;
+        }
+        return new Oxygen(value);
+    }
 
     /**
-     * Oxygen constructor
+     * Oxygen constructor; makes an oxygen that is not shared, prefer
+     * Oxygen.of
      * 
      * @param value value of oxygen
      */
     public Oxygen(int value) {
-        super("Oxygen", "description");
+        super(CardType.oxygen(value), "Oxygen", "description");
         this.value = value;
     }
 
@@ -37,4 +59,14 @@ public class Oxygen extends Card {
     public String toString() {
         return "Oxygen(" + value + ")";
     }
+
+    /**
+     * replaces a loaded oxygen with the shared one
+     * 
+     * @return shared oxygen
+     */
+    @Override
+    protected Object readResolve() {
+        return of(value);
+    }
 }
@@ -0,0 +1,108 @@
+package selfish.deck;
+
+import java.io.Serializable;
+
+/**
+ * Class OxygenBank moves oxygen between the hands and the game deck and
+ * discard pile
+ * 
+ * The decks keep a count of each oxygen value, so checking whether oxygen
+ * can be split or drawn takes constant time. Taking an oxygen card out walks
+ * up from a lower bound on the lowest position of its value, which is
+ * usually the card itself, and then shifts the cards above it down by one,
+ * so it takes time in proportion to the deck in the worst case. Returning
+ * oxygen adds it on top in constant time. No cards are created: every
+ * Oxygen(1) handed out was taken from the deck or the discard pile, and
+ * every Oxygen(2) split is put back on the deck.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class OxygenBank implements Serializable {
+    private static final long serialVersionUID = 422L;
+    private GameDeck gameDeck;
+    private GameDeck gameDiscard;
+
+    /**
+     * OxygenBank constructor
+     * 
+     * @param gameDeck    game deck
+     * @param gameDiscard game discard pile
+     */
+    public OxygenBank(GameDeck gameDeck, GameDeck gameDiscard) {
+        this.gameDeck = gameDeck;
+        this.gameDiscard = gameDiscard;
+    }
+
+    /**
+     * returns the number of oxygens of the passed value in the game deck and
+     * the discard pile
+     * 
+     * @param value value of oxygen
+     * @return number of oxygens
+     */
+    public int count(int value) {
+        return gameDeck.countOxygen(value) + gameDiscard.countOxygen(value);
+    }
+
+    /**
+     * returns true if there are two Oxygen(1) to give for an Oxygen(2)
+     * 
+     * @return boolean
+     */
+    public boolean canSplit() {
+        return count(1) > 1;
+    }
+
+    /**
+     * puts an Oxygen(2) that is being split on top of the game deck
+     * 
+     * @param dbl Oxygen(2) to take
+     */
+    public void deposit(Oxygen dbl) {
+        if (dbl.getType() != CardType.OXYGEN_2) {
+            throw new IllegalArgumentException();
+        }
+        gameDeck.add(dbl);
+    }
+
+    /**
+     * takes one Oxygen(1), from the game deck if it has any and from the
+     * discard pile otherwise
+     * 
+     * @return Oxygen(1)
+     */
+    public Oxygen withdrawOxygenOne() {
+        if (gameDeck.countOxygen(1) > 0) {
+            return gameDeck.drawOxygen(1);
+        }
+        return gameDiscard.drawOxygen(1);
+    }
+
+    /**
+     * takes one Oxygen(2) and returns a pair of Oxygen(1)
+     * 
+     * @param dbl Oxygen(2) to take
+     * @return pair of Oxygen(1)
+     */
+    public Oxygen[] split(Oxygen dbl) {
+        if (dbl.getValue() == 1) {
+            throw new IllegalArgumentException();
+        }
+        if (!canSplit()) {
+            throw new IllegalStateException();
+        }
+        deposit(dbl);
+        Oxygen[] pairOfOxygenOne = { withdrawOxygenOne(), withdrawOxygenOne() };
+        return pairOfOxygenOne;
+    }
+
+    /**
+     * puts a breathed oxygen on the discard pile
+     * 
+     * @param oxygen oxygen to return
+     */
+    public void discard(Oxygen oxygen) {
+        gameDiscard.add(oxygen);
+    }
+}
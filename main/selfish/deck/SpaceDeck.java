@@ -47,6 +47,17 @@ public class SpaceDeck extends Deck {
      * @throws GameException file not found
      */
     public SpaceDeck(String path) throws GameException {
-        add(SpaceDeck.loadCards(path));
+        super(DeckTemplate.forSpaceCards(path));
+    }
+
+    /**
+     * returns a SpaceDeck holding the same cards, which shares them with this
+     * deck until either of the two changes
+     * 
+     * @return copy
+     */
+    @Override
+    public SpaceDeck fork() {
+        return (SpaceDeck) super.fork();
     }
 }
@@ -0,0 +1,110 @@
+package selfish.deck;
+
+import java.util.Objects;
+
+/**
+ * Class Zobrist the random keys that game states are hashed with
+ * 
+ * An ordered pile of cards, like a deck or a track, is hashed as the XOR of a
+ * key for every card at its position, so a card put on top or taken off it
+ * changes the hash with one XOR. A hand is a multiset and is hashed as the sum
+ * of a key for every card, so cards go in and out with one addition or
+ * subtraction whatever their order. The keys come from a fixed seed, so every
+ * JVM hashes the same state to the same number.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class Zobrist {
+    private static final int CODES = CardType.COUNT;
+    private static final int POSITIONS = 128;
+    private static final long SEED = 0x5E1F15A5E1F15A5EL;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long[] CARD_KEYS = new long[CODES];
+    private static final long[] POSITION_KEYS = new long[POSITIONS * CODES];
+
+    static {
+        long x = SEED;
+        for (int i = 0; i < CARD_KEYS.length; i++) {
+            CARD_KEYS[i] = mix(x += GOLDEN_GAMMA);
+        }
+        for (int i = 0; i < POSITION_KEYS.length; i++) {
+            POSITION_KEYS[i] = mix(x += GOLDEN_GAMMA);
+        }
+    }
+
+    /**
+     * an empty constructor
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * returns the key of a card in a hand
+     * 
+     * @param card card
+     * @return key
+     */
+    public static long cardKey(Card card) {
+        int code = code(card);
+        if (code < CODES) {
+            return CARD_KEYS[code];
+        }
+        return mix(SEED ^ code);
+    }
+
+    /**
+     * returns the key of a card at a position in a deck or track
+     * 
+     * @param position position from the bottom
+     * @param card     card
+     * @return key
+     */
+    public static long positionKey(int position, Card card) {
+        int code = code(card);
+        if (position < POSITIONS && code < CODES) {
+            return POSITION_KEYS[position * CODES + code];
+        }
+        return mix(mix(SEED + position) ^ code);
+    }
+
+    /**
+     * returns the hash of a part of a game state in the passed slot, so equal
+     * parts in different slots, like the same hand held by two players, hash
+     * differently
+     * 
+     * @param slot slot
+     * @param hash hash of the part
+     * @return hash
+     */
+    public static long slot(int slot, long hash) {
+        return mix(hash + (slot + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * the SplitMix64 output function
+     * 
+     * @param z number to mix
+     * @return mixed number
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * returns the number a card is keyed by: its type id, or for a card of no
+     * known type a number made from its name and description
+     * 
+     * @param card card
+     * @return code
+     */
+    private static int code(Card card) {
+        if (card.getType() != null) {
+            return card.getType().getId();
+        }
+        int text = 31 * Objects.hashCode(card.toString()) + Objects.hashCode(card.getDescription());
+        return CODES + (text & 0x3FFFFFFF);
+    }
+}
@@ -0,0 +1,62 @@
+package selfish.io;
+
+import java.util.*;
+import selfish.Astronaut;
+import selfish.deck.Card;
+
+/**
+ * Class ConsoleIO plays every player on the console
+ * 
+ * All instances share one Scanner over System.in, which is never closed, so
+ * the console can be prompted again on every turn.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class ConsoleIO implements PlayerIO {
+    private static Scanner scanner;
+
+    /**
+     * an empty constructor
+     */
+    public ConsoleIO() {
+    }
+
+    /**
+     * prints a prompt and reads the answer
+     * 
+     * @param prompt prompt
+     * @return line typed, or an empty string at the end of input
+     */
+    public String readLine(String prompt) {
+        System.out.print(prompt);
+        System.out.flush();
+        synchronized (ConsoleIO.class) {
+            if (scanner == null) {
+                scanner = new Scanner(System.in);
+            }
+            return scanner.hasNextLine() ? scanner.nextLine() : "";
+        }
+    }
+
+    @Override
+    public void message(Astronaut player, String text) {
+        System.out.println(text);
+    }
+
+    @Override
+    public boolean ask(Astronaut player, String question) {
+        return readLine(question + " [Y]es or [N]o: ").equalsIgnoreCase("y");
+    }
+
+    @Override
+    public Card choose(Astronaut player, String prompt, List<Card> cards) {
+        System.out.println(prompt);
+        return LinePlayerIO.findCard(cards, readLine(""));
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
+}
@@ -0,0 +1,308 @@
+package selfish.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class GameLog writes structured records of what the games are doing, one
+ * JSON object per line, without making game threads wait for the output
+ * 
+ * Records go into a bounded ring buffer. A game thread claims a slot with one
+ * compare-and-set, fills it in and publishes it; if the ring is full the
+ * record is dropped and counted instead of waiting. A background thread takes
+ * the records out in batches, writes each batch and flushes once. The log is
+ * off until start is called, and records below its level cost one read of a
+ * static field.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class GameLog {
+    /** Slots in the ring buffer */
+    public static final int CAPACITY = 1 << 14;
+    private static final int BATCH = 1024;
+    private static final long IDLE_NANOS = 1_000_000L;
+    private static volatile int threshold = LogLevel.OFF.ordinal();
+    private static volatile GameLog current;
+
+    private final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private final long[] times = new long[CAPACITY];
+    private final LogLevel[] levels = new LogLevel[CAPACITY];
+    private final String[] events = new String[CAPACITY];
+    private final int[] games = new int[CAPACITY];
+    private final int[] seats = new int[CAPACITY];
+    private final String[] details = new String[CAPACITY];
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Writer out;
+    private final boolean closeOut;
+    private final Thread writer;
+    private volatile boolean stopping;
+    private long head;
+
+    /**
+     * GameLog constructor
+     * 
+     * @param out      stream to write to
+     * @param closeOut true to close the stream when the log stops
+     */
+    private GameLog(OutputStream out, boolean closeOut) {
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.closeOut = closeOut;
+        this.writer = new Thread(this::drain, "selfish-log");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * starts logging the records at or above the passed level to a stream,
+     * which is left open when the log stops
+     * 
+     * @param out   stream to write to
+     * @param level lowest level to log
+     */
+    public static synchronized void start(OutputStream out, LogLevel level) {
+        start(new GameLog(out, false), level);
+    }
+
+    /**
+     * starts logging the records at or above the passed level to the end of
+     * a file
+     * 
+     * @param path  path of the log file
+     * @param level lowest level to log
+     * @throws IOException file could not be opened
+     */
+    public static synchronized void start(String path, LogLevel level) throws IOException {
+        start(new GameLog(new FileOutputStream(path, true), true), level);
+    }
+
+    /**
+     * starts logging to the file named by the selfish.log system property,
+     * at the level named by selfish.log.level (INFO by default)
+     * 
+     * @return false if selfish.log is not set
+     * @throws IOException file could not be opened
+     */
+    public static synchronized boolean startFromProperties() throws IOException {
+        String path = System.getProperty("selfish.log");
+        if (path == null) {
+            return false;
+        }
+        start(path, LogLevel.valueOf(System.getProperty("selfish.log.level", "INFO").toUpperCase()));
+        return true;
+    }
+
+    /**
+     * stops logging, after writing every record already logged
+     */
+    public static synchronized void stop() {
+        GameLog log = current;
+        threshold = LogLevel.OFF.ordinal();
+        current = null;
+        if (log == null) {
+            return;
+        }
+        log.stopping = true;
+        LockSupport.unpark(log.writer);
+        try {
+            log.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * changes the lowest level logged
+     * 
+     * @param level level
+     */
+    public static synchronized void setLevel(LogLevel level) {
+        if (current != null) {
+            threshold = level.ordinal();
+        }
+    }
+
+    /**
+     * returns true if records of the passed level are being logged; callers
+     * that build a detail string should check this first
+     * 
+     * @param level level
+     * @return boolean
+     */
+    public static boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= threshold;
+    }
+
+    /**
+     * logs a record, or drops it if the ring buffer is full
+     * 
+     * @param level  level
+     * @param event  what happened, like turn_start
+     * @param game   number telling the game apart from the others
+     * @param seat   seat of the player, or -1
+     * @param detail more about the event, or null
+     */
+    public static void log(LogLevel level, String event, int game, int seat, String detail) {
+        if (level.ordinal() < threshold) {
+            return;
+        }
+        GameLog log = current;
+        if (log != null) {
+            log.offer(level, event, game, seat, detail);
+        }
+    }
+
+    /**
+     * returns the number of records dropped because the ring buffer was full
+     * since the log started
+     * 
+     * @return records, or 0 if the log is off
+     */
+    public static long getDropped() {
+        GameLog log = current;
+        return log == null ? 0 : log.dropped.sum();
+    }
+
+    /**
+     * replaces the running log, if any
+     * 
+     * @param log   new log
+     * @param level lowest level to log
+     */
+    private static void start(GameLog log, LogLevel level) {
+        stop();
+        log.writer.start();
+        current = log;
+        threshold = level.ordinal();
+    }
+
+    /**
+     * claims a slot, fills it in and publishes it
+     * 
+     * @param level  level
+     * @param event  event
+     * @param game   game
+     * @param seat   seat
+     * @param detail detail
+     */
+    private void offer(LogLevel level, String event, int game, int seat, String detail) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & (CAPACITY - 1));
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (lag < 0) {
+                // the slot still holds a record from one lap ago: the ring is full
+                dropped.increment();
+                return;
+            }
+            // lag > 0: another producer took the slot after tail was read
+        }
+        times[index] = System.currentTimeMillis();
+        levels[index] = level;
+        events[index] = event;
+        games[index] = game;
+        seats[index] = seat;
+        details[index] = detail;
+        sequences.lazySet(index, position + 1);
+    }
+
+    /**
+     * takes records out in batches and writes them until the log stops
+     */
+    private void drain() {
+        StringBuilder line = new StringBuilder(128);
+        while (true) {
+            boolean finishing = stopping;
+            int written = 0;
+            try {
+                while (written < BATCH && take(line)) {
+                    out.append(line);
+                    written++;
+                }
+                if (written > 0) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                dropped.add(written);
+            }
+            if (finishing && written == 0) {
+                break;
+            }
+            if (written == 0) {
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        }
+        try {
+            out.flush();
+            if (closeOut) {
+                out.close();
+            }
+        } catch (IOException e) {
+            return;
+        }
+    }
+
+    /**
+     * takes the next record, if it has been published, and formats it
+     * 
+     * @param line builder to format the record into
+     * @return false if there is no record to take
+     */
+    private boolean take(StringBuilder line) {
+        int index = (int) (head & (CAPACITY - 1));
+        if (sequences.get(index) != head + 1) {
+            return false;
+        }
+        line.setLength(0);
+        line.append("{\"time\":").append(times[index]);
+        line.append(",\"level\":\"").append(levels[index]).append('"');
+        line.append(",\"event\":");
+        quote(line, events[index]);
+        line.append(",\"game\":").append(games[index]);
+        if (seats[index] >= 0) {
+            line.append(",\"seat\":").append(seats[index]);
+        }
+        if (details[index] != null) {
+            line.append(",\"detail\":");
+            quote(line, details[index]);
+        }
+        line.append('}').append(System.lineSeparator());
+        events[index] = null;
+        details[index] = null;
+        sequences.lazySet(index, head + CAPACITY);
+        head++;
+        return true;
+    }
+
+    /**
+     * appends a string as a JSON string
+     * 
+     * @param line builder to append to
+     * @param text string
+     */
+    private static void quote(StringBuilder line, String text) {
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
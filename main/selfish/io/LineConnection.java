@@ -0,0 +1,190 @@
+package selfish.io;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Class LineConnection one remote player connected to a LineServer
+ * 
+ * The game thread appends lines to an output buffer and flushes it as one
+ * block; the server's selector thread does the reading and writing, so the
+ * socket never blocks the game.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class LineConnection {
+    /** Longest line a player may send, in bytes; longer lines close the connection */
+    public static final int MAX_LINE = 4096;
+    /** Most lines a player may send ahead of the prompts; more close the connection */
+    public static final int MAX_PENDING_LINES = 16;
+    private static final String CLOSED = new String("closed");
+    private final LineServer server;
+    private final SocketChannel channel;
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+    // one more than MAX_PENDING_LINES, so that CLOSED always fits
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<String>(MAX_PENDING_LINES + 1);
+    private final Queue<ByteBuffer> writes = new ConcurrentLinkedQueue<ByteBuffer>();
+    private final StringBuilder output = new StringBuilder();
+    private volatile String name;
+    private volatile boolean open = true;
+
+    /**
+     * LineConnection constructor
+     * 
+     * @param server  server that accepted the connection
+     * @param channel socket
+     */
+    LineConnection(LineServer server, SocketChannel channel) {
+        this.server = server;
+        this.channel = channel;
+    }
+
+    /**
+     * returns the name the player sent as their first line
+     * 
+     * @return name, or null if it has not arrived yet
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * returns true until the player disconnects or the connection is closed
+     * 
+     * @return boolean
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * adds a line to the output buffer
+     * 
+     * @param line line without the line break
+     */
+    public void append(String line) {
+        synchronized (output) {
+            output.append(line).append('\n');
+        }
+    }
+
+    /**
+     * sends the output buffer in one write
+     */
+    public void flush() {
+        ByteBuffer block;
+        synchronized (output) {
+            if (output.length() == 0 || !open) {
+                return;
+            }
+            block = ByteBuffer.wrap(output.toString().getBytes(StandardCharsets.UTF_8));
+            output.setLength(0);
+        }
+        writes.add(block);
+        server.requestWrite(this);
+    }
+
+    /**
+     * waits for the next line from the player
+     * 
+     * @return line, or null if the player disconnected
+     * @throws InterruptedException interrupted while waiting
+     */
+    public String readLine() throws InterruptedException {
+        if (!open && lines.isEmpty()) {
+            return null;
+        }
+        String line = lines.take();
+        if (line == CLOSED) {
+            lines.add(CLOSED);
+            return null;
+        }
+        return line;
+    }
+
+    /**
+     * closes the connection
+     */
+    public void close() {
+        if (open) {
+            open = false;
+            lines.add(CLOSED);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+
+    /**
+     * returns the socket
+     * 
+     * @return socket
+     */
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * splits the bytes read into lines; the first line is the player's name.
+     * A line longer than MAX_LINE, or more than MAX_PENDING_LINES lines not yet
+     * read by the game, close the connection, so a player cannot fill the
+     * server's memory with one endless line or with a flood of short ones
+     * 
+     * @param buffer bytes read, ready to be drained
+     * @return true if the name arrived with these bytes
+     */
+    boolean received(ByteBuffer buffer) {
+        boolean nameArrived = false;
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b != '\n') {
+                if (partialLine.size() >= MAX_LINE) {
+                    partialLine.reset();
+                    close();
+                    return nameArrived;
+                }
+                partialLine.write(b);
+                continue;
+            }
+            String line = new String(partialLine.toByteArray(), StandardCharsets.UTF_8);
+            partialLine.reset();
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+            if (name == null) {
+                name = line.trim();
+                nameArrived = true;
+            } else if (lines.size() < MAX_PENDING_LINES) {
+                lines.add(line);
+            } else {
+                close();
+                return nameArrived;
+            }
+        }
+        return nameArrived;
+    }
+
+    /**
+     * writes as much of the flushed output as the socket takes
+     * 
+     * @return true if everything was written
+     * @throws IOException socket error
+     */
+    boolean writePending() throws IOException {
+        ByteBuffer[] blocks = writes.toArray(new ByteBuffer[0]);
+        if (blocks.length > 0) {
+            channel.write(blocks);
+        }
+        while (!writes.isEmpty() && !writes.peek().hasRemaining()) {
+            writes.poll();
+        }
+        return writes.isEmpty();
+    }
+}
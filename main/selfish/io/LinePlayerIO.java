@@ -0,0 +1,113 @@
+package selfish.io;
+
+import java.util.*;
+import selfish.Astronaut;
+import selfish.deck.Card;
+
+/**
+ * Class LinePlayerIO plays a game with remote players connected to a
+ * LineServer
+ * 
+ * Messages are buffered per player and sent when a prompt needs an answer or
+ * the turn ends, so a turn's output goes out in a single write. Prompts are
+ * sent as lines starting with "? ".
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class LinePlayerIO implements PlayerIO {
+    private final Map<String, LineConnection> connections = new LinkedHashMap<String, LineConnection>();
+
+    /**
+     * LinePlayerIO constructor
+     * 
+     * @param players connections of the players, named like the astronauts
+     */
+    public LinePlayerIO(Collection<LineConnection> players) {
+        for (LineConnection connection : players) {
+            connections.put(connection.getName(), connection);
+        }
+    }
+
+    @Override
+    public void message(Astronaut player, String text) {
+        if (player == null) {
+            for (LineConnection connection : connections.values()) {
+                connection.append(text);
+            }
+        } else {
+            LineConnection connection = connections.get(player.getName());
+            if (connection != null) {
+                connection.append(text);
+            }
+        }
+    }
+
+    @Override
+    public boolean ask(Astronaut player, String question) {
+        String answer = prompt(player, question + " [y/n]");
+        return answer != null && answer.trim().equalsIgnoreCase("y");
+    }
+
+    @Override
+    public Card choose(Astronaut player, String prompt, List<Card> cards) {
+        StringBuilder options = new StringBuilder(prompt);
+        for (int i = 0; i < cards.size(); i++) {
+            options.append(i == 0 ? " " : ", ").append(i + 1).append(". ").append(cards.get(i));
+        }
+        String answer = prompt(player, options.toString());
+        return answer == null ? null : findCard(cards, answer);
+    }
+
+    @Override
+    public void flush() {
+        for (LineConnection connection : connections.values()) {
+            connection.flush();
+        }
+    }
+
+    /**
+     * sends every buffered message and a prompt, then waits for the answer
+     * 
+     * @param player player to ask
+     * @param prompt prompt
+     * @return answer, or null if the player is not connected
+     */
+    private String prompt(Astronaut player, String prompt) {
+        LineConnection connection = connections.get(player.getName());
+        if (connection == null || !connection.isOpen()) {
+            return null;
+        }
+        connection.append("? " + prompt);
+        flush();
+        try {
+            return connection.readLine();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * returns the card named by an answer, given as a card name or its
+     * position in the list starting from 1
+     * 
+     * @param cards  cards to choose from
+     * @param answer answer
+     * @return card, or null if the answer names none of them
+     */
+    static Card findCard(List<Card> cards, String answer) {
+        String trimmedAnswer = answer.trim();
+        for (Card card : cards) {
+            if (card.toString().equalsIgnoreCase(trimmedAnswer)) {
+                return card;
+            }
+        }
+        try {
+            int position = Integer.parseInt(trimmedAnswer);
+            return position >= 1 && position <= cards.size() ? cards.get(position - 1) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package selfish.io;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Class LineServer a TCP server speaking a line protocol, with a single
+ * selector thread doing the reads and writes of every connection
+ * 
+ * A client's first line is its player name; the connection then waits in
+ * the lobby until a game takes it with awaitPlayer. After that every line it
+ * sends is an answer to a prompt. A client arriving while MAX_LOBBY players
+ * already wait is disconnected.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class LineServer implements Runnable, Closeable {
+    /** Most named players waiting for a game; more are disconnected */
+    public static final int MAX_LOBBY = 64;
+    private static final int READ_BUFFER_SIZE = 4096;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final BlockingQueue<LineConnection> lobby = new LinkedBlockingQueue<LineConnection>(MAX_LOBBY);
+    private final Queue<LineConnection> writeRequests = new ConcurrentLinkedQueue<LineConnection>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private volatile boolean running = true;
+
+    /**
+     * LineServer constructor
+     * 
+     * @param port port to listen on, or 0 for any free port
+     * @throws IOException port could not be opened
+     */
+    public LineServer(int port) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * returns the port the server listens on
+     * 
+     * @return port
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * starts the selector thread
+     * 
+     * @return thread
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "line-server-" + getPort());
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * waits for the next player who has sent their name
+     * 
+     * @return connection
+     * @throws InterruptedException interrupted while waiting
+     */
+    public LineConnection awaitPlayer() throws InterruptedException {
+        return lobby.take();
+    }
+
+    /**
+     * runs the selector loop until the server is closed
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                LineConnection requested;
+                while ((requested = writeRequests.poll()) != null) {
+                    write(requested);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        LineConnection connection = (LineConnection) key.attachment();
+                        if (key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(connection);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            running = false;
+        }
+    }
+
+    /**
+     * stops the selector thread and closes every connection
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof LineConnection) {
+                ((LineConnection) key.attachment()).close();
+            }
+        }
+        serverChannel.close();
+        selector.close();
+    }
+
+    /**
+     * asks the selector thread to write a connection's flushed output
+     * 
+     * @param connection connection with output waiting
+     */
+    void requestWrite(LineConnection connection) {
+        writeRequests.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * accepts a new connection
+     * 
+     * @throws IOException socket error
+     */
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        LineConnection connection = new LineConnection(this, channel);
+        channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    /**
+     * reads what a connection sent
+     * 
+     * @param connection connection
+     */
+    private void read(LineConnection connection) {
+        try {
+            readBuffer.clear();
+            int bytesRead = connection.getChannel().read(readBuffer);
+            if (bytesRead < 0) {
+                connection.close();
+                return;
+            }
+            readBuffer.flip();
+            boolean lobbyFull = connection.received(readBuffer) && !lobby.offer(connection);
+            if (lobbyFull) {
+                connection.close();
+            }
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    /**
+     * writes a connection's output, and waits for the socket to be writable
+     * again if it did not take everything
+     * 
+     * @param connection connection
+     */
+    private void write(LineConnection connection) {
+        SelectionKey key = connection.getChannel().keyFor(selector);
+        if (key == null || !key.isValid()) {
+            return;
+        }
+        try {
+            if (connection.writePending()) {
+                key.interestOps(SelectionKey.OP_READ);
+            } else {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package selfish.io;
+
+/**
+ * Enum LogLevel how important a GameLog record is
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public enum LogLevel {
+    /** Diagnostics, like the sizes of the decks being merged */
+    DEBUG,
+    /** Turns and deaths */
+    INFO,
+    /** Exceptions */
+    WARN,
+    /** Failures */
+    ERROR,
+    /** Nothing is logged */
+    OFF;
+}
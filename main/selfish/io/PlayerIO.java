@@ -0,0 +1,60 @@
+package selfish.io;
+
+import java.util.*;
+import selfish.Astronaut;
+import selfish.deck.Card;
+
+/**
+ * Interface PlayerIO the prompts and messages the game engine sends to its
+ * players
+ * 
+ * Messages may be buffered until flush is called or a prompt needs an
+ * answer, so a turn's output can be sent in one go.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public interface PlayerIO {
+
+    /**
+     * tells a player something
+     * 
+     * @param player player to tell, or null for every player
+     * @param text   message
+     */
+    void message(Astronaut player, String text);
+
+    /**
+     * asks a player a yes or no question
+     * 
+     * @param player   player to ask
+     * @param question question
+     * @return true if the player answered yes
+     */
+    boolean ask(Astronaut player, String question);
+
+    /**
+     * asks a player to pick one of the passed cards
+     * 
+     * @param player player to ask
+     * @param prompt question
+     * @param cards  cards to choose from
+     * @return chosen card, or null if the player chose none
+     */
+    Card choose(Astronaut player, String prompt, List<Card> cards);
+
+    /**
+     * sends any buffered messages
+     */
+    void flush();
+
+    /**
+     * returns true if a player may answer prompts; the engine skips prompts
+     * nobody would answer
+     * 
+     * @return boolean
+     */
+    default boolean isInteractive() {
+        return true;
+    }
+}
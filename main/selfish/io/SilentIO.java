@@ -0,0 +1,46 @@
+package selfish.io;
+
+import java.util.*;
+import selfish.Astronaut;
+import selfish.deck.Card;
+
+/**
+ * Class SilentIO drops every message and declines every prompt, for games
+ * played without anyone watching
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class SilentIO implements PlayerIO {
+    /** The only instance */
+    public static final SilentIO INSTANCE = new SilentIO();
+
+    /**
+     * an empty constructor
+     */
+    private SilentIO() {
+    }
+
+    @Override
+    public void message(Astronaut player, String text) {
+    }
+
+    @Override
+    public boolean ask(Astronaut player, String question) {
+        return false;
+    }
+
+    @Override
+    public Card choose(Astronaut player, String prompt, List<Card> cards) {
+        return null;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public boolean isInteractive() {
+        return false;
+    }
+}
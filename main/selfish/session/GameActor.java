@@ -0,0 +1,189 @@
+package selfish.session;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Function;
+import selfish.Astronaut;
+import selfish.GameEngine;
+
+/**
+ * Class GameActor gives any number of threads access to one game without
+ * locks
+ * 
+ * Commands from any thread go on a lock-free queue and are played one at a
+ * time, in the order they were queued, by whichever executor thread is
+ * draining the queue; only one thread drains it at once, so the game has a
+ * single writer and needs no locks of its own. After every command the actor
+ * publishes a new GameSnapshot, and readers only ever see snapshots, so they
+ * never wait for a command or hold one up.
+ * 
+ * No thread is kept waiting on an idle game: the queue is drained by a task
+ * submitted to the executor when the first command arrives, and the task
+ * ends once the queue is empty. A busy game gives its thread up after
+ * THROUGHPUT commands and is drained again by a new task, so one game cannot
+ * hold an executor thread for good.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class GameActor {
+    /** Most commands played by one task before the thread is given up */
+    public static final int THROUGHPUT = 64;
+    private final GameEngine game;
+    private final Executor executor;
+    private final Queue<Command<?>> commands = new ConcurrentLinkedQueue<Command<?>>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Runnable drain = this::drain;
+    private volatile GameSnapshot snapshot;
+    private long version;
+
+    /**
+     * GameActor constructor; the game must not be touched other than through
+     * the actor from now on
+     * 
+     * @param game     game
+     * @param executor executor that plays the commands
+     */
+    public GameActor(GameEngine game, Executor executor) {
+        this.game = game;
+        this.executor = executor;
+        this.snapshot = new GameSnapshot(game, 0);
+    }
+
+    /**
+     * queues a command; it is played on the game after every command queued
+     * before it
+     * 
+     * @param <T>     type of the result
+     * @param command command, given the game
+     * @return result of the command, or the exception it threw
+     */
+    public <T> CompletableFuture<T> submit(Function<GameEngine, T> command) {
+        Command<T> queued = new Command<T>(command);
+        commands.add(queued);
+        if (pending.getAndIncrement() == 0) {
+            executor.execute(drain);
+        }
+        return queued.result;
+    }
+
+    /**
+     * queues one turn of the current player, or of the next player if no turn
+     * has started, like GameSession does; the turn is not played if it was
+     * sent by someone else or is not legal
+     * 
+     * @param player  name of the player sending the command, or null for
+     *                whoever is playing
+     * @param command GameSession.TRAVEL or GameSession.BREATHE
+     * @return true once the turn was played
+     */
+    public CompletableFuture<Boolean> playTurn(String player, String command) {
+        return submit(game -> {
+            if (game.gameOver()) {
+                return false;
+            }
+            if (game.getCurrentPlayer() == null) {
+                game.startTurn();
+            }
+            Astronaut astronaut = game.getCurrentPlayer();
+            boolean wrongPlayer = player != null && !player.equals(astronaut.getName());
+            if (wrongPlayer) {
+                return false;
+            }
+            if (GameSession.TRAVEL.equalsIgnoreCase(command)) {
+                boolean canTravel = astronaut.oxygenRemaining() >= 2 && game.getSpaceDeck().size() > 0;
+                if (!canTravel) {
+                    return false;
+                }
+                game.travel(astronaut);
+            } else if (GameSession.BREATHE.equalsIgnoreCase(command)) {
+                astronaut.breathe();
+            } else {
+                return false;
+            }
+            game.endTurn();
+            return true;
+        });
+    }
+
+    /**
+     * returns the snapshot published after the last command played
+     * 
+     * @return snapshot
+     */
+    public GameSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * returns the number of commands queued and not yet played
+     * 
+     * @return number of commands
+     */
+    public int getPendingCommands() {
+        return pending.get();
+    }
+
+    /**
+     * plays queued commands until the queue is empty or THROUGHPUT commands
+     * were played; runs on one executor thread at a time
+     */
+    private void drain() {
+        for (int played = 0; played < THROUGHPUT; played++) {
+            Command<?> command = commands.poll();
+            command.play(game);
+            snapshot = new GameSnapshot(game, ++version);
+            command.complete();
+            if (pending.decrementAndGet() == 0) {
+                return;
+            }
+        }
+        executor.execute(drain);
+    }
+
+    /**
+     * Class Command a queued command and the future of its result
+     * 
+     * @param <T> type of the result
+     */
+    private static final class Command<T> {
+        private final Function<GameEngine, T> action;
+        private final CompletableFuture<T> result = new CompletableFuture<T>();
+        private T value;
+        private Throwable failure;
+
+        /**
+         * Command constructor
+         * 
+         * @param action command, given the game
+         */
+        Command(Function<GameEngine, T> action) {
+            this.action = action;
+        }
+
+        /**
+         * plays the command on the game, keeping its result
+         * 
+         * @param game game
+         */
+        void play(GameEngine game) {
+            try {
+                value = action.apply(game);
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            }
+        }
+
+        /**
+         * completes the future, after the snapshot of the game was published
+         */
+        void complete() {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package selfish.session;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import selfish.Astronaut;
+import selfish.GameEngine;
+import selfish.GameListener;
+
+/**
+ * Class GameSession one game hosted by a SessionManager
+ * 
+ * The game is only touched by the thread running the session. Players talk to
+ * it by queueing commands; the thread parks on the queue between commands, so
+ * an idle game costs a parked thread and its game state.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class GameSession implements Runnable, GameListener {
+    /** Command that moves the current player forward by one space */
+    public static final String TRAVEL = "travel";
+    /** Command that makes the current player breathe */
+    public static final String BREATHE = "breathe";
+    /** Number of commands that can wait in the queue */
+    public static final int MAX_PENDING = 16;
+    private final long id;
+    private final GameEngine game;
+    private final BlockingQueue<String[]> inputs = new LinkedBlockingQueue<String[]>(MAX_PENDING);
+    private final LongAdder turnsPlayed;
+    private volatile SessionState state = SessionState.STARTING;
+    private volatile String currentPlayer;
+    private volatile String winner;
+    private volatile int turns;
+    private volatile Future<?> future;
+
+    /**
+     * GameSession constructor
+     * 
+     * @param id          id of the session
+     * @param game        game with its players added, not started
+     * @param turnsPlayed counter shared by every session of the manager
+     */
+    GameSession(long id, GameEngine game, LongAdder turnsPlayed) {
+        this.id = id;
+        this.game = game;
+        this.turnsPlayed = turnsPlayed;
+        game.addGameListener(this);
+    }
+
+    /**
+     * returns the id of the session
+     * 
+     * @return id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * returns the state of the session
+     * 
+     * @return state
+     */
+    public SessionState getState() {
+        return state;
+    }
+
+    /**
+     * returns the name of the player whose turn it is
+     * 
+     * @return player name, or null between turns
+     */
+    public String getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    /**
+     * returns the name of the winner
+     * 
+     * @return winner, or null if the game is not over or nobody won
+     */
+    public String getWinner() {
+        return winner;
+    }
+
+    /**
+     * returns the number of turns played
+     * 
+     * @return number of turns
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * returns the number of commands waiting to be played
+     * 
+     * @return number of commands
+     */
+    public int getPendingCommands() {
+        return inputs.size();
+    }
+
+    /**
+     * queues a command for the current player; commands from anyone else, or
+     * that are not legal when they are played, are dropped
+     * 
+     * @param player  name of the player sending the command, or null for
+     *                whoever is playing
+     * @param command TRAVEL or BREATHE
+     * @return true if the command was queued
+     */
+    public boolean submit(String player, String command) {
+        if (command == null || state.isDone()) {
+            return false;
+        }
+        return inputs.offer(new String[] { player, command });
+    }
+
+    /**
+     * plays the game until it is over or the session is retired
+     */
+    @Override
+    public void run() {
+        try {
+            game.startGame();
+            while (!game.gameOver()) {
+                game.startTurn();
+                Astronaut astronaut = game.getCurrentPlayer();
+                currentPlayer = astronaut.getName();
+                boolean turnPlayed = false;
+                while (!turnPlayed) {
+                    state = SessionState.WAITING;
+                    String[] input = inputs.take();
+                    state = SessionState.RUNNING;
+                    turnPlayed = play(astronaut, input[0], input[1]);
+                }
+                game.endTurn();
+                currentPlayer = null;
+                turns++;
+                turnsPlayed.increment();
+            }
+            state = SessionState.FINISHED;
+        } catch (InterruptedException e) {
+            state = SessionState.RETIRED;
+        } catch (RuntimeException e) {
+            state = SessionState.FAILED;
+        }
+    }
+
+    /**
+     * records the winner as soon as the game is over
+     * 
+     * @param game   game
+     * @param winner winner, or null
+     */
+    @Override
+    public void gameOver(GameEngine game, Astronaut winner) {
+        this.winner = winner == null ? null : winner.getName();
+    }
+
+    /**
+     * plays one command for the current player
+     * 
+     * @param astronaut current player
+     * @param player    name of the player who sent the command, or null
+     * @param command   command
+     * @return true if the command ended the player's turn
+     */
+    private boolean play(Astronaut astronaut, String player, String command) {
+        boolean wrongPlayer = player != null && !player.equals(astronaut.getName());
+        if (wrongPlayer) {
+            return false;
+        }
+        if (command.equalsIgnoreCase(TRAVEL)) {
+            boolean canTravel = astronaut.oxygenRemaining() >= 2 && game.getSpaceDeck().size() > 0;
+            if (!canTravel) {
+                return false;
+            }
+            game.travel(astronaut);
+            return true;
+        } else if (command.equalsIgnoreCase(BREATHE)) {
+            astronaut.breathe();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * sets the future of the thread running the session
+     * 
+     * @param future future
+     */
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * stops the thread running the session
+     */
+    void retire() {
+        if (future != null) {
+            future.cancel(true);
+        }
+        if (!state.isDone()) {
+            state = SessionState.RETIRED;
+        }
+    }
+}
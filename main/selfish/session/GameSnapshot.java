@@ -0,0 +1,212 @@
+package selfish.session;
+
+import java.util.*;
+import selfish.Astronaut;
+import selfish.GameEngine;
+
+/**
+ * Class GameSnapshot what a game looked like after a command was played, for
+ * spectators and clients to read while the game moves on
+ * 
+ * A snapshot never changes once made and holds no reference to the game, so
+ * it can be read from any thread.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class GameSnapshot {
+    private final long version;
+    private final boolean over;
+    private final String currentPlayer;
+    private final String winner;
+    private final List<Player> players;
+    private final int gameDeckSize;
+    private final int spaceDeckSize;
+    private final long stateHash;
+
+    /**
+     * takes a snapshot of a game; only the thread playing the game may call it
+     * 
+     * @param game    game
+     * @param version number of commands played on the game so far
+     */
+    GameSnapshot(GameEngine game, long version) {
+        this.version = version;
+        this.over = game.gameOver();
+        Astronaut current = game.getCurrentPlayer();
+        this.currentPlayer = current == null ? null : current.getName();
+        Astronaut winningPlayer = game.getWinner();
+        this.winner = winningPlayer == null ? null : winningPlayer.getName();
+        List<Astronaut> astronauts = game.getAllPlayers();
+        Player[] views = new Player[astronauts.size()];
+        for (int i = 0; i < views.length; i++) {
+            views[i] = new Player(astronauts.get(i));
+        }
+        this.players = Collections.unmodifiableList(Arrays.asList(views));
+        this.gameDeckSize = game.getGameDeck().size();
+        this.spaceDeckSize = game.getSpaceDeck().size();
+        this.stateHash = game.stateHash();
+    }
+
+    /**
+     * returns the number of commands played before the snapshot was taken
+     * 
+     * @return version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * returns true if the game was over
+     * 
+     * @return boolean
+     */
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * returns the name of the player whose turn it was
+     * 
+     * @return player name, or null between turns
+     */
+    public String getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    /**
+     * returns the name of the winner
+     * 
+     * @return winner, or null if the game was not over or nobody won
+     */
+    public String getWinner() {
+        return winner;
+    }
+
+    /**
+     * returns the players, in the order of GameEngine.getAllPlayers()
+     * 
+     * @return read-only list of players
+     */
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    /**
+     * returns the number of cards in the game deck
+     * 
+     * @return number of cards
+     */
+    public int getGameDeckSize() {
+        return gameDeckSize;
+    }
+
+    /**
+     * returns the number of cards in the space deck
+     * 
+     * @return number of cards
+     */
+    public int getSpaceDeckSize() {
+        return spaceDeckSize;
+    }
+
+    /**
+     * returns GameEngine.stateHash() of the game
+     * 
+     * @return hash
+     */
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    @Override
+    public String toString() {
+        return "GameSnapshot v" + version + " " + players;
+    }
+
+    /**
+     * Class Player what a player looked like in a snapshot
+     */
+    public static final class Player {
+        private final String name;
+        private final int seat;
+        private final boolean alive;
+        private final int oxygen;
+        private final int distanceFromShip;
+        private final int actionCards;
+
+        /**
+         * Player constructor
+         * 
+         * @param astronaut player to copy
+         */
+        private Player(Astronaut astronaut) {
+            this.name = astronaut.getName();
+            this.seat = astronaut.getSeat();
+            this.alive = astronaut.isAlive();
+            this.oxygen = astronaut.oxygenRemaining();
+            this.distanceFromShip = astronaut.distanceFromShip();
+            this.actionCards = astronaut.getActions().size();
+        }
+
+        /**
+         * returns the player's name
+         * 
+         * @return name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * returns the player's seat
+         * 
+         * @return seat
+         */
+        public int getSeat() {
+            return seat;
+        }
+
+        /**
+         * returns true if the player was alive
+         * 
+         * @return boolean
+         */
+        public boolean isAlive() {
+            return alive;
+        }
+
+        /**
+         * returns the oxygen the player had left
+         * 
+         * @return oxygen
+         */
+        public int getOxygen() {
+            return oxygen;
+        }
+
+        /**
+         * returns the player's distance from the ship
+         * 
+         * @return distance
+         */
+        public int getDistanceFromShip() {
+            return distanceFromShip;
+        }
+
+        /**
+         * returns the number of action cards the player held
+         * 
+         * @return number of cards
+         */
+        public int getActionCards() {
+            return actionCards;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + oxygen + " oxygen, " + distanceFromShip + " from ship)";
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package selfish.session;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import selfish.GameEngine;
+import selfish.GameException;
+import selfish.GameListener;
+
+/**
+ * Class SessionManager hosts many games in one JVM, each played by its own
+ * thread
+ * 
+ * On a JVM with virtual threads every session gets a virtual thread, so a
+ * game waiting for its players parks without holding a carrier thread. On
+ * older JVMs sessions fall back to a cached pool of platform threads, one per
+ * running session; the pool cannot be bounded, since a session keeps its
+ * thread while it waits for its players and sessions past the bound would
+ * never start.
+ * 
+ * A session is forgotten as soon as its game ends or it is retired; whoever
+ * created it keeps the GameSession to read how it ended.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class SessionManager {
+    private final String actionCardsPath;
+    private final String spaceCardsPath;
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<Long, GameSession>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final LongAdder turnsPlayed = new LongAdder();
+    private final List<GameListener> listeners = new CopyOnWriteArrayList<GameListener>();
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    /**
+     * SessionManager constructor
+     * 
+     * @param actionCardsPath path to the action cards text file
+     * @param spaceCardsPath  path to the space cards text file
+     */
+    public SessionManager(String actionCardsPath, String spaceCardsPath) {
+        this.actionCardsPath = actionCardsPath;
+        this.spaceCardsPath = spaceCardsPath;
+        ExecutorService virtualExecutor = null;
+        try {
+            virtualExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // no virtual threads before Java 21
+        }
+        this.virtualThreads = virtualExecutor != null;
+        this.executor = virtualThreads ? virtualExecutor : Executors.newCachedThreadPool();
+    }
+
+    /**
+     * creates a game with the passed players and starts its thread
+     * 
+     * @param seed    seed of the game
+     * @param players player names
+     * @return session
+     * @throws GameException card files not found
+     */
+    public GameSession create(long seed, String... players) throws GameException {
+        GameEngine game = new GameEngine(seed, actionCardsPath, spaceCardsPath);
+        game.setHeadless(true);
+        for (String player : players) {
+            game.addPlayer(player);
+        }
+        for (GameListener listener : listeners) {
+            game.addGameListener(listener);
+        }
+        GameSession session = new GameSession(nextId.getAndIncrement(), game, turnsPlayed);
+        sessions.put(session.getId(), session);
+        session.setFuture(executor.submit(() -> {
+            try {
+                session.run();
+            } finally {
+                sessions.remove(session.getId());
+            }
+        }));
+        return session;
+    }
+
+    /**
+     * subscribes to the end of every game created from now on; the listener
+     * is called on the thread of the session whose game ended
+     * 
+     * @param listener listener
+     */
+    public void addGameListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * returns the session with the passed id
+     * 
+     * @param id id of the session
+     * @return session, or null if there is none or it has ended
+     */
+    public GameSession get(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * stops a session and forgets it
+     * 
+     * @param id id of the session
+     * @return retired session, or null if there is none
+     */
+    public GameSession retire(long id) {
+        GameSession session = sessions.remove(id);
+        if (session != null) {
+            session.retire();
+        }
+        return session;
+    }
+
+    /**
+     * returns every session still playing
+     * 
+     * @return sessions
+     */
+    public Collection<GameSession> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    /**
+     * returns the number of sessions still playing
+     * 
+     * @return number of sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * returns the number of turns played by every session so far
+     * 
+     * @return number of turns
+     */
+    public long getTurnsPlayed() {
+        return turnsPlayed.sum();
+    }
+
+    /**
+     * returns true if sessions run on virtual threads
+     * 
+     * @return boolean
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * returns the kind of executor the sessions run on, for reports
+     * 
+     * @return description
+     */
+    public String describeExecutor() {
+        String executorName = virtualThreads ? "newVirtualThreadPerTaskExecutor" : "newCachedThreadPool";
+        return executorName + " on Java " + Runtime.version().feature();
+    }
+
+    /**
+     * retires every session and stops the threads
+     */
+    public void shutdown() {
+        for (Long id : new ArrayList<Long>(sessions.keySet())) {
+            retire(id);
+        }
+        executor.shutdownNow();
+    }
+}
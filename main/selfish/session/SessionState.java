@@ -0,0 +1,31 @@
+package selfish.session;
+
+/**
+ * Enum SessionState the life cycle of a game session
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public enum SessionState {
+    /** Created, the game thread has not picked it up yet */
+    STARTING,
+    /** Playing a command */
+    RUNNING,
+    /** Parked until the current player sends a command */
+    WAITING,
+    /** The game is over */
+    FINISHED,
+    /** Retired before the game was over */
+    RETIRED,
+    /** The game thread stopped on an unexpected exception */
+    FAILED;
+
+    /**
+     * returns true if the session will not play any more turns
+     * 
+     * @return boolean
+     */
+    public boolean isDone() {
+        return this == FINISHED || this == RETIRED || this == FAILED;
+    }
+}
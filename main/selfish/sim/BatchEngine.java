@@ -0,0 +1,687 @@
+package selfish.sim;
+
+import java.util.Arrays;
+import selfish.EventType;
+import selfish.GameException;
+import selfish.deck.*;
+
+/**
+ * Class BatchEngine plays a batch of games of scripted players side by side,
+ * advancing every game that is not over by one turn at a time
+ * 
+ * The games are kept in primitive arrays indexed by game, instead of one
+ * object graph per game: the decks as bytes of card type ids from the bottom
+ * up, and for every seat the count of each card type in hand, the oxygen
+ * total and the length of the track, with a bitmask of the seats still
+ * alive. Each game carries the state of its shuffle stream as four longs.
+ * 
+ * The rules are those of GameEngine.startGame, startTurn, travel, endTurn and
+ * Astronaut.breathe, including oxygen splitting through the oxygen bank and
+ * the merging of the game deck, played by ScriptedPlayer, and every card goes
+ * to the same place it would in the object engine, so the same seed gives
+ * the same game. Space cards only move players forward, as in the object
+ * engine, so a track is kept as its length.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class BatchEngine {
+    private static final int OTHER = CardType.COUNT;
+    private static final int TYPES = CardType.COUNT + 1;
+    private static final byte OXYGEN_1 = (byte) CardType.OXYGEN_1.getId();
+    private static final byte OXYGEN_2 = (byte) CardType.OXYGEN_2.getId();
+    private static final byte GRAVITATIONAL_ANOMALY = (byte) CardType.GRAVITATIONAL_ANOMALY.getId();
+    private static final int STARTING_DISTANCE = 6;
+    private static final int OXYGEN_ONE_TO_DEAL = 4;
+    private static final int ACTION_CARDS_TO_DEAL = 4;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final int[] OXYGEN_VALUES = new int[TYPES];
+    private static final byte RUNNING = 0;
+    private static final byte OVER = 1;
+    private static final byte UNFINISHED = 2;
+    private static final byte FAILED = 3;
+
+    static {
+        for (CardType type : CardType.values()) {
+            OXYGEN_VALUES[type.getId()] = type.oxygenValue();
+        }
+    }
+
+    private final byte[] gameTemplate;
+    private final byte[] spaceTemplate;
+    private final int seats;
+    private final int capacity;
+    private final int gameCapacity;
+    private final int spaceCapacity;
+    private final int oxygenOneCards;
+    private int count;
+    private long[] seeds;
+    private long[] random;
+    private byte[] gameDeck;
+    private int[] gameDeckSize;
+    private int[] lowestOxygenOne;
+    private byte[] gameDiscard;
+    private int[] gameDiscardSize;
+    private byte[] spaceDeck;
+    private int[] spaceDeckSize;
+    private int[] spaceDiscardSize;
+    private short[] hands;
+    private int[] oxygen;
+    private byte[] track;
+    private byte[] causes;
+    private int[] aliveSeats;
+    private int[] currentSeat;
+    private int[] turns;
+    private int[] merges;
+    private int[] winner;
+    private byte[] state;
+    private int[] active;
+    private int activeCount;
+
+    /**
+     * BatchEngine constructor
+     * 
+     * @param actionCardsPath path to the action cards text file
+     * @param spaceCardsPath  path to the space cards text file
+     * @param players         number of seats in every game, 2 to 5
+     * @param capacity        most games in a batch
+     * @throws GameException file not found
+     */
+    public BatchEngine(String actionCardsPath, String spaceCardsPath, int players, int capacity)
+            throws GameException {
+        this(typeIds(new GameDeck(actionCardsPath)), typeIds(new SpaceDeck(spaceCardsPath)), players, capacity);
+    }
+
+    /**
+     * creates an engine of the same cards, players and capacity as another
+     * 
+     * @param other engine to copy the cards from
+     */
+    BatchEngine(BatchEngine other) {
+        this(other.gameTemplate, other.spaceTemplate, other.seats, other.capacity);
+    }
+
+    /**
+     * BatchEngine constructor
+     * 
+     * @param gameTemplate  type ids of the game deck before shuffling
+     * @param spaceTemplate type ids of the space deck before shuffling
+     * @param players       number of seats in every game
+     * @param capacity      most games in a batch
+     */
+    private BatchEngine(byte[] gameTemplate, byte[] spaceTemplate, int players, int capacity) {
+        if (players < 2 || players > 5 || capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.gameTemplate = gameTemplate;
+        this.spaceTemplate = spaceTemplate;
+        this.seats = players;
+        this.capacity = capacity;
+        this.gameCapacity = gameTemplate.length;
+        this.spaceCapacity = spaceTemplate.length;
+        int oxygenOne = 0;
+        for (byte card : gameTemplate) {
+            if (card == OXYGEN_1) {
+                oxygenOne++;
+            }
+        }
+        this.oxygenOneCards = oxygenOne;
+        seeds = new long[capacity];
+        random = new long[capacity * 4];
+        gameDeck = new byte[capacity * gameCapacity];
+        gameDeckSize = new int[capacity];
+        lowestOxygenOne = new int[capacity];
+        gameDiscard = new byte[capacity * gameCapacity];
+        gameDiscardSize = new int[capacity];
+        spaceDeck = new byte[capacity * spaceCapacity];
+        spaceDeckSize = new int[capacity];
+        spaceDiscardSize = new int[capacity];
+        hands = new short[capacity * players * TYPES];
+        oxygen = new int[capacity * players];
+        track = new byte[capacity * players];
+        causes = new byte[capacity * players];
+        aliveSeats = new int[capacity];
+        currentSeat = new int[capacity];
+        turns = new int[capacity];
+        merges = new int[capacity];
+        winner = new int[capacity];
+        state = new byte[capacity];
+        active = new int[capacity];
+    }
+
+    /**
+     * sets up a new batch of games, one per seed, shuffled and dealt
+     * 
+     * @param firstSeed seed of the first game
+     * @param games     number of games, up to the capacity
+     */
+    public void reset(long firstSeed, int games) {
+        if (games < 0 || games > capacity) {
+            throw new IllegalArgumentException();
+        }
+        count = games;
+        activeCount = 0;
+        for (int g = 0; g < games; g++) {
+            setUp(g, firstSeed + g);
+            if (state[g] == RUNNING) {
+                active[activeCount++] = g;
+            }
+        }
+    }
+
+    /**
+     * plays every game of the batch to the end or the turn limit, one turn of
+     * every game at a time
+     */
+    public void run() {
+        while (activeCount > 0) {
+            int stillRunning = 0;
+            for (int i = 0; i < activeCount; i++) {
+                int g = active[i];
+                playTurn(g);
+                if (state[g] == RUNNING) {
+                    active[stillRunning++] = g;
+                }
+            }
+            activeCount = stillRunning;
+        }
+    }
+
+    /**
+     * adds a game of the batch to a result, the way Simulation.playGame adds
+     * the same game played by the object engine
+     * 
+     * @param game   index of the game in the batch
+     * @param result result to record the game in
+     */
+    public void record(int game, SimulationResult result) {
+        checkPlayed(game);
+        if (state[game] == FAILED) {
+            result.recordError(seeds[game]);
+            return;
+        }
+        int winnerSeat = winner[game];
+        int winnerOxygen = winnerSeat < 0 ? 0 : oxygen[game * seats + winnerSeat];
+        result.recordGame(seeds[game], winnerSeat, winnerOxygen, turns[game], state[game] == OVER, merges[game]);
+        for (int p = game * seats; p < (game + 1) * seats; p++) {
+            if (causes[p] >= 0) {
+                result.recordDeath(EVENT_TYPES[causes[p]]);
+            }
+        }
+    }
+
+    /**
+     * returns the number of games in the batch
+     * 
+     * @return games
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * returns the seat of the winner of a game of the batch
+     * 
+     * @param game index of the game in the batch
+     * @return seat, or -1 if nobody won
+     */
+    public int getWinner(int game) {
+        checkPlayed(game);
+        return winner[game];
+    }
+
+    /**
+     * returns the number of turns a game of the batch lasted
+     * 
+     * @param game index of the game in the batch
+     * @return turns
+     */
+    public int getTurns(int game) {
+        checkPlayed(game);
+        return turns[game];
+    }
+
+    /**
+     * checks that a game is in the batch and has been played
+     * 
+     * @param game index of the game in the batch
+     */
+    private void checkPlayed(int game) {
+        if (game < 0 || game >= count) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (state[game] == RUNNING) {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * seeds, shuffles and deals a game, as the GameEngine constructor,
+     * addPlayer and startGame do
+     * 
+     * @param g    index of the game
+     * @param seed seed of the game
+     */
+    private void setUp(int g, long seed) {
+        seeds[g] = seed;
+        int r = g * 4;
+        seedRandom(r, seed);
+        seedRandom(r, Zobrist.mix(nextLong(r)));
+        System.arraycopy(gameTemplate, 0, gameDeck, g * gameCapacity, gameCapacity);
+        gameDeckSize[g] = gameCapacity;
+        lowestOxygenOne[g] = 0;
+        gameDiscardSize[g] = 0;
+        System.arraycopy(spaceTemplate, 0, spaceDeck, g * spaceCapacity, spaceCapacity);
+        spaceDeckSize[g] = spaceCapacity;
+        spaceDiscardSize[g] = 0;
+        shuffle(g, gameDeck, g * gameCapacity, gameCapacity);
+        shuffle(g, spaceDeck, g * spaceCapacity, spaceCapacity);
+        Arrays.fill(hands, g * seats * TYPES, (g + 1) * seats * TYPES, (short) 0);
+        Arrays.fill(oxygen, g * seats, (g + 1) * seats, 0);
+        Arrays.fill(track, g * seats, (g + 1) * seats, (byte) 0);
+        Arrays.fill(causes, g * seats, (g + 1) * seats, (byte) -1);
+        aliveSeats[g] = (1 << seats) - 1;
+        currentSeat[g] = 0;
+        turns[g] = 0;
+        merges[g] = 0;
+        winner[g] = -1;
+        state[g] = RUNNING;
+        try {
+            dealOxygen(g);
+            for (int i = 0; i < ACTION_CARDS_TO_DEAL; i++) {
+                for (int seat = 0; seat < seats; seat++) {
+                    takeCard(g, seat, drawGameCard(g));
+                }
+            }
+        } catch (IllegalStateException e) {
+            state[g] = FAILED;
+        }
+    }
+
+    /**
+     * gives every player one Oxygen(2) and four Oxygen(1). Each is the one
+     * nearest the bottom of the game deck when it is dealt, so the cards
+     * dealt are the first Oxygen(2) and Oxygen(1) from the bottom up, and
+     * they are taken out in one pass.
+     * 
+     * @param g index of the game
+     */
+    private void dealOxygen(int g) {
+        int oxygenTwoLeft = seats;
+        int oxygenOneLeft = seats * OXYGEN_ONE_TO_DEAL;
+        int base = g * gameCapacity;
+        int end = base + gameDeckSize[g];
+        int kept = base;
+        int i = base;
+        while (i < end && (oxygenTwoLeft | oxygenOneLeft) != 0) {
+            byte card = gameDeck[i++];
+            boolean dealTwo = card == OXYGEN_2 & oxygenTwoLeft > 0;
+            boolean dealOne = card == OXYGEN_1 & oxygenOneLeft > 0;
+            oxygenTwoLeft -= dealTwo ? 1 : 0;
+            oxygenOneLeft -= dealOne ? 1 : 0;
+            gameDeck[kept] = card;
+            kept += dealTwo | dealOne ? 0 : 1;
+        }
+        if ((oxygenTwoLeft | oxygenOneLeft) != 0) {
+            throw new IllegalStateException();
+        }
+        System.arraycopy(gameDeck, i, gameDeck, kept, end - i);
+        gameDeckSize[g] = kept - base + end - i;
+        for (int seat = 0; seat < seats; seat++) {
+            int hand = (g * seats + seat) * TYPES;
+            hands[hand + OXYGEN_2] = 1;
+            hands[hand + OXYGEN_1] = OXYGEN_ONE_TO_DEAL;
+            oxygen[g * seats + seat] = 2 + OXYGEN_ONE_TO_DEAL;
+        }
+    }
+
+    /**
+     * plays one turn of a game: the current player draws a card, then travels
+     * if more than two oxygens are left and breathes otherwise
+     * 
+     * @param g index of the game
+     */
+    private void playTurn(int g) {
+        try {
+            int seat = currentSeat[g];
+            if (gameDeckSize[g] == 0) {
+                mergeDecks(g);
+            }
+            takeCard(g, seat, drawGameCard(g));
+            boolean canSurviveTravel = oxygen[g * seats + seat] > 2;
+            if (canSurviveTravel && spaceDeckSize[g] > 0) {
+                travel(g, seat);
+            } else {
+                breathe(g, seat, EventType.BREATHE);
+            }
+            turns[g]++;
+            if (winner[g] >= 0 || aliveSeats[g] == 0) {
+                state[g] = OVER;
+            } else if (turns[g] >= Simulation.MAX_TURNS) {
+                state[g] = UNFINISHED;
+            } else {
+                currentSeat[g] = nextSeat(g, seat);
+            }
+        } catch (IllegalStateException e) {
+            state[g] = FAILED;
+        }
+    }
+
+    /**
+     * returns the seat of the next player, who is the first living player
+     * after the passed seat in seat order
+     * 
+     * @param g    index of the game
+     * @param seat seat of the player whose turn ended
+     * @return seat
+     */
+    private int nextSeat(int g, int seat) {
+        int alive = aliveSeats[g];
+        int next = seat;
+        for (int i = 0; i < seats; i++) {
+            next = next + 1 == seats ? 0 : next + 1;
+            if ((alive & (1 << next)) != 0) {
+                return next;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * moves a player forward by one space, as GameEngine.travel
+     * 
+     * @param g    index of the game
+     * @param seat seat of the player
+     */
+    private void travel(int g, int seat) {
+        int p = g * seats + seat;
+        if (oxygen[p] < 2) {
+            throw new IllegalStateException();
+        }
+        breathe(g, seat, EventType.TRAVEL);
+        breathe(g, seat, EventType.TRAVEL);
+        int size = spaceDeckSize[g];
+        if (size == 0) {
+            throw new IllegalStateException();
+        }
+        byte card = spaceDeck[g * spaceCapacity + size - 1];
+        spaceDeckSize[g] = size - 1;
+        if (card == GRAVITATIONAL_ANOMALY) {
+            spaceDiscardSize[g]++;
+            return;
+        }
+        track[p]++;
+        boolean hasWon = track[p] == STARTING_DISTANCE && oxygen[p] > 0;
+        if (hasWon && winner[g] < 0) {
+            winner[g] = seat;
+        }
+    }
+
+    /**
+     * discards one oxygen, splitting an Oxygen(2) first if there is no
+     * Oxygen(1) in hand, and kills the player if none is left, as
+     * Astronaut.breathe
+     * 
+     * @param g     index of the game
+     * @param seat  seat of the player
+     * @param cause outermost call, recorded if the player dies
+     */
+    private void breathe(int g, int seat, EventType cause) {
+        int p = g * seats + seat;
+        int hand = p * TYPES;
+        if (oxygen[p] == 0) {
+            throw new IllegalStateException();
+        }
+        if (hands[hand + OXYGEN_1] == 0 && hands[hand + OXYGEN_2] > 0) {
+            splitOxygen(g, p);
+        }
+        if (hands[hand + OXYGEN_1] > 0) {
+            hands[hand + OXYGEN_1]--;
+            oxygen[p]--;
+            add(g, gameDiscard, gameDiscardSize, gameCapacity, OXYGEN_1);
+        }
+        if (oxygen[p] == 0) {
+            killPlayer(g, seat, cause);
+        }
+    }
+
+    /**
+     * swaps an Oxygen(2) in hand for two Oxygen(1) through the game deck and
+     * discard pile, as OxygenBank does. Every Oxygen(1) not in a hand is in
+     * one of the two piles, so the bank's count is the total less the hands.
+     * 
+     * @param g index of the game
+     * @param p index of the player
+     */
+    private void splitOxygen(int g, int p) {
+        int oxygenOneInPiles = oxygenOneCards;
+        for (int hand = g * seats * TYPES; hand < (g + 1) * seats * TYPES; hand += TYPES) {
+            oxygenOneInPiles -= hands[hand + OXYGEN_1];
+        }
+        if (oxygenOneInPiles <= 1) {
+            throw new IllegalStateException();
+        }
+        int hand = p * TYPES;
+        hands[hand + OXYGEN_2]--;
+        oxygen[p] -= 2;
+        add(g, gameDeck, gameDeckSize, gameCapacity, OXYGEN_2);
+        for (int i = 0; i < 2; i++) {
+            int index = removeFirst(g, gameDeck, gameDeckSize, gameCapacity, OXYGEN_1, lowestOxygenOne[g]);
+            if (index >= 0) {
+                lowestOxygenOne[g] = index;
+            } else {
+                lowestOxygenOne[g] = gameDeckSize[g];
+                if (removeFirst(g, gameDiscard, gameDiscardSize, gameCapacity, OXYGEN_1, 0) < 0) {
+                    throw new IllegalStateException();
+                }
+            }
+            hands[hand + OXYGEN_1]++;
+            oxygen[p]++;
+        }
+    }
+
+    /**
+     * takes a player out of the game and drops the action cards in hand, as
+     * GameEngine.killPlayer
+     * 
+     * @param g     index of the game
+     * @param seat  seat of the player
+     * @param cause outermost call
+     */
+    private void killPlayer(int g, int seat, EventType cause) {
+        int p = g * seats + seat;
+        aliveSeats[g] &= ~(1 << seat);
+        causes[p] = (byte) cause.ordinal();
+        Arrays.fill(hands, p * TYPES, (p + 1) * TYPES, (short) 0);
+    }
+
+    /**
+     * refills the game deck with the discard pile, drawn from the top, and
+     * shuffles it, as GameEngine.mergeDecks
+     * 
+     * @param g index of the game
+     */
+    private void mergeDecks(int g) {
+        int base = g * gameCapacity;
+        int deckSize = gameDeckSize[g];
+        int discardSize = gameDiscardSize[g];
+        for (int i = 0; i < discardSize; i++) {
+            gameDeck[base + deckSize + i] = gameDiscard[base + discardSize - 1 - i];
+        }
+        gameDeckSize[g] = deckSize + discardSize;
+        gameDiscardSize[g] = 0;
+        lowestOxygenOne[g] = 0;
+        shuffle(g, gameDeck, base, gameDeckSize[g]);
+        merges[g]++;
+    }
+
+    /**
+     * draws the top card of the game deck
+     * 
+     * @param g index of the game
+     * @return type id
+     */
+    private byte drawGameCard(int g) {
+        int size = gameDeckSize[g];
+        if (size == 0) {
+            throw new IllegalStateException();
+        }
+        gameDeckSize[g] = size - 1;
+        return gameDeck[g * gameCapacity + size - 1];
+    }
+
+    /**
+     * puts a card in a player's hand
+     * 
+     * @param g    index of the game
+     * @param seat seat of the player
+     * @param card type id
+     */
+    private void takeCard(int g, int seat, byte card) {
+        int p = g * seats + seat;
+        hands[p * TYPES + card]++;
+        oxygen[p] += OXYGEN_VALUES[card];
+    }
+
+    /**
+     * puts a card on top of a pile
+     * 
+     * @param g        index of the game
+     * @param cards    piles of every game
+     * @param sizes    sizes of the piles
+     * @param capacity cards per game in the piles
+     * @param card     type id
+     */
+    private static void add(int g, byte[] cards, int[] sizes, int capacity, byte card) {
+        cards[g * capacity + sizes[g]] = card;
+        sizes[g]++;
+    }
+
+    /**
+     * takes the card of a type nearest the bottom out of a pile, as
+     * Deck.removeFirst
+     * 
+     * @param g        index of the game
+     * @param cards    piles of every game
+     * @param sizes    sizes of the piles
+     * @param capacity cards per game in the piles
+     * @param card     type id
+     * @param from     position below which the pile has no card of the type
+     * @return position the card was taken from, or -1 if there is no card of
+     *         the type in the pile
+     */
+    private static int removeFirst(int g, byte[] cards, int[] sizes, int capacity, byte card, int from) {
+        int base = g * capacity;
+        int end = base + sizes[g];
+        for (int i = base + from; i < end; i++) {
+            if (cards[i] == card) {
+                System.arraycopy(cards, i + 1, cards, i, end - i - 1);
+                sizes[g]--;
+                return i - base;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * shuffles part of an array with the shuffle stream of a game, swapping
+     * the same cards Collections.shuffle would; the stream is stepped as
+     * GameRandom.nextInt steps it, in local variables for the whole shuffle
+     * 
+     * @param g     index of the game
+     * @param cards array
+     * @param base  index of the bottom card
+     * @param size  number of cards
+     */
+    private void shuffle(int g, byte[] cards, int base, int size) {
+        int r = g * 4;
+        long s0 = random[r];
+        long s1 = random[r + 1];
+        long s2 = random[r + 2];
+        long s3 = random[r + 3];
+        for (int i = size; i > 1; i--) {
+            int j;
+            while (true) {
+                long next = Long.rotateLeft(s1 * 5, 7) * 9;
+                long t = s1 << 17;
+                s2 ^= s0;
+                s3 ^= s1;
+                s1 ^= s2;
+                s0 ^= s3;
+                s2 ^= t;
+                s3 = Long.rotateLeft(s3, 45);
+                long product = (next >>> 32) * i;
+                int low = (int) product;
+                boolean biased = Integer.compareUnsigned(low, i) < 0
+                        && Integer.compareUnsigned(low, Integer.remainderUnsigned(-i, i)) < 0;
+                if (!biased) {
+                    j = base + (int) (product >>> 32);
+                    break;
+                }
+            }
+            byte card = cards[base + i - 1];
+            cards[base + i - 1] = cards[j];
+            cards[j] = card;
+        }
+        random[r] = s0;
+        random[r + 1] = s1;
+        random[r + 2] = s2;
+        random[r + 3] = s3;
+    }
+
+    /**
+     * seeds a random state as GameRandom.setSeed
+     * 
+     * @param r    index of the state
+     * @param seed seed
+     */
+    private void seedRandom(int r, long seed) {
+        long x = seed;
+        random[r] = Zobrist.mix(x += GOLDEN_GAMMA);
+        random[r + 1] = Zobrist.mix(x += GOLDEN_GAMMA);
+        random[r + 2] = Zobrist.mix(x += GOLDEN_GAMMA);
+        random[r + 3] = Zobrist.mix(x + GOLDEN_GAMMA);
+    }
+
+    /**
+     * returns the next number of a random state, as GameRandom.nextLong
+     * 
+     * @param r index of the state
+     * @return number
+     */
+    private long nextLong(int r) {
+        long s0 = random[r];
+        long s1 = random[r + 1];
+        long s2 = random[r + 2];
+        long s3 = random[r + 3];
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        random[r] = s0;
+        random[r + 1] = s1;
+        random[r + 2] = s2;
+        random[r + 3] = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    /**
+     * returns the type ids of the cards in a deck, from the bottom up
+     * 
+     * @param deck deck
+     * @return type ids, with cards of no known type as OTHER
+     */
+    private static byte[] typeIds(Deck deck) {
+        byte[] ids = new byte[deck.size()];
+        int i = 0;
+        for (Card card : deck.getCards()) {
+            int id = card.getTypeId();
+            ids[i++] = (byte) (id < 0 ? OTHER : id);
+        }
+        return ids;
+    }
+}
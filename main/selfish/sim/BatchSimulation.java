@@ -0,0 +1,154 @@
+package selfish.sim;
+
+import java.util.*;
+import java.util.concurrent.*;
+import selfish.GameException;
+
+/**
+ * Class BatchSimulation plays seeded games of scripted players on
+ * BatchEngine, spreading batches of seeds over a fork-join pool
+ * 
+ * It gives the same totals and checksum as a Simulation of ScriptedPlayer
+ * seats over the same seeds, and crossCheck plays every game on both engines
+ * to confirm it.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class BatchSimulation {
+    /** Most games a worker thread plays side by side */
+    public static final int BATCH_SIZE = 1024;
+    private String actionCardsPath;
+    private String spaceCardsPath;
+    private int players;
+    private BatchEngine prototype;
+
+    /**
+     * BatchSimulation constructor
+     * 
+     * @param actionCardsPath path to the action cards text file
+     * @param spaceCardsPath  path to the space cards text file
+     * @param players         number of seats, 2 to 5
+     * @throws GameException file not found
+     */
+    public BatchSimulation(String actionCardsPath, String spaceCardsPath, int players) throws GameException {
+        this.actionCardsPath = actionCardsPath;
+        this.spaceCardsPath = spaceCardsPath;
+        this.prototype = new BatchEngine(actionCardsPath, spaceCardsPath, players, BATCH_SIZE);
+        this.players = players;
+    }
+
+    /**
+     * plays one game per seed in the range, on the passed number of threads;
+     * the totals are the same for any number of threads
+     * 
+     * @param firstSeed seed of the first game
+     * @param games     number of games to play
+     * @param threads   number of worker threads
+     * @return totals of all games
+     */
+    public SimulationResult run(long firstSeed, long games, int threads) {
+        long startTime = System.nanoTime();
+        Queue<SimulationResult> accumulators = new ConcurrentLinkedQueue<SimulationResult>();
+        ThreadLocal<SimulationResult> accumulator = ThreadLocal.withInitial(() -> {
+            SimulationResult threadResult = new SimulationResult(players);
+            accumulators.add(threadResult);
+            return threadResult;
+        });
+        ThreadLocal<BatchEngine> engine = ThreadLocal.withInitial(() -> new BatchEngine(prototype));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new SeedRange(firstSeed, firstSeed + games, accumulator, engine));
+        } finally {
+            pool.shutdown();
+        }
+        SimulationResult result = new SimulationResult(players);
+        for (SimulationResult threadResult : accumulators) {
+            result.merge(threadResult);
+        }
+        result.setElapsedNanos(System.nanoTime() - startTime);
+        return result;
+    }
+
+    /**
+     * plays every game in the range on this engine and on GameEngine with
+     * ScriptedPlayer seats, and counts the games whose winner, length or
+     * failure differ
+     * 
+     * @param firstSeed seed of the first game
+     * @param games     number of games to play
+     * @return number of games that differ
+     */
+    public long crossCheck(long firstSeed, long games) {
+        SimPlayer[] seats = new SimPlayer[players];
+        Arrays.fill(seats, new ScriptedPlayer());
+        Simulation simulation = new Simulation(actionCardsPath, spaceCardsPath, seats);
+        BatchEngine batch = new BatchEngine(prototype);
+        SimulationResult batchResult = new SimulationResult(players);
+        SimulationResult objectResult = new SimulationResult(players);
+        long differences = 0;
+        for (long start = firstSeed; start < firstSeed + games; start += BATCH_SIZE) {
+            int size = (int) Math.min(BATCH_SIZE, firstSeed + games - start);
+            batch.reset(start, size);
+            batch.run();
+            for (int g = 0; g < size; g++) {
+                long batchBefore = batchResult.getChecksum();
+                long objectBefore = objectResult.getChecksum();
+                batch.record(g, batchResult);
+                simulation.playGame(start + g, objectResult);
+                long batchOutcome = batchResult.getChecksum() - batchBefore;
+                long objectOutcome = objectResult.getChecksum() - objectBefore;
+                if (batchOutcome != objectOutcome) {
+                    differences++;
+                }
+            }
+        }
+        return differences;
+    }
+
+    /**
+     * Class SeedRange plays the seeds from start (inclusive) to end (exclusive)
+     * in batches, into the result of the thread running it
+     */
+    private class SeedRange extends RecursiveAction {
+        private static final long serialVersionUID = 422L;
+        private long start;
+        private long end;
+        private transient ThreadLocal<SimulationResult> accumulator;
+        private transient ThreadLocal<BatchEngine> engine;
+
+        /**
+         * SeedRange constructor
+         * 
+         * @param start       first seed
+         * @param end         seed after the last one
+         * @param accumulator result of each worker thread
+         * @param engine      batch engine of each worker thread
+         */
+        SeedRange(long start, long end, ThreadLocal<SimulationResult> accumulator,
+                ThreadLocal<BatchEngine> engine) {
+            this.start = start;
+            this.end = end;
+            this.accumulator = accumulator;
+            this.engine = engine;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= BATCH_SIZE) {
+                BatchEngine batch = engine.get();
+                SimulationResult result = accumulator.get();
+                batch.reset(start, (int) (end - start));
+                batch.run();
+                for (int g = 0; g < batch.size(); g++) {
+                    batch.record(g, result);
+                }
+                return;
+            }
+            long batches = (end - start + BATCH_SIZE - 1) / BATCH_SIZE;
+            long middle = start + batches / 2 * BATCH_SIZE;
+            invokeAll(new SeedRange(start, middle, accumulator, engine),
+                    new SeedRange(middle, end, accumulator, engine));
+        }
+    }
+}
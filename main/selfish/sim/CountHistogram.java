@@ -0,0 +1,201 @@
+package selfish.sim;
+
+import java.util.Locale;
+
+/**
+ * Class CountHistogram counts how often each small whole number was recorded,
+ * in one bucket per value from 0 to a fixed maximum and one overflow bucket
+ * for anything above it, so its size does not grow with the number of values
+ * recorded. Histograms of the same maximum are merged by adding their buckets.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class CountHistogram {
+    private long[] buckets;
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    /**
+     * creates an empty histogram
+     * 
+     * @param maxValue largest value with a bucket of its own
+     */
+    public CountHistogram(int maxValue) {
+        if (maxValue < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.buckets = new long[maxValue + 2];
+    }
+
+    /**
+     * records a value; negative values count as 0
+     * 
+     * @param value value
+     */
+    public void record(int value) {
+        value = Math.max(value, 0);
+        buckets[Math.min(value, buckets.length - 1)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * adds the counts of another histogram to this one
+     * 
+     * @param other histogram with the same maximum
+     * @return this histogram
+     * @throws IllegalArgumentException the maximums differ
+     */
+    public CountHistogram merge(CountHistogram other) {
+        if (other.buckets.length != buckets.length) {
+            throw new IllegalArgumentException("histograms have different maximums");
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] += other.buckets[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * returns the largest value with a bucket of its own
+     * 
+     * @return maximum
+     */
+    public int getMaxValue() {
+        return buckets.length - 2;
+    }
+
+    /**
+     * returns the number of values recorded
+     * 
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * returns how often the passed value was recorded
+     * 
+     * @param value value, up to getMaxValue()
+     * @return count
+     */
+    public long getCount(int value) {
+        return buckets[value];
+    }
+
+    /**
+     * returns how often a value above getMaxValue() was recorded
+     * 
+     * @return count
+     */
+    public long getOverflow() {
+        return buckets[buckets.length - 1];
+    }
+
+    /**
+     * returns the mean of the values recorded
+     * 
+     * @return mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        if (count == 0) {
+            return 0;
+        }
+        return (double) sum / count;
+    }
+
+    /**
+     * returns the smallest value recorded
+     * 
+     * @return minimum, or 0 if nothing was recorded
+     */
+    public int getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * returns the largest value recorded
+     * 
+     * @return maximum, or 0 if nothing was recorded
+     */
+    public int getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    /**
+     * returns the smallest value that the passed fraction of all values are at
+     * or below; values in the overflow bucket count as the largest value
+     * recorded
+     * 
+     * @param fraction fraction, like 0.99
+     * @return value, or 0 if nothing was recorded
+     */
+    public int getPercentile(double fraction) {
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length - 1; i++) {
+            seen += buckets[i];
+            if (seen >= rank && seen > 0) {
+                return i;
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * appends the histogram as a JSON object
+     * 
+     * @param json builder to append to
+     */
+    void appendJson(StringBuilder json) {
+        json.append("{\"count\":").append(count);
+        json.append(",\"mean\":").append(String.format(Locale.ROOT, "%.4f", getMean()));
+        json.append(",\"min\":").append(getMin());
+        json.append(",\"max\":").append(getMax());
+        json.append(",\"p50\":").append(getPercentile(0.5));
+        json.append(",\"p90\":").append(getPercentile(0.9));
+        json.append(",\"p99\":").append(getPercentile(0.99));
+        json.append(",\"overflow\":").append(getOverflow());
+        json.append(",\"buckets\":{");
+        boolean first = true;
+        for (int i = 0; i < buckets.length - 1; i++) {
+            if (buckets[i] == 0) {
+                continue;
+            }
+            if (!first) {
+                json.append(',');
+            }
+            json.append('"').append(i).append("\":").append(buckets[i]);
+            first = false;
+        }
+        json.append("}}");
+    }
+
+    /**
+     * appends a CSV row for every value that was recorded and one for the
+     * overflow bucket if it is not empty
+     * 
+     * @param csv  builder to append to
+     * @param name name of the statistic, in the first column
+     */
+    void appendCsv(StringBuilder csv, String name) {
+        for (int i = 0; i < buckets.length - 1; i++) {
+            if (buckets[i] != 0) {
+                csv.append(name).append(',').append(i).append(',').append(buckets[i]).append('\n');
+            }
+        }
+        if (getOverflow() != 0) {
+            csv.append(name).append(",>").append(getMaxValue()).append(',').append(getOverflow()).append('\n');
+        }
+    }
+}
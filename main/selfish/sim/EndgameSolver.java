@@ -0,0 +1,479 @@
+package selfish.sim;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import selfish.Astronaut;
+import selfish.GameEngine;
+import selfish.deck.*;
+
+/**
+ * Class EndgameSolver exact chances of reaching the ship at the end of a game,
+ * by dynamic programming over oxygen, distance from the ship and the cards
+ * left in the space deck
+ * 
+ * A state is the oxygen and distance of the player to move, those of at most
+ * one rival, and the number of Gravitational anomaly and other cards left in
+ * the space deck; no other space card changes where a traveller ends up. Each
+ * turn the player to move either breathes, losing one oxygen, or travels,
+ * losing two and drawing a space card, exactly as Astronaut.breathe() and
+ * GameEngine.travel(Astronaut) do: a player left with no oxygen dies, even on
+ * reaching the ship, and an anomaly is discarded without moving them. Every
+ * player picks the move that gives them the best chance of winning. Oxygen
+ * from game cards drawn at the start of a turn and action cards are left out,
+ * so a chance is that of making it on the oxygen already held.
+ * 
+ * Solved states are kept in a direct-mapped table of fixed size, a newer state
+ * evicting an older one in the same slot. Any number of threads can share a
+ * solver: a slot is written without locks, with its key stored XOR its
+ * probabilities, so a reader that races a writer sees a key that does not
+ * match and solves the state again.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class EndgameSolver {
+    /** Most oxygen a player can hold in a solved state */
+    public static final int MAX_OXYGEN = 63;
+    /** Most Gravitational anomaly cards the space deck can hold */
+    public static final int MAX_ANOMALIES = 127;
+    /** Most other cards the space deck can hold */
+    public static final int MAX_OTHERS = 255;
+    /** Distance of a player who has not travelled yet */
+    public static final int START_DISTANCE = 6;
+    private static final int DEFAULT_CAPACITY = 1 << 20;
+    private static final int MAX_CAPACITY = 1 << 28;
+    private static final int WARM_UP_SPLIT = 4;
+    private AtomicLongArray slots;
+    private int mask;
+
+    /**
+     * creates a solver with room for about a million states, 24 MB
+     */
+    public EndgameSolver() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * creates a solver
+     * 
+     * @param capacity number of states kept, rounded up to a power of two; each
+     *                 takes 24 bytes
+     * @throws IllegalArgumentException capacity out of range
+     */
+    public EndgameSolver(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        size = Math.max(size, 1);
+        this.slots = new AtomicLongArray(3 * size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * returns the number of states kept
+     * 
+     * @return capacity
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * returns the chance that a player racing alone reaches the ship
+     * 
+     * @param oxygen    oxygen held
+     * @param distance  distance from the ship
+     * @param anomalies Gravitational anomaly cards left in the space deck
+     * @param others    other cards left in the space deck
+     * @return chance
+     * @throws IllegalArgumentException a count out of range
+     */
+    public double survivalProbability(int oxygen, int distance, int anomalies, int others) {
+        return winProbability(oxygen, distance, 0, 0, anomalies, others);
+    }
+
+    /**
+     * returns the chance that the player to move wins against one rival, or
+     * racing alone if the rival has no oxygen
+     * 
+     * @param oxygen        oxygen of the player to move
+     * @param distance      distance from the ship of the player to move
+     * @param rivalOxygen   oxygen of the rival, 0 if there is none
+     * @param rivalDistance distance from the ship of the rival
+     * @param anomalies     Gravitational anomaly cards left in the space deck
+     * @param others        other cards left in the space deck
+     * @return chance
+     * @throws IllegalArgumentException a count out of range
+     */
+    public double winProbability(int oxygen, int distance, int rivalOxygen, int rivalDistance, int anomalies,
+            int others) {
+        double[] out = new double[2];
+        outcome(oxygen, distance, rivalOxygen, rivalDistance, anomalies, others, out);
+        return out[0];
+    }
+
+    /**
+     * returns the chance that the astronaut reaches the ship if the other
+     * players take nothing from the space deck
+     * 
+     * @param game      game
+     * @param astronaut astronaut
+     * @return chance
+     * @throws IllegalArgumentException a count out of range
+     */
+    public double survivalProbability(GameEngine game, Astronaut astronaut) {
+        if (game.gameOver() || !astronaut.isAlive()) {
+            return game.getWinner() == astronaut ? 1 : 0;
+        }
+        SpaceDeck spaceDeck = game.getSpaceDeck();
+        int anomalies = spaceDeck.count(CardType.GRAVITATIONAL_ANOMALY);
+        return survivalProbability(astronaut.oxygenRemaining(), astronaut.distanceFromShip(), anomalies,
+                spaceDeck.size() - anomalies);
+    }
+
+    /**
+     * returns the chance that the astronaut wins a game of at most two
+     * players alive, both playing their best
+     * 
+     * @param game      game
+     * @param astronaut astronaut
+     * @return chance
+     * @throws IllegalArgumentException more than two players alive, or a count
+     *                                  out of range
+     */
+    public double winProbability(GameEngine game, Astronaut astronaut) {
+        if (game.gameOver() || !astronaut.isAlive()) {
+            return game.getWinner() == astronaut ? 1 : 0;
+        }
+        Astronaut mover = playerToMove(game);
+        Astronaut rival = rivalOf(game, astronaut);
+        SpaceDeck spaceDeck = game.getSpaceDeck();
+        int anomalies = spaceDeck.count(CardType.GRAVITATIONAL_ANOMALY);
+        int others = spaceDeck.size() - anomalies;
+        double[] out = new double[2];
+        if (rival == null || mover == astronaut) {
+            outcome(astronaut.oxygenRemaining(), astronaut.distanceFromShip(), oxygenOf(rival), distanceOf(rival),
+                    anomalies, others, out);
+            return out[0];
+        }
+        outcome(rival.oxygenRemaining(), rival.distanceFromShip(), astronaut.oxygenRemaining(),
+                astronaut.distanceFromShip(), anomalies, others, out);
+        return out[1];
+    }
+
+    /**
+     * returns true if travelling gives the current player a better chance of
+     * winning than breathing, in a game of at most two players alive
+     * 
+     * @param game game, between startTurn() and endTurn()
+     * @return boolean
+     * @throws IllegalArgumentException more than two players alive, or a count
+     *                                  out of range
+     */
+    public boolean shouldTravel(GameEngine game) {
+        Astronaut astronaut = game.getCurrentPlayer();
+        if (astronaut == null || game.gameOver()) {
+            throw new IllegalStateException();
+        }
+        Astronaut rival = rivalOf(game, astronaut);
+        SpaceDeck spaceDeck = game.getSpaceDeck();
+        int anomalies = spaceDeck.count(CardType.GRAVITATIONAL_ANOMALY);
+        int oxygen = astronaut.oxygenRemaining();
+        int distance = astronaut.distanceFromShip();
+        check(oxygen, distance, oxygenOf(rival), distanceOf(rival), anomalies, spaceDeck.size() - anomalies);
+        boolean canTravel = oxygen >= 2 && spaceDeck.size() > 0;
+        if (!canTravel) {
+            return false;
+        }
+        double[] out = new double[2];
+        travel(oxygen, distance, oxygenOf(rival), distanceOf(rival), anomalies, spaceDeck.size() - anomalies, out);
+        double travelWin = out[0];
+        double travelLoss = out[1];
+        afterMove(oxygen - 1, distance, oxygenOf(rival), distanceOf(rival), anomalies, spaceDeck.size() - anomalies,
+                out);
+        return better(travelWin, travelLoss, out[0], out[1]);
+    }
+
+    /**
+     * solves every state of up to the passed oxygen per player, from the
+     * passed space deck, on a number of threads; states that do not fit the
+     * table push older ones out
+     * 
+     * @param maxOxygen most oxygen per player
+     * @param anomalies Gravitational anomaly cards in the space deck
+     * @param others    other cards in the space deck
+     * @param threads   number of worker threads
+     * @throws IllegalArgumentException a count out of range
+     */
+    public void warmUp(int maxOxygen, int anomalies, int others, int threads) {
+        check(maxOxygen, START_DISTANCE, maxOxygen, START_DISTANCE, anomalies, others);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new OxygenRange(1, maxOxygen + 1, maxOxygen, anomalies, others));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * returns the player who moves next
+     * 
+     * @param game game
+     * @return player
+     */
+    private static Astronaut playerToMove(GameEngine game) {
+        Astronaut current = game.getCurrentPlayer();
+        return current != null ? current : game.getAllPlayers().get(0);
+    }
+
+    /**
+     * returns the other living player
+     * 
+     * @param game      game
+     * @param astronaut astronaut
+     * @return rival, or null if the astronaut is alone
+     * @throws IllegalArgumentException more than two players alive
+     */
+    private static Astronaut rivalOf(GameEngine game, Astronaut astronaut) {
+        if (game.getAlivePlayerCount() > 2) {
+            throw new IllegalArgumentException("More than two players alive");
+        }
+        for (Astronaut player : game.getAllPlayers()) {
+            if (player != astronaut && player.isAlive()) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * returns the oxygen of a rival
+     * 
+     * @param rival rival, or null
+     * @return oxygen, 0 if there is no rival
+     */
+    private static int oxygenOf(Astronaut rival) {
+        return rival == null ? 0 : rival.oxygenRemaining();
+    }
+
+    /**
+     * returns the distance from the ship of a rival
+     * 
+     * @param rival rival, or null
+     * @return distance, 0 if there is no rival
+     */
+    private static int distanceOf(Astronaut rival) {
+        return rival == null ? 0 : rival.distanceFromShip();
+    }
+
+    /**
+     * checks that a state fits the table
+     * 
+     * @throws IllegalArgumentException a count out of range
+     */
+    private static void check(int oxygen, int distance, int rivalOxygen, int rivalDistance, int anomalies,
+            int others) {
+        boolean oxygenInRange = oxygen >= 0 && oxygen <= MAX_OXYGEN && rivalOxygen >= 0 && rivalOxygen <= MAX_OXYGEN;
+        boolean distanceInRange = distance >= 0 && distance <= START_DISTANCE && rivalDistance >= 0
+                && rivalDistance <= START_DISTANCE;
+        boolean deckInRange = anomalies >= 0 && anomalies <= MAX_ANOMALIES && others >= 0 && others <= MAX_OTHERS;
+        if (!oxygenInRange || !distanceInRange || !deckInRange) {
+            throw new IllegalArgumentException("State out of range");
+        }
+    }
+
+    /**
+     * puts the chances of the player to move and of the rival winning from a
+     * state that may already be over into out
+     * 
+     * @param out chances of the player to move and of the rival
+     */
+    private void outcome(int oxygen, int distance, int rivalOxygen, int rivalDistance, int anomalies, int others,
+            double[] out) {
+        check(oxygen, distance, rivalOxygen, rivalDistance, anomalies, others);
+        if (oxygen == 0) {
+            afterMove(0, distance, rivalOxygen, rivalDistance, anomalies, others, out);
+            return;
+        }
+        if (distance == 0) {
+            out[0] = 1;
+            out[1] = 0;
+            return;
+        }
+        solve(oxygen, distance, rivalOxygen, rivalDistance, anomalies, others, out);
+    }
+
+    /**
+     * puts the chances of the player to move and of the rival winning into
+     * out; the player to move is alive and away from the ship
+     * 
+     * @param out chances of the player to move and of the rival
+     */
+    private void solve(int oxygen, int distance, int rivalOxygen, int rivalDistance, int anomalies, int others,
+            double[] out) {
+        if (rivalOxygen == 0) {
+            rivalDistance = 0;
+        }
+        long key = key(oxygen, distance, rivalOxygen, rivalDistance, anomalies, others);
+        int slot = 3 * ((int) Zobrist.mix(key) & mask);
+        long check = slots.getOpaque(slot);
+        long win = slots.getOpaque(slot + 1);
+        long loss = slots.getOpaque(slot + 2);
+        if ((check ^ win ^ loss) == key) {
+            out[0] = Double.longBitsToDouble(win);
+            out[1] = Double.longBitsToDouble(loss);
+            return;
+        }
+
+        afterMove(oxygen - 1, distance, rivalOxygen, rivalDistance, anomalies, others, out);
+        double bestWin = out[0];
+        double bestLoss = out[1];
+        boolean canTravel = oxygen >= 2 && anomalies + others > 0;
+        if (canTravel) {
+            travel(oxygen, distance, rivalOxygen, rivalDistance, anomalies, others, out);
+            if (better(out[0], out[1], bestWin, bestLoss)) {
+                bestWin = out[0];
+                bestLoss = out[1];
+            }
+        }
+        out[0] = bestWin;
+        out[1] = bestLoss;
+        win = Double.doubleToRawLongBits(bestWin);
+        loss = Double.doubleToRawLongBits(bestLoss);
+        slots.setOpaque(slot + 1, win);
+        slots.setOpaque(slot + 2, loss);
+        slots.setOpaque(slot, key ^ win ^ loss);
+    }
+
+    /**
+     * puts the chances of both players winning after the player to move
+     * travels into out
+     * 
+     * @param out chances of the player to move and of the rival
+     */
+    private void travel(int oxygen, int distance, int rivalOxygen, int rivalDistance, int anomalies, int others,
+            double[] out) {
+        double win = 0;
+        double loss = 0;
+        if (anomalies > 0) {
+            afterMove(oxygen - 2, distance, rivalOxygen, rivalDistance, anomalies - 1, others, out);
+            win += anomalies * out[0];
+            loss += anomalies * out[1];
+        }
+        if (others > 0) {
+            afterMove(oxygen - 2, distance - 1, rivalOxygen, rivalDistance, anomalies, others - 1, out);
+            win += others * out[0];
+            loss += others * out[1];
+        }
+        out[0] = win / (anomalies + others);
+        out[1] = loss / (anomalies + others);
+    }
+
+    /**
+     * puts the chances of both players winning once the player to move has
+     * moved into out, seen from the player who moved
+     * 
+     * @param out chances of the player who moved and of the rival
+     */
+    private void afterMove(int oxygen, int distance, int rivalOxygen, int rivalDistance, int anomalies, int others,
+            double[] out) {
+        if (oxygen == 0) {
+            if (rivalOxygen == 0) {
+                out[0] = 0;
+                out[1] = 0;
+            } else {
+                solve(rivalOxygen, rivalDistance, 0, 0, anomalies, others, out);
+                out[1] = out[0];
+                out[0] = 0;
+            }
+            return;
+        }
+        if (distance == 0) {
+            out[0] = 1;
+            out[1] = 0;
+            return;
+        }
+        if (rivalOxygen == 0) {
+            solve(oxygen, distance, 0, 0, anomalies, others, out);
+            return;
+        }
+        solve(rivalOxygen, rivalDistance, oxygen, distance, anomalies, others, out);
+        double rivalWin = out[0];
+        out[0] = out[1];
+        out[1] = rivalWin;
+    }
+
+    /**
+     * returns true if the first chances are better for the player to move:
+     * more likely to win, or as likely to win and less likely to lose
+     * 
+     * @return boolean
+     */
+    private static boolean better(double win, double loss, double otherWin, double otherLoss) {
+        return win > otherWin || (win == otherWin && loss < otherLoss);
+    }
+
+    /**
+     * returns the key of a state: 6 bits of oxygen and 3 of distance per
+     * player, 7 bits of anomalies and 8 of other cards; never 0, since the
+     * player to move has oxygen
+     * 
+     * @return key
+     */
+    private static long key(int oxygen, int distance, int rivalOxygen, int rivalDistance, int anomalies,
+            int others) {
+        return oxygen | distance << 6 | rivalOxygen << 9 | rivalDistance << 15 | (long) anomalies << 18
+                | (long) others << 25;
+    }
+
+    /**
+     * Class OxygenRange solves the states whose player to move has oxygen from
+     * start (inclusive) to end (exclusive), against every rival
+     */
+    private class OxygenRange extends RecursiveAction {
+        private static final long serialVersionUID = 422L;
+        private int start;
+        private int end;
+        private int maxOxygen;
+        private int anomalies;
+        private int others;
+
+        /**
+         * OxygenRange constructor
+         * 
+         * @param start     least oxygen of the player to move
+         * @param end       oxygen after the most of the player to move
+         * @param maxOxygen most oxygen of the rival
+         * @param anomalies Gravitational anomaly cards in the space deck
+         * @param others    other cards in the space deck
+         */
+        OxygenRange(int start, int end, int maxOxygen, int anomalies, int others) {
+            this.start = start;
+            this.end = end;
+            this.maxOxygen = maxOxygen;
+            this.anomalies = anomalies;
+            this.others = others;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= WARM_UP_SPLIT) {
+                double[] out = new double[2];
+                for (int oxygen = start; oxygen < end; oxygen++) {
+                    for (int rivalOxygen = 0; rivalOxygen <= maxOxygen; rivalOxygen++) {
+                        for (int distance = 1; distance <= START_DISTANCE; distance++) {
+                            for (int rivalDistance = 1; rivalDistance <= START_DISTANCE; rivalDistance++) {
+                                solve(oxygen, distance, rivalOxygen, rivalDistance, anomalies, others, out);
+                            }
+                        }
+                    }
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new OxygenRange(start, middle, maxOxygen, anomalies, others),
+                    new OxygenRange(middle, end, maxOxygen, anomalies, others));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package selfish.sim;
+
+import java.util.Random;
+import selfish.Astronaut;
+import selfish.GameEngine;
+
+/**
+ * Class MctsPlayer chooses every move with a Monte Carlo tree search over
+ * forks of the game, dealing the cards it cannot see at random
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class MctsPlayer implements SimPlayer {
+    private long budgetNanos;
+    private int threads;
+    private int maxIterations;
+
+    /**
+     * MctsPlayer constructor
+     * 
+     * @param budgetMillis time to think about every move, in milliseconds
+     * @param threads      number of threads to search with
+     */
+    public MctsPlayer(long budgetMillis, int threads) {
+        this(budgetMillis, threads, 0);
+    }
+
+    /**
+     * MctsPlayer constructor
+     * 
+     * @param budgetMillis  time to think about every move, in milliseconds,
+     *                      or 0 for no limit
+     * @param threads       number of threads to search with
+     * @param maxIterations most iterations per thread and move, or 0 for no
+     *                      limit; a player limited by iterations alone plays
+     *                      the same moves every time
+     */
+    public MctsPlayer(long budgetMillis, int threads, int maxIterations) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.threads = threads;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * searches for the best move and plays it
+     * 
+     * @param game      game being played
+     * @param astronaut astronaut whose turn it is
+     * @param random    random source of the game
+     */
+    @Override
+    public void takeTurn(GameEngine game, Astronaut astronaut, Random random) {
+        MctsSearch search = new MctsSearch(game, astronaut, random.nextLong(), budgetNanos, maxIterations, threads);
+        SimMove move = search.run();
+        if (move != null) {
+            move.apply(game, astronaut);
+        }
+    }
+}
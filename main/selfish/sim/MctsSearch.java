@@ -0,0 +1,345 @@
+package selfish.sim;
+
+import java.util.*;
+import java.util.concurrent.*;
+import selfish.*;
+import selfish.deck.*;
+
+/**
+ * Class MctsSearch one Monte Carlo tree search for the move of the current
+ * player
+ * 
+ * The searching player cannot see the action cards in the other players'
+ * hands or the order of the decks. Every iteration therefore plays on a fork
+ * of the game in which the rivals' action cards and the game deck are dealt
+ * again at random, and the space deck is shuffled; the oxygen each player
+ * holds, the tracks and the discard piles are known and kept. The tree holds
+ * the moves of every player, and a move's statistics count how often it was
+ * legal as well as how often it was chosen, since a rival's moves depend on
+ * the hand it was dealt.
+ * 
+ * Each worker thread searches its own tree until the deadline, and the visits
+ * to the moves at the root are added up at the end, so the threads share
+ * nothing but the game they start from.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class MctsSearch {
+    /** Weight of exploring less visited moves */
+    public static final double EXPLORATION = 0.7;
+    /** Most turns a playout plays before it is scored as a loss for all */
+    public static final int PLAYOUT_TURNS = 300;
+    private static final SimPlayer PLAYOUT_PLAYER = new RandomPlayer();
+    private GameEngine game;
+    private Astronaut astronaut;
+    private long seed;
+    private long deadline;
+    private int maxIterations;
+    private int threads;
+    private Map<SimMove, Integer> visits = new HashMap<SimMove, Integer>();
+    private long iterations;
+
+    /**
+     * MctsSearch constructor; the game must be between startTurn() and
+     * endTurn() of the astronaut, and must not change until run() returns
+     * 
+     * @param game          game being played
+     * @param astronaut     astronaut whose turn it is
+     * @param seed          seed of the search, so a search bounded by
+     *                      iterations alone always finds the same move
+     * @param budgetNanos   time to search for, or 0 for no limit
+     * @param maxIterations most iterations per thread, or 0 for no limit
+     * @param threads       number of worker threads
+     * @throws IllegalArgumentException neither the time nor the iterations
+     *                                  are limited
+     */
+    public MctsSearch(GameEngine game, Astronaut astronaut, long seed, long budgetNanos, int maxIterations,
+            int threads) {
+        this.game = game;
+        this.astronaut = astronaut;
+        this.seed = seed;
+        if (budgetNanos <= 0 && maxIterations <= 0) {
+            throw new IllegalArgumentException("search needs a time or iteration limit");
+        }
+        this.deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : Long.MAX_VALUE;
+        this.maxIterations = maxIterations;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * searches until the deadline and returns the move visited most
+     * 
+     * @return move, or null if the astronaut has no legal move
+     */
+    public SimMove run() {
+        List<SimMove> moves = SimMove.legalMoves(game, astronaut);
+        if (moves.size() <= 1) {
+            return moves.isEmpty() ? null : moves.get(0);
+        }
+        GameRandom random = new GameRandom(seed);
+        List<Worker> workers = new ArrayList<Worker>(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Worker(game.fork(), astronaut.getSeat(), random.split()));
+        }
+        if (threads == 1) {
+            workers.get(0).compute();
+        } else {
+            ForkJoinTask.invokeAll(workers);
+        }
+
+        visits = new HashMap<SimMove, Integer>();
+        iterations = 0;
+        for (Worker worker : workers) {
+            iterations += worker.iterations;
+            for (Node child : worker.root.children) {
+                visits.merge(child.move, child.visits, Integer::sum);
+            }
+        }
+        SimMove best = moves.get(0);
+        int bestVisits = -1;
+        for (SimMove move : moves) {
+            int moveVisits = visits.getOrDefault(move, 0);
+            if (moveVisits > bestVisits) {
+                best = move;
+                bestVisits = moveVisits;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * returns the number of iterations run by all threads
+     * 
+     * @return iterations
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * returns how often each move at the root was chosen, over all threads
+     * 
+     * @return visits by move
+     */
+    public Map<SimMove, Integer> getVisits() {
+        return Collections.unmodifiableMap(visits);
+    }
+
+    /**
+     * deals the hidden cards of a fork again: the action cards in the rivals'
+     * hands and the cards in the game deck are shuffled together, every rival
+     * gets back as many action cards as it had and the rest go back into the
+     * game deck, which is then shuffled with the space deck. The random
+     * streams of the fork are seeded again too, so it cannot foresee the
+     * shuffles and steals of the real game.
+     * 
+     * @param fork   fork of the game
+     * @param seat   seat of the searching player
+     * @param random random
+     */
+    static void determinize(GameEngine fork, int seat, Random random) {
+        List<Card> hidden = new ArrayList<Card>();
+        int[] dealt = new int[GameEngine.MAX_SEATS];
+        for (Astronaut player : fork.getAllPlayers()) {
+            boolean isHidden = player.getSeat() != seat && player.isAlive();
+            if (!isHidden) {
+                continue;
+            }
+            List<Card> actions = new ArrayList<Card>(player.getActions());
+            for (Card card : actions) {
+                player.hack(card);
+            }
+            hidden.addAll(actions);
+            dealt[player.getSeat()] = actions.size();
+        }
+        GameDeck gameDeck = fork.getGameDeck();
+        List<Card> oxygens = new ArrayList<Card>();
+        while (gameDeck.size() > 0) {
+            Card card = gameDeck.draw();
+            if (card instanceof Oxygen) {
+                oxygens.add(card);
+            } else {
+                hidden.add(card);
+            }
+        }
+        Collections.shuffle(hidden, random);
+        int next = 0;
+        for (Astronaut player : fork.getAllPlayers()) {
+            for (int i = 0; i < dealt[player.getSeat()]; i++) {
+                player.addToHand(hidden.get(next++));
+            }
+        }
+        for (int i = next; i < hidden.size(); i++) {
+            gameDeck.add(hidden.get(i));
+        }
+        for (Card card : oxygens) {
+            gameDeck.add(card);
+        }
+        gameDeck.shuffle(random);
+        fork.getSpaceDeck().shuffle(random);
+        for (RandomStream stream : RandomStream.values()) {
+            fork.getRandom(stream).setSeed(random.nextLong());
+        }
+    }
+
+    /**
+     * Class Node a move in the tree, with how often it was legal and chosen
+     * and how often the player who made it went on to win
+     */
+    private static class Node {
+        private SimMove move;
+        private int seat;
+        private int visits;
+        private int available;
+        private double wins;
+        private List<Node> children = new ArrayList<Node>(4);
+
+        /**
+         * Node constructor
+         * 
+         * @param move move, or null for the root
+         * @param seat seat of the player who made the move
+         */
+        Node(SimMove move, int seat) {
+            this.move = move;
+            this.seat = seat;
+        }
+
+        /**
+         * returns the child for the passed move
+         * 
+         * @param move move
+         * @return child, or null if the move was never tried
+         */
+        Node child(SimMove move) {
+            for (int i = 0; i < children.size(); i++) {
+                Node child = children.get(i);
+                if (child.move.equals(move)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * returns the upper confidence bound of the move
+         * 
+         * @return score
+         */
+        double score() {
+            return wins / visits + EXPLORATION * Math.sqrt(Math.log(available) / visits);
+        }
+    }
+
+    /**
+     * Class Worker searches one tree until the deadline
+     */
+    private class Worker extends RecursiveAction {
+        private static final long serialVersionUID = 422L;
+        private GameEngine start;
+        private int seat;
+        private GameRandom random;
+        private Node root;
+        private long iterations;
+
+        /**
+         * Worker constructor
+         * 
+         * @param start  fork of the game, owned by this worker
+         * @param seat   seat of the searching player
+         * @param random random of this worker
+         */
+        Worker(GameEngine start, int seat, GameRandom random) {
+            this.start = start;
+            this.seat = seat;
+            this.random = random;
+            this.root = new Node(null, seat);
+        }
+
+        @Override
+        protected void compute() {
+            while (System.nanoTime() < deadline && (maxIterations <= 0 || iterations < maxIterations)) {
+                iterate();
+                iterations++;
+            }
+        }
+
+        /**
+         * plays one determinized game down the tree and out, and scores the
+         * moves on the way
+         */
+        private void iterate() {
+            GameEngine fork = start.fork();
+            determinize(fork, seat, random);
+            List<Node> path = new ArrayList<Node>();
+            int winner = -1;
+            try {
+                Node node = root;
+                boolean expanded = false;
+                while (!fork.gameOver() && !expanded) {
+                    Astronaut player = fork.getCurrentPlayer();
+                    List<SimMove> moves = SimMove.legalMoves(fork, player);
+                    Node next = null;
+                    List<SimMove> untried = new ArrayList<SimMove>();
+                    for (SimMove move : moves) {
+                        Node child = node.child(move);
+                        if (child == null) {
+                            untried.add(move);
+                            continue;
+                        }
+                        child.available++;
+                        if (next == null || child.score() > next.score()) {
+                            next = child;
+                        }
+                    }
+                    if (!untried.isEmpty()) {
+                        next = new Node(untried.get(random.nextInt(untried.size())), player.getSeat());
+                        next.available++;
+                        node.children.add(next);
+                        expanded = true;
+                    }
+                    next.move.apply(fork, player);
+                    path.add(next);
+                    node = next;
+                    endTurn(fork);
+                }
+                playOut(fork);
+                Astronaut winningPlayer = fork.getWinner();
+                winner = winningPlayer == null ? -1 : winningPlayer.getSeat();
+            } catch (RuntimeException e) {
+                winner = -1;
+            }
+            for (Node node : path) {
+                node.visits++;
+                if (node.seat == winner) {
+                    node.wins++;
+                }
+            }
+        }
+
+        /**
+         * plays the rest of the game with random moves
+         * 
+         * @param fork game
+         */
+        private void playOut(GameEngine fork) {
+            for (int turns = 0; turns < PLAYOUT_TURNS && !fork.gameOver(); turns++) {
+                PLAYOUT_PLAYER.takeTurn(fork, fork.getCurrentPlayer(), random);
+                endTurn(fork);
+            }
+        }
+
+        /**
+         * ends the turn and starts the next one, unless the game is over
+         * 
+         * @param fork game
+         */
+        private void endTurn(GameEngine fork) {
+            fork.endTurn();
+            if (!fork.gameOver()) {
+                fork.startTurn();
+            }
+        }
+    }
+}
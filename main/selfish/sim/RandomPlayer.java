@@ -0,0 +1,77 @@
+package selfish.sim;
+
+import java.util.*;
+import selfish.Astronaut;
+import selfish.GameEngine;
+import selfish.deck.*;
+
+/**
+ * Class RandomPlayer plays random legal moves, including Laser blast and Hole
+ * in suit against random rivals
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class RandomPlayer implements SimPlayer {
+
+    /**
+     * an empty constructor
+     */
+    public RandomPlayer() {
+    }
+
+    /**
+     * may attack a rival, then travels or breathes at random
+     * 
+     * @param game      game being played
+     * @param astronaut astronaut whose turn it is
+     * @param random    random source of the game
+     */
+    @Override
+    public void takeTurn(GameEngine game, Astronaut astronaut, Random random) {
+        if (astronaut.hasCard(GameDeck.LASER_BLAST) > 0 && random.nextBoolean()) {
+            Astronaut rival = pickRival(game, astronaut, random, true);
+            if (rival != null) {
+                game.getGameDiscard().add(astronaut.hack(GameDeck.LASER_BLAST));
+                game.getSpaceDiscard().add(rival.laserBlast());
+            }
+        }
+        if (astronaut.hasCard(GameDeck.HOLE_IN_SUIT) > 0 && random.nextBoolean()) {
+            Astronaut rival = pickRival(game, astronaut, random, false);
+            if (rival != null) {
+                game.getGameDiscard().add(astronaut.hack(GameDeck.HOLE_IN_SUIT));
+                String oxygen = rival.hasCard(GameDeck.OXYGEN_1) > 0 ? GameDeck.OXYGEN_1 : GameDeck.OXYGEN_2;
+                game.getGameDiscard().add(rival.hack(oxygen));
+            }
+        }
+        boolean canTravel = astronaut.oxygenRemaining() >= 2 && game.getSpaceDeck().size() > 0;
+        if (canTravel && random.nextInt(3) != 0) {
+            game.travel(astronaut);
+        } else {
+            astronaut.breathe();
+        }
+    }
+
+    /**
+     * picks a random living rival
+     * 
+     * @param game          game being played
+     * @param astronaut     astronaut looking for a rival
+     * @param random        random source of the game
+     * @param mustHaveTrack only picks rivals that have left the starting space
+     * @return rival, or null if there is none
+     */
+    private static Astronaut pickRival(GameEngine game, Astronaut astronaut, Random random, boolean mustHaveTrack) {
+        List<Astronaut> rivals = new ArrayList<Astronaut>();
+        for (Astronaut player : game.getAllPlayers()) {
+            boolean isRival = player != astronaut && player.isAlive();
+            if (isRival && (!mustHaveTrack || !player.getTrack().isEmpty())) {
+                rivals.add(player);
+            }
+        }
+        if (rivals.isEmpty()) {
+            return null;
+        }
+        return rivals.get(random.nextInt(rivals.size()));
+    }
+}
@@ -0,0 +1,39 @@
+package selfish.sim;
+
+import java.util.Random;
+import selfish.Astronaut;
+import selfish.GameEngine;
+
+/**
+ * Class ScriptedPlayer travels whenever it can survive the trip and breathes
+ * otherwise
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class ScriptedPlayer implements SimPlayer {
+
+    /**
+     * an empty constructor
+     */
+    public ScriptedPlayer() {
+    }
+
+    /**
+     * travels if more than two oxygens are left, otherwise breathes
+     * 
+     * @param game      game being played
+     * @param astronaut astronaut whose turn it is
+     * @param random    random source of the game
+     */
+    @Override
+    public void takeTurn(GameEngine game, Astronaut astronaut, Random random) {
+        boolean canSurviveTravel = astronaut.oxygenRemaining() > 2;
+        boolean spaceDeckIsEmpty = game.getSpaceDeck().size() == 0;
+        if (canSurviveTravel && !spaceDeckIsEmpty) {
+            game.travel(astronaut);
+        } else {
+            astronaut.breathe();
+        }
+    }
+}
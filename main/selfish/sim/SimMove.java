@@ -0,0 +1,154 @@
+package selfish.sim;
+
+import java.util.*;
+import selfish.Astronaut;
+import selfish.GameEngine;
+import selfish.deck.*;
+
+/**
+ * Class SimMove one turn of a computer player: an optional attack on a rival
+ * with Laser blast or Hole in suit, then travelling or breathing
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class SimMove {
+    private final String attack;
+    private final int target;
+    private final boolean travel;
+
+    /**
+     * SimMove constructor
+     * 
+     * @param attack Laser blast, Hole in suit, or null for no attack
+     * @param target seat of the rival attacked, or -1 for no attack
+     * @param travel true to travel, false to breathe
+     */
+    public SimMove(String attack, int target, boolean travel) {
+        this.attack = attack;
+        this.target = attack == null ? -1 : target;
+        this.travel = travel;
+    }
+
+    /**
+     * returns every move the astronaut can make in the current turn
+     * 
+     * @param game      game being played
+     * @param astronaut astronaut whose turn it is
+     * @return moves
+     */
+    public static List<SimMove> legalMoves(GameEngine game, Astronaut astronaut) {
+        boolean canTravel = astronaut.oxygenRemaining() >= 2 && game.getSpaceDeck().size() > 0;
+        boolean hasLaserBlast = astronaut.hasCard(GameDeck.LASER_BLAST) > 0;
+        boolean hasHoleInSuit = astronaut.hasCard(GameDeck.HOLE_IN_SUIT) > 0;
+        List<SimMove> moves = new ArrayList<SimMove>();
+        addMoves(moves, null, -1, canTravel);
+        for (Astronaut rival : game.getAllPlayers()) {
+            boolean isRival = rival != astronaut && rival.isAlive();
+            if (!isRival) {
+                continue;
+            }
+            if (hasLaserBlast && !rival.getTrack().isEmpty()) {
+                addMoves(moves, GameDeck.LASER_BLAST, rival.getSeat(), canTravel);
+            }
+            if (hasHoleInSuit) {
+                addMoves(moves, GameDeck.HOLE_IN_SUIT, rival.getSeat(), canTravel);
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * plays the move for the astronaut, between startTurn() and endTurn()
+     * 
+     * @param game      game being played
+     * @param astronaut astronaut whose turn it is
+     */
+    public void apply(GameEngine game, Astronaut astronaut) {
+        if (attack != null) {
+            Astronaut rival = game.getPlayer(target);
+            game.getGameDiscard().add(astronaut.hack(attack));
+            if (attack.equals(GameDeck.LASER_BLAST)) {
+                game.getSpaceDiscard().add(rival.laserBlast());
+            } else {
+                String oxygen = rival.hasCard(GameDeck.OXYGEN_1) > 0 ? GameDeck.OXYGEN_1 : GameDeck.OXYGEN_2;
+                game.getGameDiscard().add(rival.hack(oxygen));
+            }
+        }
+        if (travel) {
+            game.travel(astronaut);
+        } else {
+            astronaut.breathe();
+        }
+    }
+
+    /**
+     * returns the attack card
+     * 
+     * @return Laser blast, Hole in suit, or null for no attack
+     */
+    public String getAttack() {
+        return attack;
+    }
+
+    /**
+     * returns the seat of the rival attacked
+     * 
+     * @return seat, or -1 for no attack
+     */
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * returns true if the move travels, false if it breathes
+     * 
+     * @return boolean
+     */
+    public boolean isTravel() {
+        return travel;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof SimMove)) {
+            return false;
+        }
+        SimMove move = (SimMove) other;
+        return Objects.equals(attack, move.attack) && target == move.target && travel == move.travel;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(attack, target, travel);
+    }
+
+    /**
+     * returns the move in words
+     * 
+     * @return move
+     */
+    public String toString() {
+        String action = travel ? "travel" : "breathe";
+        if (attack == null) {
+            return action;
+        }
+        return attack + " seat " + target + ", " + action;
+    }
+
+    /**
+     * adds the move that breathes and, if the astronaut can travel, the move
+     * that travels
+     * 
+     * @param moves     moves to add to
+     * @param attack    attack card, or null
+     * @param target    seat of the rival attacked
+     * @param canTravel true if the astronaut can travel
+     */
+    private static void addMoves(List<SimMove> moves, String attack, int target, boolean canTravel) {
+        moves.add(new SimMove(attack, target, false));
+        if (canTravel) {
+            moves.add(new SimMove(attack, target, true));
+        }
+    }
+}
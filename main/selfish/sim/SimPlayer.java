@@ -0,0 +1,25 @@
+package selfish.sim;
+
+import java.util.Random;
+import selfish.Astronaut;
+import selfish.GameEngine;
+
+/**
+ * Interface SimPlayer a computer player for headless games
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public interface SimPlayer {
+
+    /**
+     * plays the current player's turn, between startTurn() and endTurn();
+     * implementations are shared between games and threads, so they must keep
+     * no state of their own
+     * 
+     * @param game      game being played
+     * @param astronaut astronaut whose turn it is
+     * @param random    random source of the game
+     */
+    void takeTurn(GameEngine game, Astronaut astronaut, Random random);
+}
@@ -0,0 +1,142 @@
+package selfish.sim;
+
+import java.util.*;
+import java.util.concurrent.*;
+import selfish.Astronaut;
+import selfish.GameEngine;
+import selfish.GameException;
+import selfish.RandomStream;
+
+/**
+ * Class Simulation plays seeded games without the console, spreading seed
+ * ranges over a fork-join pool
+ * 
+ * Every worker thread adds its games to a result of its own, and the results
+ * of the threads are merged once all games are played, so the memory a run
+ * takes depends on the number of threads and not on the number of games.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class Simulation {
+    /** Turn limit after which a game counts as unfinished */
+    public static final int MAX_TURNS = 1000;
+    private static final int GAMES_PER_TASK = 64;
+    private String actionCardsPath;
+    private String spaceCardsPath;
+    private SimPlayer[] players;
+
+    /**
+     * Simulation constructor
+     * 
+     * @param actionCardsPath path to the action cards text file
+     * @param spaceCardsPath  path to the space cards text file
+     * @param players         one player per seat, 2 to 5 seats
+     */
+    public Simulation(String actionCardsPath, String spaceCardsPath, SimPlayer... players) {
+        if (players.length < 2 || players.length > 5) {
+            throw new IllegalArgumentException();
+        }
+        this.actionCardsPath = actionCardsPath;
+        this.spaceCardsPath = spaceCardsPath;
+        this.players = players.clone();
+    }
+
+    /**
+     * plays one game per seed in the range, on the passed number of threads;
+     * the totals are the same for any number of threads
+     * 
+     * @param firstSeed seed of the first game
+     * @param games     number of games to play
+     * @param threads   number of worker threads
+     * @return totals of all games
+     */
+    public SimulationResult run(long firstSeed, long games, int threads) {
+        long startTime = System.nanoTime();
+        Queue<SimulationResult> accumulators = new ConcurrentLinkedQueue<SimulationResult>();
+        ThreadLocal<SimulationResult> accumulator = ThreadLocal.withInitial(() -> {
+            SimulationResult threadResult = new SimulationResult(players.length);
+            accumulators.add(threadResult);
+            return threadResult;
+        });
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new SeedRange(firstSeed, firstSeed + games, accumulator));
+        } finally {
+            pool.shutdown();
+        }
+        SimulationResult result = new SimulationResult(players.length);
+        for (SimulationResult threadResult : accumulators) {
+            result.merge(threadResult);
+        }
+        result.setElapsedNanos(System.nanoTime() - startTime);
+        return result;
+    }
+
+    /**
+     * plays a single game and adds it to the passed result
+     * 
+     * @param seed   seed of the game
+     * @param result result to record the game in
+     */
+    public void playGame(long seed, SimulationResult result) {
+        try {
+            GameEngine game = new GameEngine(seed, actionCardsPath, spaceCardsPath);
+            game.setHeadless(true);
+            for (int i = 0; i < players.length; i++) {
+                game.addPlayer("Player " + (i + 1));
+            }
+            Random random = game.getRandom(RandomStream.PLAYERS);
+            game.startGame();
+
+            int turns = 0;
+            while (!game.gameOver() && turns < MAX_TURNS) {
+                game.startTurn();
+                Astronaut astronaut = game.getCurrentPlayer();
+                players[astronaut.getSeat()].takeTurn(game, astronaut, random);
+                game.endTurn();
+                turns++;
+            }
+            result.recordGame(seed, game, turns);
+        } catch (GameException | RuntimeException e) {
+            result.recordError(seed);
+        }
+    }
+
+    /**
+     * Class SeedRange plays the seeds from start (inclusive) to end (exclusive)
+     * into the result of the thread running it
+     */
+    private class SeedRange extends RecursiveAction {
+        private static final long serialVersionUID = 422L;
+        private long start;
+        private long end;
+        private transient ThreadLocal<SimulationResult> accumulator;
+
+        /**
+         * SeedRange constructor
+         * 
+         * @param start       first seed
+         * @param end         seed after the last one
+         * @param accumulator result of each worker thread
+         */
+        SeedRange(long start, long end, ThreadLocal<SimulationResult> accumulator) {
+            this.start = start;
+            this.end = end;
+            this.accumulator = accumulator;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= GAMES_PER_TASK) {
+                SimulationResult result = accumulator.get();
+                for (long seed = start; seed < end; seed++) {
+                    playGame(seed, result);
+                }
+                return;
+            }
+            long middle = start + (end - start) / 2;
+            invokeAll(new SeedRange(start, middle, accumulator), new SeedRange(middle, end, accumulator));
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package selfish.sim;
+
+import java.util.Locale;
+import selfish.Astronaut;
+import selfish.EventType;
+import selfish.GameEngine;
+
+/**
+ * Class SimulationResult totals of a range of simulated games; totals do not
+ * depend on the order in which games are merged
+ * 
+ * Besides the wins it keeps histograms of the length of games, the deck merges
+ * per game and the oxygen the winner had left, and counts deaths by the call
+ * that caused them, all of a fixed size, so a result takes the same memory
+ * however many games it holds. It can be exported as CSV or JSON.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public class SimulationResult {
+    /** Largest number of merges or oxygen with a histogram bucket of its own */
+    public static final int MAX_COUNTED = 63;
+    private long games;
+    private long[] winsBySeat;
+    private long noWinner;
+    private long unfinished;
+    private long errors;
+    private long turns;
+    private long checksum;
+    private long elapsedNanos;
+    private CountHistogram gameLength = new CountHistogram(Simulation.MAX_TURNS);
+    private CountHistogram mergesPerGame = new CountHistogram(MAX_COUNTED);
+    private CountHistogram oxygenAtVictory = new CountHistogram(MAX_COUNTED);
+    private long[] deathsByCause = new long[EventType.values().length];
+
+    /**
+     * creates an empty result
+     * 
+     * @param numberOfPlayers number of seats in every game
+     */
+    public SimulationResult(int numberOfPlayers) {
+        this.winsBySeat = new long[numberOfPlayers];
+    }
+
+    /**
+     * records one game
+     * 
+     * @param seed  seed of the game
+     * @param game  game, over or stopped at the turn limit
+     * @param turns number of turns played
+     */
+    void recordGame(long seed, GameEngine game, int turns) {
+        Astronaut winner = game.getWinner();
+        int winnerSeat = winner == null ? -1 : winner.getSeat();
+        int winnerOxygen = winner == null ? 0 : winner.oxygenRemaining();
+        recordGame(seed, winnerSeat, winnerOxygen, turns, game.gameOver(), game.getMergeCount());
+        for (Astronaut player : game.getAllPlayers()) {
+            EventType cause = game.getCauseOfDeath(player);
+            if (cause != null) {
+                recordDeath(cause);
+            }
+        }
+    }
+
+    /**
+     * records one game from its outcome
+     * 
+     * @param seed         seed of the game
+     * @param winnerSeat   seat of the winner, or -1 if nobody won
+     * @param winnerOxygen oxygen the winner had left
+     * @param turns        number of turns played
+     * @param finished     false if the game hit the turn limit
+     * @param merges       number of deck merges in the game
+     */
+    void recordGame(long seed, int winnerSeat, int winnerOxygen, int turns, boolean finished, int merges) {
+        games++;
+        this.turns += turns;
+        if (!finished) {
+            unfinished++;
+        } else if (winnerSeat < 0) {
+            noWinner++;
+        } else {
+            winsBySeat[winnerSeat]++;
+            oxygenAtVictory.record(winnerOxygen);
+        }
+        gameLength.record(turns);
+        mergesPerGame.record(merges);
+        checksum += mix(seed * 31 + winnerSeat * 7919L + turns);
+    }
+
+    /**
+     * records the death of a player
+     * 
+     * @param cause outermost call running when the player died
+     */
+    void recordDeath(EventType cause) {
+        deathsByCause[cause.ordinal()]++;
+    }
+
+    /**
+     * records a game that threw an exception
+     * 
+     * @param seed seed of the game
+     */
+    void recordError(long seed) {
+        games++;
+        errors++;
+        checksum += mix(~seed);
+    }
+
+    /**
+     * adds the totals of another result to this one
+     * 
+     * @param other result to add
+     * @return this result
+     */
+    SimulationResult merge(SimulationResult other) {
+        games += other.games;
+        for (int i = 0; i < winsBySeat.length; i++) {
+            winsBySeat[i] += other.winsBySeat[i];
+        }
+        noWinner += other.noWinner;
+        unfinished += other.unfinished;
+        errors += other.errors;
+        turns += other.turns;
+        checksum += other.checksum;
+        gameLength.merge(other.gameLength);
+        mergesPerGame.merge(other.mergesPerGame);
+        oxygenAtVictory.merge(other.oxygenAtVictory);
+        for (int i = 0; i < deathsByCause.length; i++) {
+            deathsByCause[i] += other.deathsByCause[i];
+        }
+        return this;
+    }
+
+    /**
+     * sets the wall clock time the run took
+     * 
+     * @param elapsedNanos elapsed time in nanoseconds
+     */
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * returns the number of games played
+     * 
+     * @return games
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * returns the number of wins of the passed seat
+     * 
+     * @param seat seat, in the order players were added
+     * @return wins
+     */
+    public long getWins(int seat) {
+        return winsBySeat[seat];
+    }
+
+    /**
+     * returns the number of games in which every player died
+     * 
+     * @return games without a winner
+     */
+    public long getNoWinner() {
+        return noWinner;
+    }
+
+    /**
+     * returns the number of games stopped at the turn limit
+     * 
+     * @return unfinished games
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * returns the number of games that threw an exception
+     * 
+     * @return errors
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * returns the number of turns played in all games
+     * 
+     * @return turns
+     */
+    public long getTurns() {
+        return turns;
+    }
+
+    /**
+     * returns a checksum over every game's outcome, equal for equal seed ranges
+     * 
+     * @return checksum
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * returns the number of turns each game lasted, games that threw an
+     * exception left out
+     * 
+     * @return histogram of turns
+     */
+    public CountHistogram getGameLength() {
+        return gameLength;
+    }
+
+    /**
+     * returns the number of times the game deck and its discard pile were
+     * merged in each game, games that threw an exception left out
+     * 
+     * @return histogram of merges
+     */
+    public CountHistogram getMergesPerGame() {
+        return mergesPerGame;
+    }
+
+    /**
+     * returns the oxygen the winner had left in each game that was won
+     * 
+     * @return histogram of oxygen
+     */
+    public CountHistogram getOxygenAtVictory() {
+        return oxygenAtVictory;
+    }
+
+    /**
+     * returns the number of players killed in the passed call, see
+     * GameEngine.getCauseOfDeath()
+     * 
+     * @param cause outermost call running when the players died
+     * @return deaths
+     */
+    public long getDeaths(EventType cause) {
+        return deathsByCause[cause.ordinal()];
+    }
+
+    /**
+     * returns the number of games played per second of wall clock time
+     * 
+     * @return games per second
+     */
+    public double getGamesPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return games * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * returns a summary of the run
+     * 
+     * @return summary
+     */
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("Games played: ").append(games).append('\n');
+        for (int i = 0; i < winsBySeat.length; i++) {
+            summary.append("Seat ").append(i + 1).append(" wins: ").append(winsBySeat[i]).append('\n');
+        }
+        summary.append("No winner: ").append(noWinner).append('\n');
+        summary.append("Unfinished: ").append(unfinished).append('\n');
+        summary.append("Errors: ").append(errors).append('\n');
+        summary.append("Turns: ").append(turns).append('\n');
+        summary.append(String.format("Checksum: %016x%n", checksum));
+        summary.append(String.format("Games per second: %.1f", getGamesPerSecond()));
+        return summary.toString();
+    }
+
+    /**
+     * returns the result as CSV rows of statistic, key and value: the totals,
+     * the wins of every seat, the deaths by cause, and a row for every value
+     * seen in the histograms of game length, merges per game and oxygen at
+     * victory
+     * 
+     * @return CSV with a header row
+     */
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder("statistic,key,value\n");
+        csv.append("games,,").append(games).append('\n');
+        csv.append("no_winner,,").append(noWinner).append('\n');
+        csv.append("unfinished,,").append(unfinished).append('\n');
+        csv.append("errors,,").append(errors).append('\n');
+        csv.append("turns,,").append(turns).append('\n');
+        csv.append(String.format("checksum,,%016x", checksum)).append('\n');
+        for (int i = 0; i < winsBySeat.length; i++) {
+            csv.append("wins,").append(i + 1).append(',').append(winsBySeat[i]).append('\n');
+        }
+        for (EventType cause : EventType.values()) {
+            if (deathsByCause[cause.ordinal()] != 0) {
+                csv.append("deaths,").append(cause).append(',').append(deathsByCause[cause.ordinal()]).append('\n');
+            }
+        }
+        gameLength.appendCsv(csv, "game_length");
+        mergesPerGame.appendCsv(csv, "merges_per_game");
+        oxygenAtVictory.appendCsv(csv, "oxygen_at_victory");
+        return csv.toString();
+    }
+
+    /**
+     * returns the result as one JSON object
+     * 
+     * @return JSON
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"games\":").append(games);
+        json.append(",\"winsBySeat\":[");
+        for (int i = 0; i < winsBySeat.length; i++) {
+            json.append(i == 0 ? "" : ",").append(winsBySeat[i]);
+        }
+        json.append("],\"noWinner\":").append(noWinner);
+        json.append(",\"unfinished\":").append(unfinished);
+        json.append(",\"errors\":").append(errors);
+        json.append(",\"turns\":").append(turns);
+        json.append(String.format(",\"checksum\":\"%016x\"", checksum));
+        json.append(String.format(Locale.ROOT, ",\"gamesPerSecond\":%.1f", getGamesPerSecond()));
+        json.append(",\"deathsByCause\":{");
+        boolean first = true;
+        for (EventType cause : EventType.values()) {
+            if (deathsByCause[cause.ordinal()] == 0) {
+                continue;
+            }
+            json.append(first ? "" : ",").append('"').append(cause).append("\":");
+            json.append(deathsByCause[cause.ordinal()]);
+            first = false;
+        }
+        json.append("},\"gameLength\":");
+        gameLength.appendJson(json);
+        json.append(",\"mergesPerGame\":");
+        mergesPerGame.appendJson(json);
+        json.append(",\"oxygenAtVictory\":");
+        oxygenAtVictory.appendJson(json);
+        return json.append('}').toString();
+    }
+
+    /**
+     * scrambles the bits of a game's outcome
+     * 
+     * @param value value to scramble
+     * @return scrambled value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,38 @@
+package selfish;
+
+import selfish.deck.*;
+import static selfish.Checks.check;
+
+/**
+ * Class AstronautCheck checks that Astronaut.steal() can take any card in hand
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class AstronautCheck {
+    private static final int GAMES = 200;
+
+    /**
+     * an empty constructor
+     */
+    private AstronautCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] stolen = new int[CardType.COUNT];
+        for (long seed = 1; seed <= GAMES; seed++) {
+            GameEngine game = Checks.newGame(seed, 2, false);
+            Astronaut astronaut = game.getAllPlayers().get(0);
+            astronaut.addToHand(Card.of(GameDeck.SHIELD, "check"));
+            astronaut.addToHand(Card.of(GameDeck.TETHER, "check"));
+            Card card = astronaut.steal();
+            stolen[card.getType().getId()]++;
+            check(astronaut.getHand().size() == 1, "steal left " + astronaut.getHand().size() + " cards");
+        }
+        for (CardType type : new CardType[] { CardType.SHIELD, CardType.TETHER }) {
+            int count = stolen[type.getId()];
+            check(count > GAMES / 4 && count < GAMES * 3 / 4, type + " stolen " + count + " of " + GAMES + " times");
+        }
+        System.out.println("AstronautCheck passed");
+    }
+}
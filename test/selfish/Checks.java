@@ -0,0 +1,110 @@
+package selfish;
+
+import java.util.*;
+import selfish.sim.*;
+
+/**
+ * Class Checks runs every check of the engine's invariants
+ * 
+ * <pre>
+ * javac -d out $(find main test -name '*.java')
+ * java -cp out selfish.Checks
+ * </pre>
+ * 
+ * Each check is also a program of its own, and throws an AssertionError on
+ * the first invariant that does not hold.
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class Checks {
+    /** Directory holding the card files */
+    public static final String IO_DIR = System.getProperty("selfish.io", "io");
+
+    /**
+     * an empty constructor
+     */
+    private Checks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        GameRandomCheck.main(args);
+        AstronautCheck.main(args);
+        SaveFormatCheck.main(args);
+        GameJournalCheck.main(args);
+        ForkCheck.main(args);
+        StateHashCheck.main(args);
+        selfish.io.GameLogCheck.main(args);
+        selfish.io.LineConnectionCheck.main(args);
+        selfish.session.SessionManagerCheck.main(args);
+        selfish.session.GameActorCheck.main(args);
+        System.out.println("All checks passed");
+    }
+
+    /**
+     * fails the check if the condition does not hold
+     * 
+     * @param condition condition
+     * @param message   what went wrong
+     * @throws AssertionError the condition does not hold
+     */
+    public static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * returns a new game with its players added
+     * 
+     * @param seed    seed
+     * @param players number of players
+     * @param start   true to start the game
+     * @return game
+     * @throws GameException card files not found
+     */
+    public static GameEngine newGame(long seed, int players, boolean start) throws GameException {
+        GameEngine game = new GameEngine(seed, IO_DIR + "/ActionCards.txt", IO_DIR + "/SpaceCards.txt");
+        game.setHeadless(true);
+        for (int i = 0; i < players; i++) {
+            game.addPlayer("Player " + (i + 1));
+        }
+        if (start) {
+            game.startGame();
+        }
+        return game;
+    }
+
+    /**
+     * plays turns with a RandomPlayer until the game is over or the passed
+     * number of turns was played
+     * 
+     * @param game   started game
+     * @param random choices of the player
+     * @param turns  most turns to play
+     */
+    public static void playTurns(GameEngine game, Random random, int turns) {
+        SimPlayer player = new RandomPlayer();
+        for (int i = 0; i < turns && !game.gameOver(); i++) {
+            game.startTurn();
+            player.takeTurn(game, game.getCurrentPlayer(), random);
+            game.endTurn();
+        }
+    }
+
+    /**
+     * returns the players and decks of a game as text, to compare games by
+     * 
+     * @param game game
+     * @return text
+     */
+    public static String describe(GameEngine game) {
+        StringBuilder text = new StringBuilder();
+        for (Astronaut astronaut : game.getAllPlayers()) {
+            text.append(astronaut).append(':').append(astronaut.getHand()).append(astronaut.getTrack()).append(';');
+        }
+        text.append(game.getGameDeck().getCards()).append(game.getGameDiscard().getCards());
+        text.append(game.getSpaceDeck().getCards()).append(game.getSpaceDiscard().getCards());
+        return text.toString();
+    }
+}
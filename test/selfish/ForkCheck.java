@@ -0,0 +1,68 @@
+package selfish;
+
+import java.io.*;
+import java.util.*;
+import static selfish.Checks.check;
+
+/**
+ * Class ForkCheck checks that a fork of a game and the game it was forked
+ * from never change each other, and that a fork plays out like the original
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class ForkCheck {
+    private static final int GAMES = 100;
+    private static final int MAX_TURNS = 1000;
+
+    /**
+     * an empty constructor
+     */
+    private ForkCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (long seed = 1; seed <= GAMES; seed++) {
+            GameEngine game = Checks.newGame(seed, 2 + (int) (seed % 4), true);
+            Checks.playTurns(game, new Random(seed), (int) (seed % 30));
+            byte[] before = serialize(game);
+            GameEngine fork = game.fork();
+            GameEngine twin = game.fork();
+            check(Arrays.equals(serialize(fork), before), "fork of game " + seed + " differs from the game");
+
+            // play the fork to the end, forking it again along the way
+            Random random = new Random(~seed);
+            for (int turn = 0; turn < MAX_TURNS && !fork.gameOver(); turn++) {
+                Checks.playTurns(fork, random, 1);
+                Checks.playTurns(fork.fork(), new Random(turn), 1);
+            }
+            check(Arrays.equals(serialize(game), before), "playing a fork changed game " + seed);
+            check(Arrays.equals(serialize(twin), before), "playing a fork changed another fork of game " + seed);
+
+            Random gameRandom = new Random(seed * 31);
+            Random twinRandom = new Random(seed * 31);
+            for (int turn = 0; turn < MAX_TURNS && !game.gameOver(); turn++) {
+                Checks.playTurns(game, gameRandom, 1);
+                Checks.playTurns(twin, twinRandom, 1);
+                check(Arrays.equals(serialize(game), serialize(twin)), "fork of game " + seed + " played differently");
+            }
+            check(twin.gameOver(), "fork of game " + seed + " did not end with the game");
+        }
+        System.out.println("ForkCheck passed");
+    }
+
+    /**
+     * returns the game in Java serialization form, to compare games by
+     * 
+     * @param game game
+     * @return bytes
+     * @throws IOException never, the stream is in memory
+     */
+    static byte[] serialize(GameEngine game) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(game);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,125 @@
+package selfish;
+
+import java.io.*;
+import java.util.*;
+import selfish.deck.*;
+import static selfish.Checks.check;
+
+/**
+ * Class GameJournalCheck checks that replaying a saved journal rebuilds the
+ * game it was recorded from
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class GameJournalCheck {
+    private static final int GAMES = 100;
+    private static final int MAX_TURNS = 1000;
+
+    /**
+     * an empty constructor
+     */
+    private GameJournalCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File file = File.createTempFile("selfish", ".journal");
+        file.deleteOnExit();
+        for (long seed = 1; seed <= GAMES; seed++) {
+            GameEngine game = new GameEngine(seed, Checks.IO_DIR + "/ActionCards.txt",
+                    Checks.IO_DIR + "/SpaceCards.txt");
+            game.setHeadless(true);
+            GameJournal journal = game.startJournal();
+            for (int i = 0; i < 4; i++) {
+                game.addPlayer("Player " + (i + 1));
+            }
+            game.startGame();
+
+            // a card the journal never saw leave the deck it was dealt from
+            Card outsider = Checks.newGame(seed, 2, false).getGameDeck().draw();
+            game.getGameDiscard().add(outsider);
+
+            Random random = new Random(seed);
+            for (int turn = 0; turn < MAX_TURNS && !game.gameOver(); turn++) {
+                Astronaut victim = game.getAllPlayers().get(game.getAllPlayers().size() - 1);
+                // steal only while the victim keeps an oxygen card whatever is taken
+                boolean twoOxygenCards = victim.getHand().size() - victim.getActions().size() >= 2;
+                if (random.nextInt(10) == 0 && victim.isAlive() && twoOxygenCards) {
+                    game.getGameDiscard().add(victim.steal());
+                }
+                Checks.playTurns(game, random, 1);
+                if (turn == 3 && !game.gameOver()) {
+                    expectHackRefused(game.getAllPlayers().get(0));
+                }
+            }
+            checkRefusedCallsAreNotJournaled(game, journal);
+
+            journal.save(file.getPath());
+            GameEngine replayed = GameJournal.load(file.getPath()).replay();
+            check(Checks.describe(game).equals(Checks.describe(replayed)), "replay of game " + seed + " differs");
+            check(game.stateHash() == replayed.stateHash(), "replay of game " + seed + " has another hash");
+            Iterator<Card> replayedDiscard = replayed.getGameDiscard().getCards().iterator();
+            for (Card card : game.getGameDiscard().getCards()) {
+                String description = replayedDiscard.next().getDescription();
+                check(Objects.equals(card.getDescription(), description),
+                        "replay of game " + seed + " made " + card + " with description '" + description + "'");
+            }
+        }
+        System.out.println("GameJournalCheck passed");
+    }
+
+    /**
+     * checks that calls refused by the game leave the journal as it was
+     * 
+     * @param game    game, between turns
+     * @param journal journal of the game
+     */
+    private static void checkRefusedCallsAreNotJournaled(GameEngine game, GameJournal journal) {
+        boolean midTurn = !game.gameOver();
+        if (midTurn) {
+            game.startTurn();
+        }
+        int size = journal.size();
+        expectRefused(game::startTurn);
+        expectRefused(game::startGame);
+        Astronaut current = game.getCurrentPlayer();
+        if (current != null && current.oxygenRemaining() < 2) {
+            expectRefused(() -> game.travel(current));
+        }
+        check(journal.size() == size, "a refused call was journaled");
+        if (midTurn) {
+            game.endTurn();
+        }
+    }
+
+    /**
+     * checks that hacking a card that does not exist is refused, as callers
+     * catching the exception do
+     * 
+     * @param astronaut player to hack
+     */
+    private static void expectHackRefused(Astronaut astronaut) {
+        boolean refused = false;
+        try {
+            astronaut.hack("No such card");
+        } catch (IllegalArgumentException e) {
+            refused = true;
+        }
+        check(refused, "hacking a card that does not exist was allowed");
+    }
+
+    /**
+     * checks that the passed call throws an IllegalStateException
+     * 
+     * @param call call
+     */
+    private static void expectRefused(Runnable call) {
+        boolean refused = false;
+        try {
+            call.run();
+        } catch (IllegalStateException e) {
+            refused = true;
+        }
+        check(refused, "an illegal call was allowed");
+    }
+}
@@ -0,0 +1,52 @@
+package selfish;
+
+import java.util.*;
+import static selfish.Checks.check;
+
+/**
+ * Class GameRandomCheck checks that GameRandom.nextInt(bound) rejects the
+ * draws that would bias it, and stays in range
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class GameRandomCheck {
+    private static final int CALLS = 100_000;
+
+    /**
+     * an empty constructor
+     */
+    private GameRandomCheck() {
+    }
+
+    public static void main(String[] args) {
+        // 2^32 mod bound is a quarter of 2^32, so a quarter of the draws are rejected
+        int bound = 3 << 29;
+        GameRandom random = new GameRandom(422);
+        int rejected = 0;
+        long[] thirds = new long[3];
+        for (int i = 0; i < CALLS; i++) {
+            GameRandom before = random.copy();
+            int value = random.nextInt(bound);
+            check(value >= 0 && value < bound, "nextInt(" + bound + ") returned " + value);
+            thirds[value / (bound / 3)]++;
+            before.nextLong();
+            if (!Arrays.equals(before.getState(), random.getState())) {
+                rejected++;
+            }
+        }
+        check(rejected > CALLS / 5 && rejected < CALLS * 3 / 10, "rejected " + rejected + " of " + CALLS + " draws");
+        for (long third : thirds) {
+            check(Math.abs(third - CALLS / 3) < CALLS / 50, "uneven thirds " + Arrays.toString(thirds));
+        }
+
+        // a power of two never needs a second draw
+        for (int i = 0; i < CALLS; i++) {
+            GameRandom before = random.copy();
+            random.nextInt(1 << 20);
+            before.nextLong();
+            check(Arrays.equals(before.getState(), random.getState()), "nextInt(2^20) drew twice");
+        }
+        System.out.println("GameRandomCheck passed");
+    }
+}
@@ -0,0 +1,92 @@
+package selfish;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import static selfish.Checks.check;
+
+/**
+ * Class SaveFormatCheck checks that a game loaded by loadGame plays on exactly
+ * like the game that was saved, from either save format
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class SaveFormatCheck {
+    private static final int GAMES = 100;
+    private static final int TURNS_BEFORE_SAVE = 15;
+
+    /**
+     * an empty constructor
+     */
+    private SaveFormatCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File file = File.createTempFile("selfish", ".sav");
+        file.deleteOnExit();
+        String path = file.getPath();
+        for (long seed = 0; seed < GAMES; seed++) {
+            boolean legacy = seed % 4 == 0;
+            GameEngine saved = Checks.newGame(seed, 2 + (int) (seed % 4), true);
+            Checks.playTurns(saved, new Random(seed), TURNS_BEFORE_SAVE);
+            if (legacy) {
+                saved.saveState(path);
+            } else {
+                saved.saveGame(path);
+            }
+            GameEngine loaded = GameEngine.loadGame(path);
+            loaded.setHeadless(true);
+            check(Checks.describe(saved).equals(Checks.describe(loaded)), "game " + seed + " changed when loaded");
+            check(saved.stateHash() == loaded.stateHash(), "game " + seed + " hash changed when loaded");
+            checkSeats(saved, loaded, seed);
+
+            Checks.playTurns(saved, new Random(~seed), Integer.MAX_VALUE);
+            Checks.playTurns(loaded, new Random(~seed), Integer.MAX_VALUE);
+            check(Checks.describe(saved).equals(Checks.describe(loaded)), "game " + seed + " diverged after loading");
+        }
+
+        Checks.newGame(1, 2, true).saveGame(path);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        // magic, version, hasStarted, the random streams and the number of kinds
+        int firstTypeId = 4 + 2 + 1 + 1 + RandomStream.COUNT * 4 * Long.BYTES + 1;
+        bytes[firstTypeId] = Byte.MAX_VALUE;
+        Files.write(file.toPath(), bytes);
+        String error = null;
+        try {
+            GameEngine.loadGame(path);
+        } catch (GameException e) {
+            error = e.getCause().getMessage();
+        }
+        check(("Unknown card type " + Byte.MAX_VALUE).equals(error), "unknown card type loaded, error " + error);
+
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] { 1, 2 });
+        }
+        boolean rejected = false;
+        try {
+            GameEngine.loadGame(path);
+        } catch (GameException e) {
+            rejected = true;
+        }
+        check(rejected, "a two-byte file loaded as a game");
+        System.out.println("SaveFormatCheck passed");
+    }
+
+    /**
+     * checks that every player of a loaded game sits in the seat they had
+     * when the game was saved
+     * 
+     * @param saved  game that was saved
+     * @param loaded game loaded from the save
+     * @param seed   seed of the game
+     */
+    private static void checkSeats(GameEngine saved, GameEngine loaded, long seed) {
+        for (int seat = 0; seat < saved.getFullPlayerCount(); seat++) {
+            String name = saved.getPlayer(seat).getName();
+            String loadedName = loaded.getPlayer(seat).getName();
+            check(name.equals(loadedName), "game " + seed + " seated " + loadedName + " in the seat of " + name);
+            check(loaded.getPlayer(seat).getSeat() == seat, "game " + seed + " seat " + seat + " numbered wrong");
+        }
+    }
+}
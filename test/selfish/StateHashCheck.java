@@ -0,0 +1,118 @@
+package selfish;
+
+import java.io.*;
+import java.util.*;
+import static selfish.Checks.check;
+
+/**
+ * Class StateHashCheck checks that the hash GameEngine keeps up to date as the
+ * game changes equals the hash computed again from scratch
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class StateHashCheck {
+    private static final int GAMES = 100;
+    private static final int MAX_TURNS = 1000;
+
+    /**
+     * an empty constructor
+     */
+    private StateHashCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int turns = 0;
+        int distinctHashes = 0;
+        for (long seed = 1; seed <= GAMES; seed++) {
+            GameEngine game = Checks.newGame(seed, 2 + (int) (seed % 4), true);
+            Random random = new Random(seed);
+            Set<Long> seen = new HashSet<Long>();
+            for (int turn = 0; turn < MAX_TURNS && !game.gameOver(); turn++) {
+                Checks.playTurns(game, random, 1);
+                if (random.nextInt(8) == 0 && !game.gameOver()) {
+                    swapTracks(game, random);
+                }
+                long hash = game.stateHash();
+                check(recompute(game) == hash, "hash of game " + seed + " went stale on turn " + turn);
+                check(game.fork().stateHash() == hash, "fork of game " + seed + " hashes differently on turn " + turn);
+                if (seen.add(hash)) {
+                    distinctHashes++;
+                }
+                turns++;
+            }
+        }
+        check(distinctHashes > turns * 9 / 10, "only " + distinctHashes + " distinct hashes in " + turns + " turns");
+        checkPlayerToMove();
+        System.out.println("StateHashCheck passed");
+    }
+
+    /**
+     * returns the hash of a copy of the game that hashes every part again
+     * 
+     * @param game game
+     * @return hash
+     * @throws Exception copy failed
+     */
+    private static long recompute(GameEngine game) throws Exception {
+        byte[] bytes = ForkCheck.serialize(game);
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return ((GameEngine) in.readObject()).stateHash();
+        }
+    }
+
+    /**
+     * swaps the track of two players alive, which moves cards without drawing
+     * 
+     * @param game   game between turns
+     * @param random choice of the players
+     */
+    private static void swapTracks(GameEngine game, Random random) {
+        List<Astronaut> alive = new ArrayList<Astronaut>();
+        for (Astronaut astronaut : game.getAllPlayers()) {
+            if (astronaut.isAlive()) {
+                alive.add(astronaut);
+            }
+        }
+        if (alive.size() < 2) {
+            return;
+        }
+        Astronaut swapper = alive.remove(random.nextInt(alive.size()));
+        swapper.swapTrack(alive.get(random.nextInt(alive.size())));
+    }
+
+    /**
+     * checks that the same cards held in the same turn order hash differently
+     * when a different seat is to move
+     * 
+     * @throws Exception card files not found
+     */
+    private static void checkPlayerToMove() throws Exception {
+        GameEngine game = Checks.newGame(7, 2, true);
+        game.startTurn();
+        PackedPosition position = PackedPosition.encode(game);
+        check(position.decode(game).stateHash() == game.stateHash(), "a decoded game hashes differently");
+
+        // a template with the second seat to move and the first waiting
+        GameEngine template = game.fork();
+        template.getCurrentPlayer().breathe();
+        template.endTurn();
+        template.startTurn();
+        GameEngine otherSeatToMove = position.decode(template);
+        check(otherSeatToMove.getCurrentPlayer().getSeat() != game.getCurrentPlayer().getSeat(),
+                "the template did not move the other seat");
+        check(otherSeatToMove.stateHash() != game.stateHash(), "the seat to move is not hashed");
+
+        // the same seed with the players joining the other way round
+        GameEngine first = new GameEngine(7, Checks.IO_DIR + "/ActionCards.txt", Checks.IO_DIR + "/SpaceCards.txt");
+        GameEngine second = new GameEngine(7, Checks.IO_DIR + "/ActionCards.txt", Checks.IO_DIR + "/SpaceCards.txt");
+        for (GameEngine swapped : new GameEngine[] { first, second }) {
+            swapped.setHeadless(true);
+            swapped.addPlayer(swapped == first ? "A" : "B");
+            swapped.addPlayer(swapped == first ? "B" : "A");
+            swapped.startGame();
+            swapped.startTurn();
+        }
+        check(first.stateHash() != second.stateHash(), "who is to move is not hashed");
+    }
+}
@@ -0,0 +1,53 @@
+package selfish.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import static selfish.Checks.check;
+
+/**
+ * Class GameLogCheck checks that producers racing for slots of GameLog's ring
+ * buffer never drop a record while the ring has room
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class GameLogCheck {
+    private static final int THREADS = 8;
+    private static final int RECORDS = 1000;
+    private static final int ROUNDS = 20;
+
+    /**
+     * an empty constructor
+     */
+    private GameLogCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            GameLog.start(out, LogLevel.INFO);
+            Thread[] producers = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                int seat = t;
+                producers[t] = new Thread(() -> {
+                    for (int i = 0; i < RECORDS; i++) {
+                        GameLog.log(LogLevel.INFO, "check", 0, seat, "record " + i);
+                    }
+                });
+            }
+            for (Thread producer : producers) {
+                producer.start();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            long dropped = GameLog.getDropped();
+            GameLog.stop();
+            check(dropped == 0, "dropped " + dropped + " records with room in the ring");
+            String text = new String(out.toByteArray(), StandardCharsets.UTF_8);
+            long lines = text.chars().filter(c -> c == '\n').count();
+            check(lines == THREADS * RECORDS, "wrote " + lines + " of " + THREADS * RECORDS + " records");
+        }
+        System.out.println("GameLogCheck passed");
+    }
+}
@@ -0,0 +1,102 @@
+package selfish.io;
+
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import static selfish.Checks.check;
+
+/**
+ * Class LineConnectionCheck checks that LineConnection splits lines and closes
+ * on a line longer than MAX_LINE, on too many unread lines and on a full lobby
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class LineConnectionCheck {
+
+    /**
+     * an empty constructor
+     */
+    private LineConnectionCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LineConnection connection = new LineConnection(null, SocketChannel.open());
+        boolean nameArrived = connection.received(bytes("Alice\r\ntra"));
+        check(nameArrived && "Alice".equals(connection.getName()), "name was " + connection.getName());
+        connection.received(bytes("vel\n"));
+        check("travel".equals(connection.readLine()), "line split across reads was lost");
+
+        char[] endless = new char[LineConnection.MAX_LINE + 1];
+        Arrays.fill(endless, 'x');
+        for (int i = 0; i < 4 && connection.isOpen(); i++) {
+            connection.received(bytes(new String(endless)));
+        }
+        check(!connection.isOpen(), "a line longer than MAX_LINE left the connection open");
+        check(connection.readLine() == null, "a closed connection returned a line");
+
+        LineConnection flooded = new LineConnection(null, SocketChannel.open());
+        char[] breaks = new char[LineConnection.MAX_PENDING_LINES + 1];
+        Arrays.fill(breaks, '\n');
+        flooded.received(bytes("Bob\n" + new String(breaks)));
+        check(!flooded.isOpen(), "more than MAX_PENDING_LINES unread lines left the connection open");
+        for (int i = 0; i < LineConnection.MAX_PENDING_LINES; i++) {
+            check("".equals(flooded.readLine()), "a line read before the flood was lost");
+        }
+        check(flooded.readLine() == null, "a flooded connection returned a line past the limit");
+        checkLobby();
+        System.out.println("LineConnectionCheck passed");
+    }
+
+    /**
+     * checks that a player arriving at a full lobby is disconnected
+     * 
+     * @throws Exception socket error
+     */
+    private static void checkLobby() throws Exception {
+        List<SocketChannel> clients = new ArrayList<SocketChannel>();
+        try (LineServer server = new LineServer(0)) {
+            server.start();
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+            for (int i = 0; i <= LineServer.MAX_LOBBY; i++) {
+                SocketChannel client = SocketChannel.open(address);
+                client.write(bytes("Player " + i + "\n"));
+                client.configureBlocking(false);
+                clients.add(client);
+            }
+            // whichever name the server reads last finds the lobby full
+            Set<SocketChannel> disconnected = new HashSet<SocketChannel>();
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            long deadline = System.currentTimeMillis() + 10000;
+            while (disconnected.isEmpty() && System.currentTimeMillis() < deadline) {
+                for (SocketChannel client : clients) {
+                    buffer.clear();
+                    if (client.read(buffer) < 0) {
+                        disconnected.add(client);
+                    }
+                }
+                Thread.sleep(1);
+            }
+            check(disconnected.size() == 1, disconnected.size() + " players were disconnected from a full lobby");
+            for (int i = 0; i < LineServer.MAX_LOBBY; i++) {
+                check(server.awaitPlayer().isOpen(), "a player waiting in the lobby was disconnected");
+            }
+        } finally {
+            for (SocketChannel client : clients) {
+                client.close();
+            }
+        }
+    }
+
+    /**
+     * returns the UTF-8 bytes of the passed text, ready to be drained
+     * 
+     * @param text text
+     * @return buffer
+     */
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,165 @@
+package selfish.session;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import selfish.Astronaut;
+import selfish.Checks;
+import selfish.GameEngine;
+import static selfish.Checks.check;
+
+/**
+ * Class GameActorCheck checks that GameActor plays commands from many threads
+ * one at a time, in the order they were queued, and publishes snapshots in
+ * order
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class GameActorCheck {
+    private static final int PRODUCERS = 6;
+    private static final int COMMANDS = 5000;
+    private static final int READERS = 2;
+    private static final int GAMES = 20;
+    private static final int TURNS = 300;
+
+    /**
+     * an empty constructor
+     */
+    private GameActorCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            checkProducers(executor);
+            for (long seed = 1; seed <= GAMES; seed++) {
+                checkTurns(seed, executor);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        System.out.println("GameActorCheck passed");
+    }
+
+    /**
+     * queues commands from several threads while others read snapshots, and
+     * checks every command was played alone, once, in the order its thread
+     * queued it, and that snapshot versions only go up
+     * 
+     * @param executor executor playing the commands
+     * @throws Exception check failed to run
+     */
+    private static void checkProducers(Executor executor) throws Exception {
+        GameActor actor = new GameActor(Checks.newGame(7, 4, true), executor);
+        AtomicInteger playing = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        // only touched by the commands, which the actor plays one at a time
+        int[] lastPlayed = new int[PRODUCERS];
+        Arrays.fill(lastPlayed, -1);
+        int[] outOfOrder = new int[1];
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < COMMANDS; i++) {
+                    int command = i;
+                    actor.submit(game -> {
+                        if (playing.incrementAndGet() != 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        if (lastPlayed[producer] != command - 1) {
+                            outOfOrder[0]++;
+                        }
+                        lastPlayed[producer] = command;
+                        playing.decrementAndGet();
+                        return null;
+                    });
+                }
+            });
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger versionsGoingBack = new AtomicInteger();
+        Thread[] readers = new Thread[READERS];
+        for (int r = 0; r < READERS; r++) {
+            readers[r] = new Thread(() -> {
+                long last = -1;
+                while (!done.get()) {
+                    long version = actor.snapshot().getVersion();
+                    if (version < last) {
+                        versionsGoingBack.incrementAndGet();
+                    }
+                    last = version;
+                }
+            });
+        }
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        int[] played = actor.submit(game -> lastPlayed.clone()).get(30, TimeUnit.SECONDS);
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        for (int p = 0; p < PRODUCERS; p++) {
+            check(played[p] == COMMANDS - 1, "producer " + p + " had " + (played[p] + 1) + " commands played");
+        }
+        check(overlaps.get() == 0, overlaps.get() + " commands were played alongside another");
+        check(outOfOrder[0] == 0, outOfOrder[0] + " commands were played out of order");
+        check(versionsGoingBack.get() == 0, "snapshot versions went back " + versionsGoingBack.get() + " times");
+        long expectedVersion = PRODUCERS * COMMANDS + 1;
+        check(actor.snapshot().getVersion() == expectedVersion, "version " + actor.snapshot().getVersion());
+        // the last future completes just before the actor counts its command played
+        long deadline = System.currentTimeMillis() + 10000;
+        while (actor.getPendingCommands() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        check(actor.getPendingCommands() == 0, actor.getPendingCommands() + " commands left pending");
+    }
+
+    /**
+     * plays the same turns through an actor and directly on a game of the
+     * same seed, and checks both end in the same state
+     * 
+     * @param seed     seed of the games
+     * @param executor executor playing the commands
+     * @throws Exception check failed to run
+     */
+    private static void checkTurns(long seed, Executor executor) throws Exception {
+        GameEngine direct = Checks.newGame(seed, 4, true);
+        GameActor actor = new GameActor(Checks.newGame(seed, 4, true), executor);
+        Random random = new Random(seed);
+        List<CompletableFuture<Boolean>> results = new ArrayList<CompletableFuture<Boolean>>();
+        for (int i = 0; i < TURNS; i++) {
+            String command = random.nextInt(3) == 0 ? GameSession.BREATHE : GameSession.TRAVEL;
+            results.add(actor.playTurn(null, command));
+            if (direct.gameOver()) {
+                continue;
+            }
+            if (direct.getCurrentPlayer() == null) {
+                direct.startTurn();
+            }
+            Astronaut astronaut = direct.getCurrentPlayer();
+            if (command.equals(GameSession.BREATHE)) {
+                astronaut.breathe();
+                direct.endTurn();
+            } else if (astronaut.oxygenRemaining() >= 2 && direct.getSpaceDeck().size() > 0) {
+                direct.travel(astronaut);
+                direct.endTurn();
+            }
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        GameSnapshot snapshot = actor.snapshot();
+        check(snapshot.getVersion() == TURNS, "game " + seed + " snapshot version " + snapshot.getVersion());
+        check(snapshot.getStateHash() == direct.stateHash(), "game " + seed + " played differently through the actor");
+        check(snapshot.isOver() == direct.gameOver(), "game " + seed + " ended differently through the actor");
+    }
+}
@@ -0,0 +1,56 @@
+package selfish.session;
+
+import java.util.*;
+import selfish.Checks;
+import static selfish.Checks.check;
+
+/**
+ * Class SessionManagerCheck checks that SessionManager forgets sessions once
+ * their games end
+ * 
+ * @author Minjun Kim
+ * @version 1.0
+ */
+public final class SessionManagerCheck {
+    private static final int SESSIONS = 20;
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    /**
+     * an empty constructor
+     */
+    private SessionManagerCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        SessionManager manager = new SessionManager(Checks.IO_DIR + "/ActionCards.txt",
+                Checks.IO_DIR + "/SpaceCards.txt");
+        try {
+            List<GameSession> sessions = new ArrayList<GameSession>();
+            for (int i = 0; i < SESSIONS; i++) {
+                sessions.add(manager.create(i, "Player 1", "Player 2", "Player 3"));
+            }
+            GameSession retired = sessions.remove(0);
+            manager.retire(retired.getId());
+
+            Random random = new Random(0);
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (manager.size() > 0 && System.currentTimeMillis() < deadline) {
+                for (GameSession session : sessions) {
+                    if (!session.getState().isDone() && session.getPendingCommands() == 0) {
+                        session.submit(null, random.nextInt(3) == 0 ? GameSession.BREATHE : GameSession.TRAVEL);
+                    }
+                }
+                Thread.sleep(1);
+            }
+            check(manager.size() == 0, manager.size() + " sessions were kept after their games ended");
+            for (GameSession session : sessions) {
+                check(session.getState() == SessionState.FINISHED, "session ended " + session.getState());
+                check(manager.get(session.getId()) == null, "finished session " + session.getId() + " was kept");
+            }
+            check(retired.getState() == SessionState.RETIRED, "retired session ended " + retired.getState());
+        } finally {
+            manager.shutdown();
+        }
+        System.out.println("SessionManagerCheck passed");
+    }
+}